@@ -0,0 +1,262 @@
+package org.jthreadutils.distribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * {@link DataGroupIdExtractor} for group id combined from many fields of data
+ * element, like <code>SHOP</code>, <code>CUSTOMER</code>, <code>ORDER</code>
+ * described in {@link DataGroupIdExtractor}. Fields are read by accessors
+ * provided to {@link Builder}, numeric fields could be read without boxing.
+ * 
+ * Orchestrators recognize this extractor and group data based on 64-bit hash
+ * of fields calculated by {@link #extractGroupIdHash(Object)}, which doesn't
+ * allocate any object. Element with hash equal to hash of known group is
+ * compared field by field with values of group id kept for that group by
+ * {@link #isGroupOf(Object, List)}, so collision of hashes never merges
+ * different groups. Every field accessor is therefore called twice for such
+ * element, once for hash and once for comparison. Group id as list of field
+ * values is created by {@link #extractGroupId(Object)} once per group.
+ * 
+ * <pre>
+ * CompositeDataGroupIdExtractor&lt;Event&gt; extractor = CompositeDataGroupIdExtractor.&lt;Event&gt;builder()
+ * 		.withField(Event::getShop).withLongField(Event::getCustomerId).withIntField(Event::getOrder).build();
+ * </pre>
+ * 
+ * @param <I> type of data
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+public final class CompositeDataGroupIdExtractor<I> implements DataGroupIdExtractor<I, List<Object>> {
+	private static final long HASH_SEED = 0x9e3779b97f4a7c15L;
+	private static final long HASH_MULTIPLIER = 0xc2b2ae3d27d4eb4fL;
+
+	private final GroupIdField<I>[] fields;
+
+	private CompositeDataGroupIdExtractor(final GroupIdField<I>[] fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * @param <I> type of data
+	 * @return builder of extractor without any field
+	 * 
+	 * @since 1.0.0
+	 */
+	public static <I> Builder<I> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * @return unmodifiable list with values of all fields in order in which they
+	 *         were added to {@link Builder}
+	 * 
+	 * @since 1.0.0
+	 */
+	@Override
+	public List<Object> extractGroupId(final I data) {
+		final Object[] values = new Object[fields.length];
+		for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+			values[fieldIndex] = fields[fieldIndex].valueOf(data);
+		}
+
+		return Collections.unmodifiableList(Arrays.asList(values));
+	}
+
+	/**
+	 * @param data is single data element
+	 * @return 64-bit hash of all fields, equal for elements from the same group
+	 * 
+	 * @since 1.0.0
+	 */
+	public long extractGroupIdHash(final I data) {
+		long hash = HASH_SEED;
+		for (GroupIdField<I> field : fields) {
+			hash = Long.rotateLeft((hash ^ field.hashOf(data)) * HASH_MULTIPLIER, 31);
+		}
+
+		return mix(hash);
+	}
+
+	/**
+	 * Bulk version of {@link #extractGroupIdHash(Object)}.
+	 * 
+	 * @param chunk  consecutive elements of data
+	 * @param hashes array, where hash of element <code>i</code> of chunk is
+	 *               stored at index <code>i</code>, it is at least as long as
+	 *               chunk
+	 * 
+	 * @since 1.0.0
+	 */
+	public void extractGroupIdHashes(final List<? extends I> chunk, final long[] hashes) {
+		for (int index = 0; index < chunk.size(); index++) {
+			hashes[index] = extractGroupIdHash(chunk.get(index));
+		}
+	}
+
+	/**
+	 * Compares fields of element with values of group id without creating group
+	 * id of element, primitive fields are compared without boxing.
+	 * 
+	 * @param data    is single data element
+	 * @param groupId values of fields created by {@link #extractGroupId(Object)}
+	 * @return <code>true</code> in case all fields of element are equal to
+	 *         values of given group id
+	 * 
+	 * @since 1.0.0
+	 */
+	public boolean isGroupOf(final I data, final List<Object> groupId) {
+		for (int fieldIndex = 0; fieldIndex < fields.length; fieldIndex++) {
+			if (!fields[fieldIndex].isEqualToValue(data, groupId.get(fieldIndex))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static long mix(final long hash) {
+		long mixedHash = hash;
+		mixedHash ^= mixedHash >>> 33;
+		mixedHash *= 0xff51afd7ed558ccdL;
+		mixedHash ^= mixedHash >>> 33;
+		mixedHash *= 0xc4ceb9fe1a85ec53L;
+		mixedHash ^= mixedHash >>> 33;
+		return mixedHash;
+	}
+
+	private interface GroupIdField<I> {
+		long hashOf(final I data);
+
+		boolean isEqualToValue(final I data, final Object value);
+
+		Object valueOf(final I data);
+	}
+
+	/**
+	 * Builder of {@link CompositeDataGroupIdExtractor}, at least one field has to
+	 * be added.
+	 * 
+	 * @param <I> type of data
+	 * 
+	 * @author adam-wypych
+	 * @since 1.0.0
+	 * @version %I%, %G%
+	 */
+	public static final class Builder<I> {
+		private final List<GroupIdField<I>> fields = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * @param fieldAccessor accessor of object field, it is compared by
+		 *                      <code>equals</code> and hashed by
+		 *                      <code>hashCode</code>
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public Builder<I> withField(final Function<? super I, ?> fieldAccessor) {
+			Objects.requireNonNull(fieldAccessor, "Field accessor should be provided");
+			fields.add(new GroupIdField<I>() {
+				@Override
+				public long hashOf(final I data) {
+					return Objects.hashCode(fieldAccessor.apply(data));
+				}
+
+				@Override
+				public boolean isEqualToValue(final I data, final Object value) {
+					return Objects.equals(fieldAccessor.apply(data), value);
+				}
+
+				@Override
+				public Object valueOf(final I data) {
+					return fieldAccessor.apply(data);
+				}
+			});
+			return this;
+		}
+
+		/**
+		 * @param fieldAccessor accessor of <code>long</code> field
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public Builder<I> withLongField(final ToLongFunction<? super I> fieldAccessor) {
+			Objects.requireNonNull(fieldAccessor, "Field accessor should be provided");
+			fields.add(new GroupIdField<I>() {
+				@Override
+				public long hashOf(final I data) {
+					return fieldAccessor.applyAsLong(data);
+				}
+
+				@Override
+				public boolean isEqualToValue(final I data, final Object value) {
+					return ((Long) value).longValue() == fieldAccessor.applyAsLong(data);
+				}
+
+				@Override
+				public Object valueOf(final I data) {
+					return fieldAccessor.applyAsLong(data);
+				}
+			});
+			return this;
+		}
+
+		/**
+		 * @param fieldAccessor accessor of <code>int</code> field
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public Builder<I> withIntField(final ToIntFunction<? super I> fieldAccessor) {
+			Objects.requireNonNull(fieldAccessor, "Field accessor should be provided");
+			fields.add(new GroupIdField<I>() {
+				@Override
+				public long hashOf(final I data) {
+					return fieldAccessor.applyAsInt(data);
+				}
+
+				@Override
+				public boolean isEqualToValue(final I data, final Object value) {
+					return ((Integer) value).intValue() == fieldAccessor.applyAsInt(data);
+				}
+
+				@Override
+				public Object valueOf(final I data) {
+					return fieldAccessor.applyAsInt(data);
+				}
+			});
+			return this;
+		}
+
+		/**
+		 * @return extractor combining all added fields
+		 * @throws IllegalStateException in case no field was added
+		 * 
+		 * @since 1.0.0
+		 */
+		@SuppressWarnings("unchecked")
+		public CompositeDataGroupIdExtractor<I> build() {
+			if (fields.isEmpty()) {
+				throw new IllegalStateException("At least one field should be added to composite group id");
+			}
+
+			return new CompositeDataGroupIdExtractor<>(
+					(GroupIdField<I>[]) fields.toArray(new GroupIdField<?>[fields.size()]));
+		}
+	}
+}
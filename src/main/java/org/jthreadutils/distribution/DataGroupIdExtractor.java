@@ -1,5 +1,7 @@
 package org.jthreadutils.distribution;
 
+import java.util.List;
+
 /**
  * This interface give possibility for developers to provide common
  * identification key for subset of data (group id), which will be handle by dedicated thread.
@@ -69,4 +71,24 @@ public interface DataGroupIdExtractor<I, O> {
 	 * @version %I%, %G%
 	 */
 	O extractGroupId(final I data);
+
+	/**
+	 * Bulk version of {@link #extractGroupId(Object)} called by orchestrators for
+	 * consecutive chunks of data. Default implementation calls
+	 * {@link #extractGroupId(Object)} for every element, it could be overridden in
+	 * order to process chunk in tight loop or to resolve group ids of whole chunk
+	 * by single lookup (i.e. batched database or cache call).
+	 * 
+	 * @param chunk    consecutive elements of data
+	 * @param groupIds array, where group id of element <code>i</code> of chunk
+	 *                 should be stored at index <code>i</code>, it is at least
+	 *                 as long as chunk
+	 * 
+	 * @since 1.0.0
+	 */
+	default void extractGroupIds(final List<? extends I> chunk, final Object[] groupIds) {
+		for (int index = 0; index < chunk.size(); index++) {
+			groupIds[index] = extractGroupId(chunk.get(index));
+		}
+	}
 }
@@ -0,0 +1,57 @@
+package org.jthreadutils.distribution;
+
+import java.util.List;
+
+/**
+ * Specialization of {@link DataGroupIdExtractor} for data identified by
+ * numeric group id, like customer or account id. Orchestrators recognize this
+ * interface and build their plans based on primitive group ids, without boxing
+ * them for every data element.
+ * 
+ * @param <I> type of data
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@FunctionalInterface
+public interface LongDataGroupIdExtractor<I> extends DataGroupIdExtractor<I, Long> {
+
+	/**
+	 * This method provides functionality to extracts from given element of data
+	 * unique numeric key in order to segregate data which belongs to same group of
+	 * data.
+	 * 
+	 * @param data is single data element
+	 * @return unique key of subset of data
+	 * 
+	 * @since 1.0.0
+	 */
+	long extractLongGroupId(final I data);
+
+	/**
+	 * Primitive version of {@link #extractGroupIds(List, Object[])}.
+	 * 
+	 * @param chunk    consecutive elements of data
+	 * @param groupIds array, where group id of element <code>i</code> of chunk
+	 *                 should be stored at index <code>i</code>, it is at least
+	 *                 as long as chunk
+	 * 
+	 * @since 1.0.0
+	 */
+	default void extractLongGroupIds(final List<? extends I> chunk, final long[] groupIds) {
+		for (int index = 0; index < chunk.size(); index++) {
+			groupIds[index] = extractLongGroupId(chunk.get(index));
+		}
+	}
+
+	/**
+	 * Boxed version of {@link #extractLongGroupId(Object)}.
+	 * 
+	 * @since 1.0.0
+	 */
+	@Override
+	default Long extractGroupId(final I data) {
+		return extractLongGroupId(data);
+	}
+}
@@ -0,0 +1,52 @@
+package org.jthreadutils.distribution.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * {@link LongIndexedData} over many lists, chunk of element is found by binary
+ * search over offsets of chunks, so only one <code>long</code> is kept per
+ * chunk.
+ * 
+ * @param <T> type of data
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+class ChunkedLongIndexedData<T> implements LongIndexedData<T> {
+	private final List<List<? extends T>> chunks;
+	private final long[] chunkOffsets;
+
+	ChunkedLongIndexedData(final List<? extends List<? extends T>> chunks) {
+		this.chunks = new ArrayList<>(chunks.size());
+		this.chunkOffsets = new long[chunks.size() + 1];
+		for (List<? extends T> chunk : chunks) {
+			// empty chunks would make binary search ambiguous
+			if (!chunk.isEmpty()) {
+				chunkOffsets[this.chunks.size() + 1] = chunkOffsets[this.chunks.size()] + chunk.size();
+				this.chunks.add(CollectionUtils.asRandomAccessList(chunk));
+			}
+		}
+	}
+
+	@Override
+	public long size() {
+		return chunkOffsets[chunks.size()];
+	}
+
+	@Override
+	public T get(final long index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + size() + ")");
+		}
+
+		final int insertionPoint = Arrays.binarySearch(chunkOffsets, 0, chunks.size() + 1, index);
+		final int chunkIndex = insertionPoint >= 0 ? insertionPoint : -insertionPoint - 2;
+		return chunks.get(chunkIndex).get((int) (index - chunkOffsets[chunkIndex]));
+	}
+}
@@ -3,8 +3,10 @@ package org.jthreadutils.distribution.collection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.TreeSet;
 
 import com.google.common.base.Objects;
@@ -49,6 +51,14 @@ public class CollectionUtils {
 		validateIndexes(collection, indexesDeduplicatedAndSorted);
 		final List<T> elementsToReturn = new ArrayList<>(indexesDeduplicatedAndSorted.size());
 
+		if (isRandomAccessList(collection)) {
+			final List<T> list = (List<T>) collection;
+			for (int index : indexesDeduplicatedAndSorted) {
+				elementsToReturn.add(list.get(index));
+			}
+			return elementsToReturn;
+		}
+
 		final Iterator<T> iter = collection.iterator();
 		for (int currentIndexInsideCollection = 0, currentIndexWithinIndexes = 0; iter.hasNext()
 				&& currentIndexWithinIndexes < indexesDeduplicatedAndSorted.size(); currentIndexInsideCollection++) {
@@ -62,6 +72,75 @@ public class CollectionUtils {
 		return elementsToReturn;
 	}
 
+	/**
+	 * Version of {@link #getElementsByIndexes(Collection, Collection)} meant for
+	 * internal callers, which already own valid indexes. Indexes are neither
+	 * de-duplicated, sorted nor validated, elements are returned in order of
+	 * indexes. Cost of this method depends only on number of indexes.
+	 * 
+	 * @param <T>              type of data inside list
+	 * @param randomAccessList original list with {@link RandomAccess}
+	 * @param indexes          array with indexes of elements to collect
+	 * @param fromIndex        the first position inside <code>indexes</code>
+	 *                         (inclusive)
+	 * @param toIndex          the last position inside <code>indexes</code>
+	 *                         (exclusive)
+	 * @return list of elements from <code>randomAccessList</code> in order of
+	 *         indexes
+	 * 
+	 * @see #asRandomAccessList(Collection)
+	 * @since 1.0.0
+	 */
+	public static <T> List<T> getElementsByIndexes(final List<T> randomAccessList, final int[] indexes,
+			final int fromIndex, final int toIndex) {
+		final List<T> elementsToReturn = new ArrayList<>(toIndex - fromIndex);
+		addElementsByIndexes(randomAccessList, indexes, fromIndex, toIndex, elementsToReturn);
+		return elementsToReturn;
+	}
+
+	/**
+	 * The same as {@link #getElementsByIndexes(List, int[], int, int)}, but
+	 * elements are added into given <code>target</code> collection.
+	 * 
+	 * @param <T>              type of data inside list
+	 * @param randomAccessList original list with {@link RandomAccess}
+	 * @param indexes          array with indexes of elements to collect
+	 * @param fromIndex        the first position inside <code>indexes</code>
+	 *                         (inclusive)
+	 * @param toIndex          the last position inside <code>indexes</code>
+	 *                         (exclusive)
+	 * @param target           collection to which elements are added
+	 * 
+	 * @since 1.0.0
+	 */
+	public static <T> void addElementsByIndexes(final List<T> randomAccessList, final int[] indexes,
+			final int fromIndex, final int toIndex, final Collection<? super T> target) {
+		for (int index = fromIndex; index < toIndex; index++) {
+			target.add(randomAccessList.get(indexes[index]));
+		}
+	}
+
+	/**
+	 * @param <T>        type of data inside collection
+	 * @param collection original collection
+	 * @return either the same collection in case it is {@link List} with
+	 *         {@link RandomAccess} or unmodifiable snapshot of its elements
+	 * 
+	 * @since 1.0.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> List<T> asRandomAccessList(final Collection<T> collection) {
+		if (isRandomAccessList(collection)) {
+			return (List<T>) collection;
+		}
+
+		return Collections.unmodifiableList(Arrays.asList((T[]) collection.toArray()));
+	}
+
+	private static boolean isRandomAccessList(final Collection<?> collection) {
+		return collection instanceof List && collection instanceof RandomAccess;
+	}
+
 	private static <T> void validateIndexes(final Collection<T> collection, final List<Integer> indexes) {
 		final int collectionSize = collection.size();
 		for (int index : indexes) {
@@ -0,0 +1,49 @@
+package org.jthreadutils.distribution.collection;
+
+import java.util.List;
+
+/**
+ * Read-only random access data indexed by <code>long</code>, so it could
+ * contain more than {@link Integer#MAX_VALUE} elements, e.g. many lists
+ * together or records of file bigger than single Java collection.
+ * Implementations should provide fast {@link #get(long)}, since it is called
+ * for every element during plan creation and once again while element is
+ * handed out.
+ * 
+ * @param <T> type of data
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+public interface LongIndexedData<T> {
+
+	/**
+	 * @return number of elements
+	 * 
+	 * @since 1.0.0
+	 */
+	long size();
+
+	/**
+	 * @param index position of element, between <code>0</code> (inclusive) and
+	 *              {@link #size()} (exclusive)
+	 * @return element at given position
+	 * @throws IndexOutOfBoundsException in case index is out of range
+	 * 
+	 * @since 1.0.0
+	 */
+	T get(final long index);
+
+	/**
+	 * @param <T>    type of data
+	 * @param chunks lists which elements are seen one after another, lists
+	 *               shouldn't be modified while returned data are used
+	 * @return data containing elements of all given lists
+	 * 
+	 * @since 1.0.0
+	 */
+	static <T> LongIndexedData<T> ofChunks(final List<? extends List<? extends T>> chunks) {
+		return new ChunkedLongIndexedData<>(chunks);
+	}
+}
@@ -0,0 +1,231 @@
+package org.jthreadutils.distribution.collection.mapped;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Read-only {@link List} view of records stored inside file, which is mapped
+ * into memory instead of being read into Java objects. Every element is
+ * zero-copy {@link ByteBuffer} slice of mapped file, which covers exactly one
+ * record, it is created on {@link #get(int)} and its position is
+ * <code>0</code>, so group id could be read straight from mapped bytes, e.g.
+ * <code>(LongDataGroupIdExtractor&lt;ByteBuffer&gt;) record -&gt; record.getLong(0)</code>.
+ * Slices use {@link java.nio.ByteOrder#BIG_ENDIAN} byte order.
+ *
+ * As {@link RandomAccess} list it could be passed directly into
+ * {@link org.jthreadutils.distribution.predefined.DataOrchestratorBasedOnImmutableCollection#createPlan(java.util.Collection)},
+ * plan then keeps only positions of records, and batches contain slices, which
+ * are decoded by consumer lazily.
+ *
+ * Records of fixed size don't need any index. For length-prefixed records,
+ * each prefixed by 4-byte big-endian length of its payload, file is scanned
+ * once and offset of every record is kept as <code>int</code> relative to
+ * mapped region containing it. File is mapped in regions not bigger than
+ * {@link Integer#MAX_VALUE} bytes, a record never crosses a region boundary.
+ *
+ * File is closed once mapping is created, mapping is released when this object
+ * is garbage collected. File shouldn't be modified while it is mapped.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+public final class MappedRecordFile extends AbstractList<ByteBuffer> implements RandomAccess {
+	static final long MAXIMAL_REGION_SIZE = Integer.MAX_VALUE;
+	private static final int LENGTH_PREFIX_SIZE = Integer.BYTES;
+	private static final int NO_FIXED_RECORD_SIZE = -1;
+
+	private final MappedByteBuffer[] regions;
+	private final int[] firstRecordOfRegion;
+	private final int[] recordOffsetInRegion;
+	private final int fixedRecordSize;
+	private final int numberOfRecords;
+
+	private MappedRecordFile(final MappedByteBuffer[] regions, final int[] firstRecordOfRegion,
+			final int[] recordOffsetInRegion, final int fixedRecordSize, final int numberOfRecords) {
+		this.regions = regions;
+		this.firstRecordOfRegion = firstRecordOfRegion;
+		this.recordOffsetInRegion = recordOffsetInRegion;
+		this.fixedRecordSize = fixedRecordSize;
+		this.numberOfRecords = numberOfRecords;
+	}
+
+	/**
+	 * @param file       file containing records of the same size one after
+	 *                   another
+	 * @param recordSize size of every record in bytes, should be greater than 0
+	 * @return view of records inside given file
+	 * @throws IOException in case file couldn't be mapped or its size is not
+	 *                     multiple of record size
+	 *
+	 * @since 1.0.0
+	 */
+	public static MappedRecordFile ofFixedSizeRecords(final Path file, final int recordSize) throws IOException {
+		return ofFixedSizeRecords(file, recordSize, MAXIMAL_REGION_SIZE);
+	}
+
+	/**
+	 * @param file file containing records, each prefixed by 4-byte big-endian
+	 *             length of its payload
+	 * @return view of payloads of records inside given file
+	 * @throws IOException in case file couldn't be mapped or any record exceeds
+	 *                     end of file
+	 *
+	 * @since 1.0.0
+	 */
+	public static MappedRecordFile ofLengthPrefixedRecords(final Path file) throws IOException {
+		return ofLengthPrefixedRecords(file, MAXIMAL_REGION_SIZE);
+	}
+
+	static MappedRecordFile ofFixedSizeRecords(final Path file, final int recordSize, final long maximalRegionSize)
+			throws IOException {
+		if (recordSize <= 0) {
+			throw new IllegalArgumentException(
+					"Record size parameter should be greater than 0, currently it is " + recordSize);
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			if (fileSize % recordSize != 0) {
+				throw new IOException("Size of file " + file + " is " + fileSize
+						+ " bytes, which is not multiple of record size " + recordSize);
+			}
+			if (fileSize / recordSize > Integer.MAX_VALUE) {
+				throw new IOException("File " + file + " contains " + fileSize / recordSize
+						+ " records, which is more than maximal size of list");
+			}
+
+			final long recordsPerRegion = Math.max(1, maximalRegionSize / recordSize);
+			final int numberOfRegions = (int) ((fileSize / recordSize + recordsPerRegion - 1) / recordsPerRegion);
+			final MappedByteBuffer[] regions = new MappedByteBuffer[numberOfRegions];
+			final int[] firstRecordOfRegion = new int[numberOfRegions];
+			for (int regionIndex = 0; regionIndex < numberOfRegions; regionIndex++) {
+				final long regionStart = regionIndex * recordsPerRegion * recordSize;
+				regions[regionIndex] = channel.map(MapMode.READ_ONLY, regionStart,
+						Math.min(fileSize - regionStart, recordsPerRegion * recordSize));
+				firstRecordOfRegion[regionIndex] = (int) (regionIndex * recordsPerRegion);
+			}
+
+			return new MappedRecordFile(regions, firstRecordOfRegion, null, recordSize,
+					(int) (fileSize / recordSize));
+		}
+	}
+
+	static MappedRecordFile ofLengthPrefixedRecords(final Path file, final long maximalRegionSize)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long fileSize = channel.size();
+			final List<MappedByteBuffer> regions = new ArrayList<>();
+			int[] firstRecordOfRegion = new int[4];
+			int[] recordOffsetInRegion = new int[16];
+			int numberOfRecords = 0;
+
+			long regionStart = 0;
+			while (regionStart < fileSize) {
+				final MappedByteBuffer region = channel.map(MapMode.READ_ONLY, regionStart,
+						Math.min(fileSize - regionStart, maximalRegionSize));
+				final boolean lastRegion = regionStart + region.capacity() == fileSize;
+				if (regions.size() == firstRecordOfRegion.length) {
+					firstRecordOfRegion = Arrays.copyOf(firstRecordOfRegion, regions.size() << 1);
+				}
+				firstRecordOfRegion[regions.size()] = numberOfRecords;
+				regions.add(region);
+
+				int offset = 0;
+				while (offset < region.capacity()) {
+					final int recordLength = offset + LENGTH_PREFIX_SIZE <= region.capacity() ? region.getInt(offset)
+							: -1;
+					final long recordEnd = (long) offset + LENGTH_PREFIX_SIZE + recordLength;
+					if (recordLength < 0 || recordEnd > region.capacity()) {
+						if (lastRegion || offset == 0) {
+							throw new IOException("Record at offset " + (regionStart + offset) + " of file " + file
+									+ " exceeds end of file or has negative length");
+						}
+						break;
+					}
+
+					if (numberOfRecords == Integer.MAX_VALUE) {
+						throw new IOException("File " + file + " contains more records than maximal size of list");
+					}
+					if (numberOfRecords == recordOffsetInRegion.length) {
+						recordOffsetInRegion = Arrays.copyOf(recordOffsetInRegion,
+								(int) Math.min(Integer.MAX_VALUE - 8, (long) numberOfRecords << 1));
+					}
+					recordOffsetInRegion[numberOfRecords++] = offset + LENGTH_PREFIX_SIZE;
+					offset = (int) recordEnd;
+				}
+				regionStart += offset;
+			}
+
+			return new MappedRecordFile(regions.toArray(new MappedByteBuffer[regions.size()]),
+					Arrays.copyOf(firstRecordOfRegion, regions.size()),
+					Arrays.copyOf(recordOffsetInRegion, numberOfRecords), NO_FIXED_RECORD_SIZE, numberOfRecords);
+		}
+	}
+
+	/**
+	 * @return read-only slice of mapped file covering record with given index
+	 */
+	@Override
+	public ByteBuffer get(final int index) {
+		if (index < 0 || index >= numberOfRecords) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + numberOfRecords + ")");
+		}
+
+		final int regionIndex = regionOfRecord(index);
+		final ByteBuffer region = regions[regionIndex];
+		final int offset;
+		final int recordLength;
+		if (fixedRecordSize == NO_FIXED_RECORD_SIZE) {
+			offset = recordOffsetInRegion[index];
+			recordLength = region.getInt(offset - LENGTH_PREFIX_SIZE);
+		} else {
+			offset = (index - firstRecordOfRegion[regionIndex]) * fixedRecordSize;
+			recordLength = fixedRecordSize;
+		}
+
+		// duplicate doesn't change position of region shared by all threads, Buffer
+		// methods are used because ByteBuffer overrides them only since Java 9
+		final ByteBuffer record = region.duplicate();
+		((Buffer) record).limit(offset + recordLength);
+		((Buffer) record).position(offset);
+		return record.slice();
+	}
+
+	@Override
+	public int size() {
+		return numberOfRecords;
+	}
+
+	/**
+	 * @return number of regions in which file is mapped
+	 *
+	 * @since 1.0.0
+	 */
+	public int getNumberOfRegions() {
+		return regions.length;
+	}
+
+	private int regionOfRecord(final int index) {
+		if (regions.length == 1) {
+			return 0;
+		}
+
+		final int insertionPoint = Arrays.binarySearch(firstRecordOfRegion, index);
+		return insertionPoint >= 0 ? insertionPoint : -insertionPoint - 2;
+	}
+}
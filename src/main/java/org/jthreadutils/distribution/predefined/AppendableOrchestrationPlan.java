@@ -0,0 +1,285 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+
+/**
+ * Plan to which data could be appended while it is already being consumed,
+ * created via {@link DataOrchestratorBasedOnImmutableCollection#createAppendablePlan()}.
+ *
+ * New elements join their group at its tail, so order of elements within group
+ * is kept also in case group is currently owned by some worker, which receives
+ * them with its next batches. Groups seen for the first time, as well as groups
+ * which received new elements after their owner consumed them, are placed at
+ * the end of queue of free groups. Sizes of groups are not known upfront, so
+ * free groups are claimed in order in which they became available instead of
+ * starting from the biggest one.
+ *
+ * Group is released by its owner only once the owner asks for next batch after
+ * all elements of group were handed out, so elements of the same group are
+ * never processed by two workers at the same time.
+ *
+ * In case input is known to be {@link InputGrouping#GROUPED_BY_KEY} group is
+ * held back until it is complete, i.e. element of another group is appended or
+ * plan is sealed.
+ *
+ * Elements are kept per group in ring buffer, element is forgotten by plan as
+ * soon as it is handed out and buffer of group is dropped once group is
+ * released by its owner, so plan could receive data continuously. Only group
+ * ids seen so far and few counters per group are kept for the whole life of
+ * plan. Number of appended elements of group is counted as <code>long</code>,
+ * so it doesn't overflow.
+ *
+ * Empty batch doesn't mean that plan is finished until {@link #seal()} is
+ * called, after that no more data can be appended. All operations of this plan
+ * are synchronized on plan object, so it is thread safe also in
+ * {@link DispatchMode#CONCURRENT} mode.
+ *
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public class AppendableOrchestrationPlan<T, O> extends OrchestrationPlan<T, O> {
+	private final InputGrouping inputGrouping;
+	private final GroupOrdinalResolver<T, O> groupOrdinalResolver;
+	private final GroupIdDictionary<O> groupIdDictionary;
+
+	private final ResidentGroups<T> residentGroups = new ResidentGroups<>(this::isGroupComplete);
+
+	private int openGroupOrdinal = -1;
+	private long numberOfAppendedElements;
+	private long dataVersion;
+	private boolean sealed;
+	private Throwable failure;
+
+	/**
+	 * Please use
+	 * {@link DataOrchestratorBasedOnImmutableCollection#createAppendablePlan()} in
+	 * order to create plan.
+	 *
+	 * @param groupIdExtractor extractor used for get <code>groupId</code> for
+	 *                         appended elements
+	 * @param inputGrouping    what is known about order of appended elements
+	 */
+	AppendableOrchestrationPlan(final DataGroupIdExtractor<T, O> groupIdExtractor,
+			final InputGrouping inputGrouping) {
+		this.inputGrouping = inputGrouping;
+		this.groupOrdinalResolver = new GroupOrdinalResolver<>(groupIdExtractor);
+		this.groupIdDictionary = groupOrdinalResolver.getGroupIdDictionary();
+	}
+
+	/**
+	 * Appends single element at the tail of its group.
+	 *
+	 * @param element data element to append
+	 * @throws IllegalStateException in case plan was already sealed
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized void append(final T element) {
+		appendAll(Collections.singletonList(element));
+	}
+
+	/**
+	 * Appends all elements in order of given collection, group ids are extracted
+	 * by bulk methods of extractor.
+	 *
+	 * @param newElements data elements to append
+	 * @throws IllegalStateException in case plan was already sealed or element
+	 *                               breaks {@link InputGrouping#GROUPED_BY_KEY}
+	 *                               order, in the latter case plan is sealed with
+	 *                               this failure
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized void appendAll(final Collection<? extends T> newElements) {
+		if (sealed) {
+			throw new IllegalStateException("Plan is already sealed, no more data can be appended", failure);
+		}
+		if (newElements.isEmpty()) {
+			return;
+		}
+
+		final List<? extends T> newElementsList = newElements instanceof List && newElements instanceof RandomAccess
+				? (List<? extends T>) newElements
+				: new ArrayList<>(newElements);
+		final int chunkSize = Math.min(newElementsList.size(),
+				DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE);
+		final int[] groupOrdinals = new int[chunkSize];
+		for (int fromIndex = 0; fromIndex < newElementsList.size(); fromIndex += chunkSize) {
+			final List<? extends T> chunk = newElementsList.subList(fromIndex,
+					Math.min(newElementsList.size(), fromIndex + chunkSize));
+			groupOrdinalResolver.resolveGroupOrdinals(chunk, groupOrdinals);
+			for (int index = 0; index < chunk.size(); index++) {
+				if (inputGrouping == InputGrouping.GROUPED_BY_KEY) {
+					switchOpenGroup(groupOrdinals[index]);
+				}
+				appendElementToGroup(groupOrdinals[index], chunk.get(index));
+			}
+			numberOfAppendedElements += chunk.size();
+		}
+
+		dataVersion++;
+		notifyAll();
+	}
+
+	/**
+	 * Closes plan for new data, once all elements are handed out workers receive
+	 * only empty batches.
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized void seal() {
+		if (!sealed) {
+			completeOpenGroup();
+			sealed = true;
+			dataVersion++;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Closes plan because its input couldn't be read to the end, every next
+	 * request for data fails with {@link IllegalStateException} caused by given
+	 * failure.
+	 *
+	 * @param failure reason why no more data will be appended
+	 */
+	synchronized void sealExceptionally(final Throwable failure) {
+		if (!sealed) {
+			this.failure = failure;
+			sealed = true;
+			dataVersion++;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> in case no more data can be appended
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized boolean isSealed() {
+		return sealed;
+	}
+
+	/**
+	 * @return number of elements appended into plan
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized long size() {
+		return numberOfAppendedElements;
+	}
+
+	/**
+	 * @return number of appended elements, which were not handed out yet
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized int getNumberOfResidentElements() {
+		return residentGroups.getNumberOfResidentElements();
+	}
+
+	@Override
+	public synchronized int getNumberOfGroups() {
+		return groupIdDictionary.size();
+	}
+
+	@Override
+	public synchronized O getGroupId(final int groupOrdinal) {
+		return groupIdDictionary.groupIdOf(groupOrdinal);
+	}
+
+	/**
+	 * @return number of elements appended into group so far
+	 * @throws ArithmeticException in case more than {@link Integer#MAX_VALUE}
+	 *                             elements were appended into group
+	 */
+	@Override
+	public synchronized int getGroupSize(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= groupIdDictionary.size()) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + groupIdDictionary.size() + ")");
+		}
+
+		return Math.toIntExact(residentGroups.getGroupSize(groupOrdinal));
+	}
+
+	@Override
+	protected synchronized Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession,
+			final int batchSize) {
+		validateSessionOwnership(workerSession);
+		if (failure != null) {
+			throw new IllegalStateException("Input of plan couldn't be appended to the end", failure);
+		}
+
+		final List<T> nextBatchOfData = new ArrayList<>();
+		residentGroups.loadNextBatchOfData(workerSession, batchSize, nextBatchOfData);
+		return nextBatchOfData;
+	}
+
+	@Override
+	synchronized long getDataVersion() {
+		return dataVersion;
+	}
+
+	@Override
+	synchronized boolean awaitDataChangedAfter(final long observedDataVersion, final long timeoutInMillis)
+			throws InterruptedException {
+		final long deadlineInNanos = System.nanoTime() + timeoutInMillis * 1_000_000L;
+		long remainingTimeInNanos;
+		while (dataVersion == observedDataVersion && !sealed
+				&& (remainingTimeInNanos = deadlineInNanos - System.nanoTime()) > 0) {
+			wait(Math.max(1L, remainingTimeInNanos / 1_000_000L));
+		}
+
+		return dataVersion != observedDataVersion || !sealed;
+	}
+
+	private void appendElementToGroup(final int groupOrdinal, final T element) {
+		residentGroups.add(groupOrdinal, element);
+		if (groupOrdinal != openGroupOrdinal) {
+			residentGroups.offerGroup(groupOrdinal);
+		}
+	}
+
+	private void switchOpenGroup(final int groupOrdinal) {
+		if (groupOrdinal == openGroupOrdinal) {
+			return;
+		}
+		if (groupOrdinal < openGroupOrdinal) {
+			final IllegalStateException orderViolation = new IllegalStateException("Group "
+					+ groupIdDictionary.groupIdOf(groupOrdinal)
+					+ " appeared again after it was complete, input is not grouped by key");
+			sealExceptionally(orderViolation);
+			throw orderViolation;
+		}
+
+		completeOpenGroup();
+		openGroupOrdinal = groupOrdinal;
+	}
+
+	private void completeOpenGroup() {
+		if (openGroupOrdinal >= 0) {
+			final int completeGroupOrdinal = openGroupOrdinal;
+			openGroupOrdinal = -1;
+			residentGroups.offerGroup(completeGroupOrdinal);
+		}
+	}
+
+	private boolean isGroupComplete(final int groupOrdinal) {
+		return sealed || inputGrouping == InputGrouping.GROUPED_BY_KEY && groupOrdinal != openGroupOrdinal;
+	}
+}
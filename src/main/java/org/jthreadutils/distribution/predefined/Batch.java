@@ -0,0 +1,142 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Read-only view of data handed out by
+ * {@link DataOrchestratorBasedOnImmutableCollection#nextBatch(WorkerSession, int)}.
+ * Batch of {@link ImmutableCollectionOrchestrationPlan} doesn't copy any
+ * element, it is backed by slices of positions array of plan and by original
+ * random access collection, so batch taken from single group is single
+ * object. Batch spanning many groups additionally keeps two arrays with one
+ * entry per slice, slices which are adjacent inside positions array are
+ * merged. Batches of other plans wrap list of elements created by plan.
+ *
+ * Elements are resolved by every {@link #get(int)}, so view is as fast as
+ * original collection in random access.
+ *
+ * @param <T> type of data inside batch
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+public final class Batch<T> extends AbstractList<T> implements RandomAccess {
+	private static final Batch<Object> EMPTY_BATCH = new Batch<>(Collections.emptyList(), null, 0, null, null, 0);
+
+	private final List<T> data;
+	private final int[] positions;
+	private final int firstSliceFromIndex;
+	private final int[] sliceFromIndexes;
+	private final int[] sliceEndsInBatch;
+	private final int size;
+
+	private Batch(final List<T> data, final int[] positions, final int firstSliceFromIndex,
+			final int[] sliceFromIndexes, final int[] sliceEndsInBatch, final int size) {
+		this.data = data;
+		this.positions = positions;
+		this.firstSliceFromIndex = firstSliceFromIndex;
+		this.sliceFromIndexes = sliceFromIndexes;
+		this.sliceEndsInBatch = sliceEndsInBatch;
+		this.size = size;
+	}
+
+	/**
+	 * @param <T> type of data inside batch
+	 * @return batch without any element
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Batch<T> empty() {
+		return (Batch<T>) EMPTY_BATCH;
+	}
+
+	/**
+	 * @param elements random access list of elements, which is not modified
+	 *                 anymore
+	 * @return batch containing given elements
+	 */
+	static <T> Batch<T> of(final List<T> elements) {
+		return new Batch<>(elements, null, 0, null, null, elements.size());
+	}
+
+	/**
+	 * @param data                 original random access collection of plan
+	 * @param positions            positions of elements inside collection
+	 * @param firstSliceFromIndex  index of the first position of the single
+	 *                             slice
+	 * @param sliceFromIndexes     index of the first position of every slice,
+	 *                             <code>null</code> in case of single slice
+	 * @param sliceEndsInBatch     index inside batch after the last element of
+	 *                             every slice, <code>null</code> in case of single
+	 *                             slice
+	 * @param size                 number of elements inside batch
+	 * @return batch backed by given slices of positions
+	 */
+	static <T> Batch<T> ofPositions(final List<T> data, final int[] positions, final int firstSliceFromIndex,
+			final int[] sliceFromIndexes, final int[] sliceEndsInBatch, final int size) {
+		return new Batch<>(data, positions, firstSliceFromIndex, sliceFromIndexes, sliceEndsInBatch, size);
+	}
+
+	@Override
+	public T get(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + size + ")");
+		}
+
+		if (sliceFromIndexes == null) {
+			return elementAt(firstSliceFromIndex + index);
+		}
+
+		final int insertionPoint = Arrays.binarySearch(sliceEndsInBatch, index);
+		final int slice = insertionPoint >= 0 ? insertionPoint + 1 : -insertionPoint - 1;
+		final int sliceStartInBatch = slice == 0 ? 0 : sliceEndsInBatch[slice - 1];
+		return elementAt(sliceFromIndexes[slice] + index - sliceStartInBatch);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void forEach(final Consumer<? super T> action) {
+		if (sliceFromIndexes == null) {
+			for (int index = 0; index < size; index++) {
+				action.accept(elementAt(firstSliceFromIndex + index));
+			}
+			return;
+		}
+
+		int sliceStartInBatch = 0;
+		for (int slice = 0; slice < sliceFromIndexes.length; slice++) {
+			final int sliceSize = sliceEndsInBatch[slice] - sliceStartInBatch;
+			for (int index = 0; index < sliceSize; index++) {
+				action.accept(elementAt(sliceFromIndexes[slice] + index));
+			}
+			sliceStartInBatch = sliceEndsInBatch[slice];
+		}
+	}
+
+	/**
+	 * @return number of slices of positions array backing this batch
+	 */
+	int getNumberOfSlices() {
+		if (size == 0) {
+			return 0;
+		}
+
+		return sliceFromIndexes == null ? 1 : sliceFromIndexes.length;
+	}
+
+	private T elementAt(final int index) {
+		return positions == null ? data.get(index) : data.get(positions[index]);
+	}
+}
@@ -0,0 +1,130 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Slices of positions array of plan selected for batch, reused by single
+ * {@link WorkerSession} between its requests, so collecting of batch doesn't
+ * allocate anything. Slices adjacent inside positions array are merged, group
+ * of every added slice is kept separately as segment of batch. Plans copying
+ * elements into new list add slices of indexes inside that list, so only
+ * segments are used in their case.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class BatchSlices {
+	private static final int INITIAL_CAPACITY = 4;
+
+	private int[] sliceFromIndexes = new int[INITIAL_CAPACITY];
+	private int[] sliceEndsInBatch = new int[INITIAL_CAPACITY];
+	private int numberOfSlices;
+	private int[] segmentGroupOrdinals = new int[INITIAL_CAPACITY];
+	private int[] segmentEndsInBatch = new int[INITIAL_CAPACITY];
+	private boolean[] segmentCompletesGroup = new boolean[INITIAL_CAPACITY];
+	private int numberOfSegments;
+
+	void clear() {
+		numberOfSlices = 0;
+		numberOfSegments = 0;
+	}
+
+	/**
+	 * @return number of positions inside all slices
+	 */
+	int size() {
+		return numberOfSlices == 0 ? 0 : sliceEndsInBatch[numberOfSlices - 1];
+	}
+
+	int getNumberOfSlices() {
+		return numberOfSlices;
+	}
+
+	int getSliceFromIndex(final int slice) {
+		return sliceFromIndexes[slice];
+	}
+
+	int getSliceToIndex(final int slice) {
+		return sliceFromIndexes[slice] + sliceEndsInBatch[slice] - (slice == 0 ? 0 : sliceEndsInBatch[slice - 1]);
+	}
+
+	/**
+	 * @param groupOrdinal   ordinal of group, which elements are inside slice
+	 * @param fromIndex      index of the first position of slice (inclusive)
+	 * @param toIndex        index after the last position of slice (exclusive)
+	 * @param completesGroup <code>true</code> in case slice contains the last
+	 *                       element of group
+	 */
+	void add(final int groupOrdinal, final int fromIndex, final int toIndex, final boolean completesGroup) {
+		if (numberOfSegments == segmentGroupOrdinals.length) {
+			segmentGroupOrdinals = Arrays.copyOf(segmentGroupOrdinals, numberOfSegments << 1);
+			segmentEndsInBatch = Arrays.copyOf(segmentEndsInBatch, numberOfSegments << 1);
+			segmentCompletesGroup = Arrays.copyOf(segmentCompletesGroup, numberOfSegments << 1);
+		}
+		segmentGroupOrdinals[numberOfSegments] = groupOrdinal;
+		segmentEndsInBatch[numberOfSegments] = size() + toIndex - fromIndex;
+		segmentCompletesGroup[numberOfSegments] = completesGroup;
+		numberOfSegments++;
+
+		if (numberOfSlices > 0 && getSliceToIndex(numberOfSlices - 1) == fromIndex) {
+			sliceEndsInBatch[numberOfSlices - 1] += toIndex - fromIndex;
+			return;
+		}
+
+		if (numberOfSlices == sliceFromIndexes.length) {
+			sliceFromIndexes = Arrays.copyOf(sliceFromIndexes, numberOfSlices << 1);
+			sliceEndsInBatch = Arrays.copyOf(sliceEndsInBatch, numberOfSlices << 1);
+		}
+
+		sliceFromIndexes[numberOfSlices] = fromIndex;
+		sliceEndsInBatch[numberOfSlices] = size() + toIndex - fromIndex;
+		numberOfSlices++;
+	}
+
+	/**
+	 * @param orchestrationPlan plan providing group ids of segments
+	 * @param data              original random access collection of plan
+	 * @param positions         positions array of plan
+	 * @return view of elements inside collected slices split by group
+	 */
+	<T, O> GroupedBatch<T, O> toGroupedBatch(final OrchestrationPlan<T, O> orchestrationPlan, final List<T> data,
+			final int[] positions) {
+		return toGroupedBatch(orchestrationPlan, toBatch(data, positions));
+	}
+
+	/**
+	 * @param orchestrationPlan plan providing group ids of segments
+	 * @param elements          elements of batch, which were collected in order of
+	 *                          added slices
+	 * @return given elements split by group of collected segments
+	 */
+	<T, O> GroupedBatch<T, O> toGroupedBatch(final OrchestrationPlan<T, O> orchestrationPlan,
+			final Batch<T> elements) {
+		return new GroupedBatch<>(orchestrationPlan, elements, Arrays.copyOf(segmentGroupOrdinals, numberOfSegments),
+				Arrays.copyOf(segmentEndsInBatch, numberOfSegments),
+				Arrays.copyOf(segmentCompletesGroup, numberOfSegments));
+	}
+
+	/**
+	 * @param data      original random access collection of plan
+	 * @param positions positions array of plan
+	 * @return view of elements inside collected slices
+	 */
+	<T> Batch<T> toBatch(final List<T> data, final int[] positions) {
+		if (numberOfSlices == 0) {
+			return Batch.empty();
+		}
+
+		if (numberOfSlices == 1) {
+			return Batch.ofPositions(data, positions, sliceFromIndexes[0], null, null, size());
+		}
+
+		return Batch.ofPositions(data, positions, 0, Arrays.copyOf(sliceFromIndexes, numberOfSlices),
+				Arrays.copyOf(sliceEndsInBatch, numberOfSlices), size());
+	}
+}
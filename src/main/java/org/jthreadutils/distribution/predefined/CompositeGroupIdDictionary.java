@@ -0,0 +1,108 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+
+/**
+ * {@link GroupIdDictionary} for group ids described by
+ * {@link CompositeDataGroupIdExtractor}. Groups are found by 64-bit hash of
+ * their fields, every group keeps values of its fields created once from its
+ * first element, with which other elements with the same hash are compared
+ * field by field. So every element with already known hash reads its fields
+ * twice, once for hash and once for comparison, while no element needs to be
+ * kept by dictionary.
+ * 
+ * Groups with colliding hashes are chained, chain is checked in order of group
+ * ordinals, so collision only costs comparison of fields with every group of
+ * chain.
+ * 
+ * @param <T> type of data inside collection
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class CompositeGroupIdDictionary<T> implements GroupIdDictionary<List<Object>> {
+	private static final int MINIMAL_CAPACITY = 16;
+	private static final int NO_GROUP = -1;
+
+	private final CompositeDataGroupIdExtractor<T> groupIdExtractor;
+	private final LongGroupOrdinalDictionary<Long> hashOrdinalByHash = new LongGroupOrdinalDictionary<>(false);
+	private final List<List<Object>> groupIdOfGroupOrdinal = new ArrayList<>();
+	private int[] firstGroupOrdinalOfHashOrdinal = new int[MINIMAL_CAPACITY];
+	private int[] nextGroupOrdinalWithSameHash = new int[MINIMAL_CAPACITY];
+
+	/**
+	 * @param groupIdExtractor extractor describing fields of group id
+	 */
+	CompositeGroupIdDictionary(final CompositeDataGroupIdExtractor<T> groupIdExtractor) {
+		this.groupIdExtractor = groupIdExtractor;
+	}
+
+	/**
+	 * @param element     element of data
+	 * @param groupIdHash hash of element calculated by
+	 *                    {@link CompositeDataGroupIdExtractor#extractGroupIdHash(Object)}
+	 * @return ordinal of group of given element, new ordinal is assigned in case
+	 *         no element of the same group was seen before
+	 * 
+	 * @since 1.0.0
+	 */
+	int ordinalOf(final T element, final long groupIdHash) {
+		final int numberOfHashesBefore = hashOrdinalByHash.size();
+		final int hashOrdinal = hashOrdinalByHash.ordinalOf(groupIdHash);
+		if (hashOrdinal == numberOfHashesBefore) {
+			if (hashOrdinal == firstGroupOrdinalOfHashOrdinal.length) {
+				firstGroupOrdinalOfHashOrdinal = Arrays.copyOf(firstGroupOrdinalOfHashOrdinal, hashOrdinal << 1);
+			}
+			firstGroupOrdinalOfHashOrdinal[hashOrdinal] = newGroup(element);
+			return firstGroupOrdinalOfHashOrdinal[hashOrdinal];
+		}
+
+		int groupOrdinal = firstGroupOrdinalOfHashOrdinal[hashOrdinal];
+		while (!groupIdExtractor.isGroupOf(element, groupIdOfGroupOrdinal.get(groupOrdinal))) {
+			if (nextGroupOrdinalWithSameHash[groupOrdinal] == NO_GROUP) {
+				final int collidingGroupOrdinal = newGroup(element);
+				nextGroupOrdinalWithSameHash[groupOrdinal] = collidingGroupOrdinal;
+				return collidingGroupOrdinal;
+			}
+			groupOrdinal = nextGroupOrdinalWithSameHash[groupOrdinal];
+		}
+
+		return groupOrdinal;
+	}
+
+	/**
+	 * @return group id created from the first element of group
+	 */
+	@Override
+	public List<Object> groupIdOf(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= size()) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + size() + ")");
+		}
+
+		return groupIdOfGroupOrdinal.get(groupOrdinal);
+	}
+
+	@Override
+	public int size() {
+		return groupIdOfGroupOrdinal.size();
+	}
+
+	private int newGroup(final T firstElementOfGroup) {
+		final int groupOrdinal = groupIdOfGroupOrdinal.size();
+		if (groupOrdinal == nextGroupOrdinalWithSameHash.length) {
+			nextGroupOrdinalWithSameHash = Arrays.copyOf(nextGroupOrdinalWithSameHash, groupOrdinal << 1);
+		}
+		groupIdOfGroupOrdinal.add(groupIdExtractor.extractGroupId(firstElementOfGroup));
+		nextGroupOrdinalWithSameHash[groupOrdinal] = NO_GROUP;
+		return groupOrdinal;
+	}
+}
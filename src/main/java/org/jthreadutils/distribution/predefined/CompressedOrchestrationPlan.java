@@ -0,0 +1,247 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+
+/**
+ * Plan with the same distribution rules as
+ * {@link ImmutableCollectionOrchestrationPlan}, created via
+ * {@link DataOrchestratorBasedOnImmutableCollection#createCompressedPlan(Collection)}
+ * for deployments, where memory of plan matters more than cost of decoding.
+ *
+ * Positions of elements inside group are strictly increasing, so instead of
+ * <code>int</code> per element every group keeps gaps between its consecutive
+ * positions (minus one) encoded as varints inside single <code>byte[]</code>,
+ * where group <code>g</code> is placed between
+ * <code>groupByteOffsets[g]</code> (inclusive) and
+ * <code>groupByteOffsets[g + 1]</code> (exclusive). Element, which is closer
+ * than 128 positions to the previous element of its group takes single byte,
+ * so for clustered keys plan takes around 1 byte per element. Scattered
+ * groups take up to 5 bytes per element in the worst case.
+ *
+ * Groups are decoded sequentially: cursor of group kept inside
+ * {@link WorkerSession} contains offset of the next encoded gap in its upper
+ * 32 bits and the last handed out position in its lower 32 bits, so every
+ * batch is decoded in time proportional to its size. During creation
+ * additional 4 bytes per element are used for group ordinals of elements.
+ *
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public class CompressedOrchestrationPlan<T, O> extends OrchestrationPlan<T, O> {
+	private static final int NO_POSITION = -1;
+	private static final int VARINT_PAYLOAD_BITS = 7;
+	private static final int VARINT_PAYLOAD_MASK = 0x7f;
+	private static final int VARINT_CONTINUATION_BIT = 0x80;
+	private static final int MAXIMAL_ENCODED_SIZE = Integer.MAX_VALUE - 8;
+
+	private final List<T> originalImmutableCollection;
+	private final byte[] encodedPositionGaps;
+	private final int[] groupByteOffsets;
+	private final int[] groupSizes;
+	private final GroupIdDictionary<O> groupIdDictionary;
+
+	private final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
+
+	private CompressedOrchestrationPlan(final List<T> originalImmutableCollection, final byte[] encodedPositionGaps,
+			final int[] groupByteOffsets, final int[] groupSizes, final GroupIdDictionary<O> groupIdDictionary,
+			final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements) {
+		this.originalImmutableCollection = originalImmutableCollection;
+		this.encodedPositionGaps = encodedPositionGaps;
+		this.groupByteOffsets = groupByteOffsets;
+		this.groupSizes = groupSizes;
+		this.groupIdDictionary = groupIdDictionary;
+		this.freeGroupsToProcessSortedBasedOnBiggestNumberOfElements = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
+	}
+
+	/**
+	 * Please use
+	 * {@link DataOrchestratorBasedOnImmutableCollection#createCompressedPlan(Collection)}
+	 * in order to create plan.
+	 *
+	 * @param originalImmutableCollection data with random access to elements
+	 * @param groupIdExtractor            extractor used for get
+	 *                                    <code>groupId</code> for elements
+	 * @return plan for given data
+	 */
+	static <T, O> CompressedOrchestrationPlan<T, O> create(final List<T> originalImmutableCollection,
+			final DataGroupIdExtractor<T, O> groupIdExtractor) {
+		final int size = originalImmutableCollection.size();
+		final GroupOrdinalResolver<T, O> groupOrdinalResolver = new GroupOrdinalResolver<>(groupIdExtractor);
+		final int[] groupOrdinalOfElement = new int[size];
+		final int[] groupOrdinalsOfChunk = new int[DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE];
+		int[] groupSizes = new int[16];
+		int[] lastPositionOfGroup = new int[16];
+		long[] encodedSizeOfGroup = new long[16];
+		for (int firstElementIndex = 0; firstElementIndex < size; firstElementIndex += DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE) {
+			final List<T> chunk = originalImmutableCollection.subList(firstElementIndex, Math.min(size,
+					firstElementIndex + DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE));
+			groupOrdinalResolver.resolveGroupOrdinals(chunk, groupOrdinalsOfChunk);
+			for (int index = 0; index < chunk.size(); index++) {
+				final int groupOrdinal = groupOrdinalsOfChunk[index];
+				if (groupOrdinal == groupSizes.length) {
+					groupSizes = Arrays.copyOf(groupSizes, groupSizes.length << 1);
+					lastPositionOfGroup = Arrays.copyOf(lastPositionOfGroup, lastPositionOfGroup.length << 1);
+					encodedSizeOfGroup = Arrays.copyOf(encodedSizeOfGroup, encodedSizeOfGroup.length << 1);
+				}
+
+				final int position = firstElementIndex + index;
+				final int previousPosition = groupSizes[groupOrdinal] == 0 ? NO_POSITION
+						: lastPositionOfGroup[groupOrdinal];
+				encodedSizeOfGroup[groupOrdinal] += varintSize(position - previousPosition - 1);
+				lastPositionOfGroup[groupOrdinal] = position;
+				groupSizes[groupOrdinal]++;
+				groupOrdinalOfElement[position] = groupOrdinal;
+			}
+		}
+
+		final int numberOfGroups = groupOrdinalResolver.getGroupIdDictionary().size();
+		final int[] groupByteOffsets = new int[numberOfGroups + 1];
+		long encodedSize = 0;
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			encodedSize += encodedSizeOfGroup[groupOrdinal];
+			if (encodedSize > MAXIMAL_ENCODED_SIZE) {
+				throw new IllegalArgumentException("Encoded positions of data take " + encodedSize
+						+ " bytes or more, which is more than maximal size of array, please use long indexed plan");
+			}
+			groupByteOffsets[groupOrdinal + 1] = (int) encodedSize;
+		}
+
+		final byte[] encodedPositionGaps = new byte[(int) encodedSize];
+		final int[] nextByteOffsetOfGroup = Arrays.copyOf(groupByteOffsets, numberOfGroups);
+		Arrays.fill(lastPositionOfGroup, NO_POSITION);
+		for (int position = 0; position < size; position++) {
+			final int groupOrdinal = groupOrdinalOfElement[position];
+			nextByteOffsetOfGroup[groupOrdinal] = writeVarint(encodedPositionGaps,
+					nextByteOffsetOfGroup[groupOrdinal], position - lastPositionOfGroup[groupOrdinal] - 1);
+			lastPositionOfGroup[groupOrdinal] = position;
+		}
+
+		final int[] sizesOfGroups = Arrays.copyOf(groupSizes, numberOfGroups);
+		return new CompressedOrchestrationPlan<>(originalImmutableCollection, encodedPositionGaps, groupByteOffsets,
+				sizesOfGroups, groupOrdinalResolver.getGroupIdDictionary(),
+				new FreeGroupQueue(new ImmutableCollectionOrchestrationHelper<O>()
+						.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(sizesOfGroups,
+								numberOfGroups)));
+	}
+
+	/**
+	 * @return number of bytes taken by encoded positions of all elements
+	 *
+	 * @since 1.0.0
+	 */
+	public int getEncodedPositionsSizeInBytes() {
+		return encodedPositionGaps.length;
+	}
+
+	@Override
+	public int getNumberOfGroups() {
+		return groupSizes.length;
+	}
+
+	@Override
+	public O getGroupId(final int groupOrdinal) {
+		return groupIdDictionary.groupIdOf(groupOrdinal);
+	}
+
+	@Override
+	public int getGroupSize(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= groupSizes.length) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + groupSizes.length + ")");
+		}
+
+		return groupSizes[groupOrdinal];
+	}
+
+	@Override
+	protected Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateSessionOwnership(workerSession);
+
+		final List<T> nextBatchOfData = new ArrayList<>();
+		final BatchSlices batchSlices = workerSession.clearedBatchSlices();
+
+		if (workerSession.getNumberOfAssignedGroups() > 0) {
+			workerSession.removeFullyProcessedGroupsBasedOnPackedCursor(groupByteOffsets);
+			for (int assignmentIndex = 0; nextBatchOfData.size() < batchSize
+					&& assignmentIndex < workerSession.getNumberOfAssignedGroups(); assignmentIndex++) {
+				loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+						nextBatchOfData, batchSlices);
+			}
+		}
+
+		int groupOrdinal;
+		while (nextBatchOfData.size() < batchSize && (groupOrdinal = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements
+				.claim()) != FreeGroupQueue.NO_FREE_GROUP) {
+			final int assignmentIndex = workerSession.assignGroup(groupOrdinal,
+					packCursor(groupByteOffsets[groupOrdinal], NO_POSITION));
+			loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+					nextBatchOfData, batchSlices);
+		}
+
+		return nextBatchOfData;
+	}
+
+	private void loadRemainingDataFromGivenGroup(final WorkerSession<T, O> workerSession, final int assignmentIndex,
+			final int remainingSize, final List<T> nextBatchOfData, final BatchSlices batchSlices) {
+		final int groupOrdinal = workerSession.getAssignedGroupOrdinal(assignmentIndex);
+		final long cursor = workerSession.getAssignedGroupLongCursor(assignmentIndex);
+		final int groupEnd = groupByteOffsets[groupOrdinal + 1];
+		int byteOffset = (int) (cursor >>> Integer.SIZE);
+		int position = (int) cursor;
+		final int firstIndexInBatch = nextBatchOfData.size();
+		for (int handedOut = 0; handedOut < remainingSize && byteOffset < groupEnd; handedOut++) {
+			int gap = 0;
+			int shift = 0;
+			int encodedByte;
+			do {
+				encodedByte = encodedPositionGaps[byteOffset++];
+				gap |= (encodedByte & VARINT_PAYLOAD_MASK) << shift;
+				shift += VARINT_PAYLOAD_BITS;
+			} while ((encodedByte & VARINT_CONTINUATION_BIT) != 0);
+
+			position += gap + 1;
+			nextBatchOfData.add(originalImmutableCollection.get(position));
+		}
+		if (firstIndexInBatch < nextBatchOfData.size()) {
+			batchSlices.add(groupOrdinal, firstIndexInBatch, nextBatchOfData.size(), byteOffset == groupEnd);
+		}
+		workerSession.setAssignedGroupCursor(assignmentIndex, packCursor(byteOffset, position));
+	}
+
+	private static long packCursor(final int byteOffset, final int lastPosition) {
+		return ((long) byteOffset << Integer.SIZE) | (lastPosition & 0xffffffffL);
+	}
+
+	private static int varintSize(final int value) {
+		int size = 1;
+		for (int remaining = value >>> VARINT_PAYLOAD_BITS; remaining != 0; remaining >>>= VARINT_PAYLOAD_BITS) {
+			size++;
+		}
+
+		return size;
+	}
+
+	private static int writeVarint(final byte[] target, final int offset, final int value) {
+		int nextOffset = offset;
+		int remaining = value;
+		while ((remaining & ~VARINT_PAYLOAD_MASK) != 0) {
+			target[nextOffset++] = (byte) ((remaining & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION_BIT);
+			remaining >>>= VARINT_PAYLOAD_BITS;
+		}
+		target[nextOffset++] = (byte) remaining;
+
+		return nextOffset;
+	}
+}
@@ -1,14 +1,31 @@
 package org.jthreadutils.distribution.predefined;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
 import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.jthreadutils.distribution.collection.CollectionUtils;
+import org.jthreadutils.distribution.collection.LongIndexedData;
 import org.jthreadutils.distribution.collection.immutable.LockableCollection;
 import org.jthreadutils.distribution.predefined.ImmutableCollectionOrchestrationPlan.ImmutableCollectionOrchestrationPlanBuilder;
 
+import com.google.common.collect.ListMultimap;
+
 /**
  * This orchestrator based on <i>immutable collection</i>, which internally
  * group data based on their key and sort from biggest group in terms of size
@@ -32,16 +49,47 @@ import org.jthreadutils.distribution.predefined.ImmutableCollectionOrchestration
  */
 @ThreadSafe
 public class DataOrchestratorBasedOnImmutableCollection<T, O> {
+	/**
+	 * Default number of elements for which group ids are extracted by single
+	 * fork/join task during parallel plan creation.
+	 * 
+	 * @since 1.0.0
+	 */
+	public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 16384;
+
+	/**
+	 * Number of elements passed at once into bulk extraction methods of
+	 * {@link DataGroupIdExtractor} during sequential plan creation.
+	 * 
+	 * @since 1.0.0
+	 */
+	public static final int BULK_EXTRACTION_CHUNK_SIZE = 1024;
 
 	private final DataGroupIdExtractor<T, O> groupIdExtractor;
+	private final DispatchMode dispatchMode;
 
 	/**
+	 * Creates orchestrator working in {@link DispatchMode#SYNCHRONIZED} mode.
+	 * 
 	 * @param groupIdExtractor extractor used for get <code>groupId</code> for given
 	 *                         dataset
 	 * @since 1.0.0
 	 */
 	public DataOrchestratorBasedOnImmutableCollection(final DataGroupIdExtractor<T, O> groupIdExtractor) {
+		this(groupIdExtractor, DispatchMode.SYNCHRONIZED);
+	}
+
+	/**
+	 * @param groupIdExtractor extractor used for get <code>groupId</code> for given
+	 *                         dataset
+	 * @param dispatchMode     way in which threads requesting data from the same
+	 *                         plan are coordinated
+	 * @since 1.0.0
+	 */
+	public DataOrchestratorBasedOnImmutableCollection(final DataGroupIdExtractor<T, O> groupIdExtractor,
+			final DispatchMode dispatchMode) {
 		this.groupIdExtractor = groupIdExtractor;
+		this.dispatchMode = dispatchMode;
 	}
 
 	/**
@@ -69,25 +117,447 @@ public class DataOrchestratorBasedOnImmutableCollection<T, O> {
 	 * This method creates plan of data distribution between threads using algorithm
 	 * described in class JavaDoc.
 	 * 
+	 * In case extractor is {@link LongDataGroupIdExtractor} or
+	 * {@link IntDataGroupIdExtractor} group ids are kept as primitives during plan
+	 * creation, so no object is allocated per data element. The same applies to
+	 * {@link CompositeDataGroupIdExtractor}, which groups are found by hash of
+	 * their fields.
+	 * 
+	 * Group ids are extracted by bulk methods of extractor (i.e.
+	 * {@link DataGroupIdExtractor#extractGroupIds(List, Object[])}) for
+	 * consecutive chunks of {@link #BULK_EXTRACTION_CHUNK_SIZE} elements.
+	 * 
 	 * @param data for distribution
 	 * @return {@link ImmutableCollectionOrchestrationPlan} for given collection of
 	 *         data
 	 */
+	@SuppressWarnings("unchecked")
 	public ImmutableCollectionOrchestrationPlan<T, O> createPlan(final Collection<T> data) {
 		final ImmutableCollectionOrchestrationPlanBuilder<T, O> plannerBuilder = ImmutableCollectionOrchestrationPlan
 				.builder(data);
-		final Iterator<T> iter = data.iterator();
-		for (int index = 0; iter.hasNext(); index++) {
-			plannerBuilder.putElementGroupIdAssignment(index, groupIdExtractor.extractGroupId(iter.next()));
+		if (groupIdExtractor instanceof CompositeDataGroupIdExtractor) {
+			final CompositeDataGroupIdExtractor<T> compositeGroupIdExtractor = (CompositeDataGroupIdExtractor<T>) groupIdExtractor;
+			final long[] hashes = new long[BULK_EXTRACTION_CHUNK_SIZE];
+			forEachChunk(data, (chunk, firstElementIndex) -> {
+				compositeGroupIdExtractor.extractGroupIdHashes(chunk, hashes);
+				for (int index = 0; index < chunk.size(); index++) {
+					plannerBuilder.putElementCompositeGroupIdAssignment(firstElementIndex + index, hashes[index],
+							compositeGroupIdExtractor);
+				}
+			});
+		} else if (groupIdExtractor instanceof LongDataGroupIdExtractor) {
+			final LongDataGroupIdExtractor<T> longGroupIdExtractor = (LongDataGroupIdExtractor<T>) groupIdExtractor;
+			final long[] groupIds = new long[BULK_EXTRACTION_CHUNK_SIZE];
+			forEachChunk(data, (chunk, firstElementIndex) -> {
+				longGroupIdExtractor.extractLongGroupIds(chunk, groupIds);
+				for (int index = 0; index < chunk.size(); index++) {
+					plannerBuilder.putElementLongGroupIdAssignment(firstElementIndex + index, groupIds[index]);
+				}
+			});
+		} else if (groupIdExtractor instanceof IntDataGroupIdExtractor) {
+			final IntDataGroupIdExtractor<T> intGroupIdExtractor = (IntDataGroupIdExtractor<T>) groupIdExtractor;
+			final int[] groupIds = new int[BULK_EXTRACTION_CHUNK_SIZE];
+			forEachChunk(data, (chunk, firstElementIndex) -> {
+				intGroupIdExtractor.extractIntGroupIds(chunk, groupIds);
+				for (int index = 0; index < chunk.size(); index++) {
+					plannerBuilder.putElementIntGroupIdAssignment(firstElementIndex + index, groupIds[index]);
+				}
+			});
+		} else {
+			final Object[] groupIds = new Object[BULK_EXTRACTION_CHUNK_SIZE];
+			forEachChunk(data, (chunk, firstElementIndex) -> {
+				groupIdExtractor.extractGroupIds(chunk, groupIds);
+				for (int index = 0; index < chunk.size(); index++) {
+					plannerBuilder.putElementGroupIdAssignment(firstElementIndex + index, (O) groupIds[index]);
+					groupIds[index] = null;
+				}
+			});
+		}
+
+		return plannerBuilder.build();
+	}
+
+	/**
+	 * Parallel version of {@link #createPlan(LockableCollection)}, it has the same
+	 * side-effect of call for {@link LockableCollection#immutable()}.
+	 * 
+	 * @see #createPlanInParallel(Collection, ForkJoinPool, int)
+	 * @param data for distribution
+	 * @return {@link ImmutableCollectionOrchestrationPlan} for given collection of
+	 *         data
+	 * @since 1.0.0
+	 */
+	public ImmutableCollectionOrchestrationPlan<T, O> createPlanInParallel(final LockableCollection<T> data) {
+		data.immutable();
+		return createPlanInParallel((Collection<T>) data);
+	}
+
+	/**
+	 * Parallel version of {@link #createPlan(Collection)} executed within
+	 * {@link ForkJoinPool#commonPool()} with
+	 * {@link #DEFAULT_PARALLEL_CHUNK_SIZE}.
+	 * 
+	 * @see #createPlanInParallel(Collection, ForkJoinPool, int)
+	 * @param data for distribution
+	 * @return {@link ImmutableCollectionOrchestrationPlan} for given collection of
+	 *         data
+	 * @since 1.0.0
+	 */
+	public ImmutableCollectionOrchestrationPlan<T, O> createPlanInParallel(final Collection<T> data) {
+		return createPlanInParallel(data, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_CHUNK_SIZE);
+	}
+
+	/**
+	 * This method creates the same plan as {@link #createPlan(Collection)}, but
+	 * group ids are extracted in chunks by tasks executed inside given
+	 * {@link ForkJoinPool}. Chunk results are merged in order of chunks, so order
+	 * of elements within every group is the same as in original collection.
+	 * 
+	 * Parallel extraction is possible only for {@link List} with
+	 * {@link RandomAccess}, for any other collection or collection not bigger than
+	 * single chunk plan is created by calling thread.
+	 * 
+	 * <b>Note! {@link DataGroupIdExtractor} has to be thread-safe in order to use
+	 * this method.</b>
+	 * 
+	 * @param data         for distribution
+	 * @param forkJoinPool pool in which extraction of group ids is executed
+	 * @param chunkSize    maximum number of elements processed by single task,
+	 *                     should be greater than 0
+	 * @return {@link ImmutableCollectionOrchestrationPlan} for given collection of
+	 *         data
+	 * @since 1.0.0
+	 */
+	public ImmutableCollectionOrchestrationPlan<T, O> createPlanInParallel(final Collection<T> data,
+			final ForkJoinPool forkJoinPool, final int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException(
+					"Chunk size parameter should be greater than 0, currently it is " + chunkSize);
+		}
+
+		if (!(data instanceof List && data instanceof RandomAccess) || data.size() <= chunkSize) {
+			return createPlan(data);
+		}
+
+		if (groupIdExtractor instanceof LongDataGroupIdExtractor || groupIdExtractor instanceof IntDataGroupIdExtractor
+				|| groupIdExtractor instanceof CompositeDataGroupIdExtractor) {
+			return createPlanWithPrimitiveGroupIdsInParallel((List<T>) data, forkJoinPool, chunkSize);
+		}
+
+		final List<ListMultimap<O, Integer>> mappingsPerChunk = forkJoinPool
+				.invoke(new GroupIdExtractionTask<>((List<T>) data, groupIdExtractor, 0, data.size(), chunkSize));
+		final ImmutableCollectionOrchestrationPlanBuilder<T, O> plannerBuilder = ImmutableCollectionOrchestrationPlan
+				.builder(data);
+		for (ListMultimap<O, Integer> mappingForChunk : mappingsPerChunk) {
+			plannerBuilder.putElementsGroupIdAssignment(mappingForChunk);
 		}
 
 		return plannerBuilder.build();
 	}
 
+	@SuppressWarnings("unchecked")
+	private ImmutableCollectionOrchestrationPlan<T, O> createPlanWithPrimitiveGroupIdsInParallel(final List<T> data,
+			final ForkJoinPool forkJoinPool, final int chunkSize) {
+		final CompositeDataGroupIdExtractor<T> compositeGroupIdExtractor = groupIdExtractor instanceof CompositeDataGroupIdExtractor
+				? (CompositeDataGroupIdExtractor<T>) groupIdExtractor
+				: null;
+		final LongDataGroupIdExtractor<T> longGroupIdExtractor = compositeGroupIdExtractor != null
+				? hashExtractorOf(compositeGroupIdExtractor)
+				: groupIdExtractor instanceof LongDataGroupIdExtractor ? (LongDataGroupIdExtractor<T>) groupIdExtractor
+						: null;
+		final long[] groupIdOfElement = new long[data.size()];
+		forkJoinPool.invoke(new LongGroupIdExtractionTask<>(data, longGroupIdExtractor,
+				groupIdExtractor instanceof IntDataGroupIdExtractor ? (IntDataGroupIdExtractor<T>) groupIdExtractor
+						: null,
+				groupIdOfElement, 0, data.size(), chunkSize));
+
+		final ImmutableCollectionOrchestrationPlanBuilder<T, O> plannerBuilder = ImmutableCollectionOrchestrationPlan
+				.builder(data);
+		if (compositeGroupIdExtractor != null) {
+			for (int index = 0; index < groupIdOfElement.length; index++) {
+				plannerBuilder.putElementCompositeGroupIdAssignment(index, groupIdOfElement[index],
+						compositeGroupIdExtractor);
+			}
+		} else if (groupIdExtractor instanceof LongDataGroupIdExtractor) {
+			for (int index = 0; index < groupIdOfElement.length; index++) {
+				plannerBuilder.putElementLongGroupIdAssignment(index, groupIdOfElement[index]);
+			}
+		} else {
+			for (int index = 0; index < groupIdOfElement.length; index++) {
+				plannerBuilder.putElementIntGroupIdAssignment(index, (int) groupIdOfElement[index]);
+			}
+		}
+
+		return plannerBuilder.build();
+	}
+
+	/**
+	 * @param compositeGroupIdExtractor extractor of composite group ids
+	 * @return extractor, which group ids are hashes of composite group ids, every
+	 *         chunk is hashed by single call of
+	 *         {@link CompositeDataGroupIdExtractor#extractGroupIdHashes(List, long[])}
+	 */
+	private static <T> LongDataGroupIdExtractor<T> hashExtractorOf(
+			final CompositeDataGroupIdExtractor<T> compositeGroupIdExtractor) {
+		return new LongDataGroupIdExtractor<T>() {
+			@Override
+			public long extractLongGroupId(final T data) {
+				return compositeGroupIdExtractor.extractGroupIdHash(data);
+			}
+
+			@Override
+			public void extractLongGroupIds(final List<? extends T> chunk, final long[] groupIds) {
+				compositeGroupIdExtractor.extractGroupIdHashes(chunk, groupIds);
+			}
+		};
+	}
+
+	/**
+	 * Creates empty plan, to which data could be appended while it is being
+	 * consumed. Group ids of appended data are extracted by extractor of this
+	 * orchestrator.
+	 * 
+	 * @see AppendableOrchestrationPlan
+	 * @return new {@link AppendableOrchestrationPlan}
+	 * @since 1.0.0
+	 */
+	public AppendableOrchestrationPlan<T, O> createAppendablePlan() {
+		return createAppendablePlan(InputGrouping.UNGROUPED);
+	}
+
+	/**
+	 * The same as {@link #createAppendablePlan()}, but with given knowledge about
+	 * order of data, which will be appended.
+	 * 
+	 * @param inputGrouping what is known about order of appended data
+	 * @return new {@link AppendableOrchestrationPlan}
+	 * @since 1.0.0
+	 */
+	public AppendableOrchestrationPlan<T, O> createAppendablePlan(final InputGrouping inputGrouping) {
+		return new AppendableOrchestrationPlan<>(groupIdExtractor, inputGrouping);
+	}
+
+	/**
+	 * Pipelined version of {@link #createPlan(LockableCollection)}, it has the
+	 * same side-effect of call for {@link LockableCollection#immutable()}.
+	 * 
+	 * @see #createPipelinedPlan(Collection, InputGrouping, Executor)
+	 * @param data          for distribution
+	 * @param inputGrouping what is known about order of data
+	 * @return {@link AppendableOrchestrationPlan} filled in background
+	 * @since 1.0.0
+	 */
+	public AppendableOrchestrationPlan<T, O> createPipelinedPlan(final LockableCollection<T> data,
+			final InputGrouping inputGrouping) {
+		data.immutable();
+		return createPipelinedPlan(data, inputGrouping, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates plan, which is filled by scan of given collection executed in
+	 * background, so workers could start processing of data before group ids of
+	 * whole collection are extracted. Data are appended in chunks of
+	 * {@link #BULK_EXTRACTION_CHUNK_SIZE} elements and plan is sealed once the
+	 * scan is finished.
+	 * 
+	 * In case data are {@link InputGrouping#GROUPED_BY_KEY} every group is handed
+	 * out only once it is complete, otherwise groups are handed out as soon as
+	 * their first element is scanned. In case scan fails, e.g. extractor throws
+	 * exception or data are not grouped as declared, plan is sealed and every next
+	 * request for data fails with {@link IllegalStateException} caused by failure
+	 * of scan.
+	 * 
+	 * <b>Note! Collection shouldn't be modified until the scan is finished, i.e.
+	 * until plan is sealed.</b>
+	 * 
+	 * @param data          for distribution
+	 * @param inputGrouping what is known about order of data
+	 * @param scanExecutor  executor in which the scan of data is executed
+	 * @return {@link AppendableOrchestrationPlan} filled in background
+	 * @since 1.0.0
+	 */
+	public AppendableOrchestrationPlan<T, O> createPipelinedPlan(final Collection<T> data,
+			final InputGrouping inputGrouping, final Executor scanExecutor) {
+		final AppendableOrchestrationPlan<T, O> orchestrationPlan = createAppendablePlan(inputGrouping);
+		scanExecutor.execute(() -> {
+			try {
+				forEachChunk(data, (chunk, firstElementIndex) -> orchestrationPlan.appendAll(chunk));
+				orchestrationPlan.seal();
+			} catch (Throwable e) {
+				orchestrationPlan.sealExceptionally(e);
+			}
+		});
+
+		return orchestrationPlan;
+	}
+
+	/**
+	 * Creates plan with the same distribution as {@link #createPlan(Collection)},
+	 * which keeps positions of elements delta encoded as varints, so it takes
+	 * around 1 byte per element for data with clustered keys instead of 4 bytes.
+	 * Group ids are extracted by bulk methods of extractor, in the same way as by
+	 * {@link #createPlan(Collection)}.
+	 * 
+	 * @see CompressedOrchestrationPlan
+	 * @param data for distribution
+	 * @return {@link CompressedOrchestrationPlan} for given collection of data
+	 * @since 1.0.0
+	 */
+	public CompressedOrchestrationPlan<T, O> createCompressedPlan(final Collection<T> data) {
+		return CompressedOrchestrationPlan.create(CollectionUtils.asRandomAccessList(data), groupIdExtractor);
+	}
+
+	/**
+	 * Creates plan over data, which could contain more than
+	 * {@link Integer#MAX_VALUE} elements. Group ids are extracted in the same way
+	 * as by {@link #createPlan(Collection)}, positions of elements are kept as
+	 * <code>long</code> values inside chunked arrays.
+	 * 
+	 * @see LongIndexedOrchestrationPlan
+	 * @param data for distribution, it shouldn't be modified while plan is used
+	 * @return {@link LongIndexedOrchestrationPlan} for given data
+	 * @since 1.0.0
+	 */
+	public LongIndexedOrchestrationPlan<T, O> createLongIndexedPlan(final LongIndexedData<T> data) {
+		return createLongIndexedPlan(data, PlanIndexStorage.HEAP);
+	}
+
+	/**
+	 * The same as {@link #createLongIndexedPlan(LongIndexedData)}, but position
+	 * index of plan is kept in given storage. Plan kept outside of heap should be
+	 * closed via {@link LongIndexedOrchestrationPlan#close()} once all workers
+	 * finished.
+	 * 
+	 * @see PlanIndexStorage
+	 * @param data    for distribution, it shouldn't be modified while plan is used
+	 * @param storage place where position index of plan is kept
+	 * @return {@link LongIndexedOrchestrationPlan} for given data
+	 * @since 1.0.0
+	 */
+	public LongIndexedOrchestrationPlan<T, O> createLongIndexedPlan(final LongIndexedData<T> data,
+			final PlanIndexStorage storage) {
+		return LongIndexedOrchestrationPlan.create(data, groupIdExtractor, storage);
+	}
+
+	/**
+	 * Creates plan, which keeps in memory at most <code>windowSize</code> elements
+	 * pulled from given source, which are not yet handed out to workers. Source is
+	 * read ahead by threads requesting next portion of data as the window is
+	 * drained, so data bigger than available memory could be processed.
+	 * 
+	 * @see WindowedOrchestrationPlan
+	 * @param source     source of data, it shouldn't be used by anyone else since
+	 *                   plan is created
+	 * @param windowSize maximum number of elements kept by plan, should be greater
+	 *                   than 0
+	 * @return new {@link WindowedOrchestrationPlan}
+	 * @since 1.0.0
+	 */
+	public WindowedOrchestrationPlan<T, O> createWindowedPlan(final Iterator<? extends T> source,
+			final int windowSize) {
+		return new WindowedOrchestrationPlan<>(source, windowSize, groupIdExtractor);
+	}
+
+	/**
+	 * The same as {@link #createWindowedPlan(Iterator, int)} for source given as
+	 * {@link Spliterator}.
+	 * 
+	 * @param source     source of data, it shouldn't be used by anyone else since
+	 *                   plan is created
+	 * @param windowSize maximum number of elements kept by plan, should be greater
+	 *                   than 0
+	 * @return new {@link WindowedOrchestrationPlan}
+	 * @since 1.0.0
+	 */
+	public WindowedOrchestrationPlan<T, O> createWindowedPlan(final Spliterator<? extends T> source,
+			final int windowSize) {
+		return createWindowedPlan(Spliterators.iterator(source), windowSize);
+	}
+
+	/**
+	 * The same as {@link #createWindowedPlan(Iterator, int)} for source given as
+	 * {@link Stream}. Stream is consumed lazily by plan, but it is not closed by
+	 * it.
+	 * 
+	 * @param source     source of data, no other terminal operation should be
+	 *                   called on it
+	 * @param windowSize maximum number of elements kept by plan, should be greater
+	 *                   than 0
+	 * @return new {@link WindowedOrchestrationPlan}
+	 * @since 1.0.0
+	 */
+	public WindowedOrchestrationPlan<T, O> createWindowedPlan(final Stream<? extends T> source,
+			final int windowSize) {
+		return createWindowedPlan(source.iterator(), windowSize);
+	}
+
+	/**
+	 * Creates index-only plan, where element at position <code>i</code> belongs to
+	 * group <code>keyColumn[i]</code>. Group ids are kept as primitives during
+	 * creation, like for {@link LongDataGroupIdExtractor}. Method is static, since
+	 * group id of every position is already known and no extractor is needed.
+	 * 
+	 * @see ImmutableCollectionOrchestrationPlan#drainPositionsTo(WorkerSession,
+	 *      int[])
+	 * @param keyColumn group id of every position, it is not kept by plan
+	 * @return plan handing out positions of elements as their data
+	 * @since 1.0.0
+	 */
+	public static ImmutableCollectionOrchestrationPlan<Integer, Long> createKeyColumnPlan(final long[] keyColumn) {
+		final ImmutableCollectionOrchestrationPlanBuilder<Integer, Long> builder = ImmutableCollectionOrchestrationPlan
+				.builder(new IndexList(keyColumn.length));
+		for (int position = 0; position < keyColumn.length; position++) {
+			builder.putElementLongGroupIdAssignment(position, keyColumn[position]);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * The same as {@link #createKeyColumnPlan(long[])} for <code>int</code> group
+	 * ids.
+	 * 
+	 * @param keyColumn group id of every position, it is not kept by plan
+	 * @return plan handing out positions of elements as their data
+	 * @since 1.0.0
+	 */
+	public static ImmutableCollectionOrchestrationPlan<Integer, Integer> createKeyColumnPlan(final int[] keyColumn) {
+		final ImmutableCollectionOrchestrationPlanBuilder<Integer, Integer> builder = ImmutableCollectionOrchestrationPlan
+				.builder(new IndexList(keyColumn.length));
+		for (int position = 0; position < keyColumn.length; position++) {
+			builder.putElementIntGroupIdAssignment(position, keyColumn[position]);
+		}
+
+		return builder.build();
+	}
+
+	/**
+	 * Creates index-only plan for <code>size</code> positions, where group id of
+	 * every position is provided by given function.
+	 * 
+	 * @param <G>            type of group id object
+	 * @param size           number of positions, greater or equal 0
+	 * @param groupIdOfIndex function returning group id of given position
+	 * @return plan handing out positions of elements as their data
+	 * @since 1.0.0
+	 */
+	public static <G> ImmutableCollectionOrchestrationPlan<Integer, G> createIndexPlan(final int size,
+			final IntFunction<? extends G> groupIdOfIndex) {
+		final ImmutableCollectionOrchestrationPlanBuilder<Integer, G> builder = ImmutableCollectionOrchestrationPlan
+				.builder(new IndexList(size));
+		for (int position = 0; position < size; position++) {
+			builder.putElementGroupIdAssignment(position, groupIdOfIndex.apply(position));
+		}
+
+		return builder.build();
+	}
+
 	/**
-	 * This method is <b>thread safe</b> in terms lock is being made on
-	 * <code>orchestrationPlan</code> object. Its main responsibility is to provide
-	 * next portion of data based on what data are being consumed by which thread.
+	 * This method is <b>thread safe</b>, in {@link DispatchMode#SYNCHRONIZED} mode
+	 * lock is being made on <code>orchestrationPlan</code> object, in
+	 * {@link DispatchMode#CONCURRENT} mode only claiming of free group is atomic
+	 * operation. Its main responsibility is to provide next portion of data based
+	 * on what data are being consumed by which thread.
 	 * 
 	 * @param orchestrationPlan which internally contains information about data for
 	 *                          processing
@@ -98,15 +568,219 @@ public class DataOrchestratorBasedOnImmutableCollection<T, O> {
 	 * 
 	 * @since 1.0.0
 	 */
-	public Collection<T> nextPortionOfData(final ImmutableCollectionOrchestrationPlan<T, O> orchestrationPlan,
+	public Collection<T> nextPortionOfData(final OrchestrationPlan<T, O> orchestrationPlan,
 			final int batchSize) {
+		validateBatchSize(batchSize);
+
+		return dispatch(orchestrationPlan,
+				() -> orchestrationPlan.poolNextBatchOfData(Thread.currentThread(), batchSize));
+	}
+
+	/**
+	 * The same as {@link #nextPortionOfData(OrchestrationPlan, int)},
+	 * but groups are owned by given {@link WorkerSession} instead of calling
+	 * {@link Thread}. Session could be passed between threads, but it shouldn't be
+	 * used by two threads at the same time.
+	 * 
+	 * @param workerSession session obtained via
+	 *                      {@link OrchestrationPlan#openSession()}
+	 * @param batchSize     number of elements to provide should be greater than 0
+	 * @return available elements for given session, it might be less than data
+	 *         requested in case data are being consumed by other sessions
+	 * 
+	 * @since 1.0.0
+	 */
+	public Collection<T> nextPortionOfData(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateBatchSize(batchSize);
+
+		final OrchestrationPlan<T, O> orchestrationPlan = workerSession.getOrchestrationPlan();
+		return dispatch(orchestrationPlan, () -> orchestrationPlan.poolNextBatchOfData(workerSession, batchSize));
+	}
+
+	/**
+	 * The same as {@link #nextPortionOfData(WorkerSession, int)}, but data are
+	 * returned as read-only {@link Batch} view. For
+	 * {@link ImmutableCollectionOrchestrationPlan} view is backed by positions
+	 * array of plan and original collection, so no element is copied.
+	 * 
+	 * @param workerSession session obtained via
+	 *                      {@link OrchestrationPlan#openSession()}
+	 * @param batchSize     number of elements to provide should be greater than 0
+	 * @return available elements for given session, it might be less than data
+	 *         requested in case data are being consumed by other sessions
+	 * 
+	 * @since 1.0.0
+	 */
+	public Batch<T> nextBatch(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateBatchSize(batchSize);
+
+		final OrchestrationPlan<T, O> orchestrationPlan = workerSession.getOrchestrationPlan();
+		return dispatch(orchestrationPlan, () -> orchestrationPlan.poolNextBatch(workerSession, batchSize));
+	}
+
+	/**
+	 * The same as {@link #nextBatch(WorkerSession, int)}, but batch is split into
+	 * segments, each containing contiguous run of elements of single group
+	 * together with its group id, so group id doesn't have to be extracted again
+	 * by consumer. Segment of plan, which group could still grow, doesn't complete
+	 * its group.
+	 * 
+	 * @param workerSession session obtained via
+	 *                      {@link OrchestrationPlan#openSession()}
+	 * @param batchSize     number of elements to provide should be greater than 0
+	 * @return available elements for given session split by group, it might
+	 *         contain less elements than requested in case data are being consumed
+	 *         by other sessions
+	 * 
+	 * @since 1.0.0
+	 */
+	public GroupedBatch<T, O> nextGroupedBatch(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateBatchSize(batchSize);
+
+		final OrchestrationPlan<T, O> orchestrationPlan = workerSession.getOrchestrationPlan();
+		return dispatch(orchestrationPlan, () -> orchestrationPlan.poolNextGroupedBatch(workerSession, batchSize));
+	}
+
+	/**
+	 * The same as {@link #nextPortionOfData(OrchestrationPlan, int)}, but data are
+	 * added into given collection, which could be reused by caller between
+	 * requests.
+	 * 
+	 * @param orchestrationPlan which internally contains information about data for
+	 *                          processing
+	 * @param batchSize         number of elements to provide should be greater than
+	 *                          0
+	 * @param target            collection to which elements are added, it is not
+	 *                          cleared before
+	 * @return number of added elements, it might be less than requested in case
+	 *         data are being consumed by other threads
+	 * 
+	 * @since 1.0.0
+	 */
+	public int nextPortionOfData(final OrchestrationPlan<T, O> orchestrationPlan, final int batchSize,
+			final Collection<? super T> target) {
+		validateBatchSize(batchSize);
+
+		return dispatch(orchestrationPlan,
+				() -> orchestrationPlan.drainNextBatchOfData(Thread.currentThread(), batchSize, target));
+	}
+
+	/**
+	 * The same as {@link #nextPortionOfData(WorkerSession, int)}, but data are
+	 * added into given collection, which could be reused by caller between
+	 * requests. For {@link ImmutableCollectionOrchestrationPlan} elements are
+	 * added straight from original collection, so in steady state nothing is
+	 * allocated as long as target has enough capacity.
+	 * 
+	 * @param workerSession session obtained via
+	 *                      {@link OrchestrationPlan#openSession()}
+	 * @param batchSize     number of elements to provide should be greater than 0
+	 * @param target        collection to which elements are added, it is not
+	 *                      cleared before
+	 * @return number of added elements, it might be less than requested in case
+	 *         data are being consumed by other sessions
+	 * 
+	 * @since 1.0.0
+	 */
+	public int nextPortionOfData(final WorkerSession<T, O> workerSession, final int batchSize,
+			final Collection<? super T> target) {
+		validateBatchSize(batchSize);
+
+		final OrchestrationPlan<T, O> orchestrationPlan = workerSession.getOrchestrationPlan();
+		return dispatch(orchestrationPlan,
+				() -> orchestrationPlan.drainNextBatchOfData(workerSession, batchSize, target));
+	}
+
+	/**
+	 * Writes next portion of data into given buffer starting from its first
+	 * slot, in the same way as {@link java.util.concurrent.BlockingQueue#drainTo(Collection, int)}.
+	 * Length of buffer is used as batch size. Groups are owned by calling
+	 * {@link Thread}, like in {@link #nextPortionOfData(OrchestrationPlan, int)}.
+	 * 
+	 * @param orchestrationPlan which internally contains information about data for
+	 *                          processing
+	 * @param buffer            buffer with length greater than 0, slots after the
+	 *                          last written element are not modified
+	 * @return number of written elements, <code>0</code> in case no data is
+	 *         available for calling thread
+	 * 
+	 * @since 1.0.0
+	 */
+	public int drainTo(final OrchestrationPlan<T, O> orchestrationPlan, final T[] buffer) {
+		validateBatchSize(buffer.length);
+
+		return dispatch(orchestrationPlan,
+				() -> orchestrationPlan.drainNextBatchOfData(Thread.currentThread(), buffer));
+	}
+
+	/**
+	 * The same as {@link #drainTo(OrchestrationPlan, Object[])}, but groups are
+	 * owned by given {@link WorkerSession}. For
+	 * {@link ImmutableCollectionOrchestrationPlan} nothing is allocated in steady
+	 * state.
+	 * 
+	 * @param workerSession session obtained via
+	 *                      {@link OrchestrationPlan#openSession()}
+	 * @param buffer        buffer with length greater than 0, slots after the last
+	 *                      written element are not modified
+	 * @return number of written elements, <code>0</code> in case no data is
+	 *         available for given session
+	 * 
+	 * @since 1.0.0
+	 */
+	public int drainTo(final WorkerSession<T, O> workerSession, final T[] buffer) {
+		validateBatchSize(buffer.length);
+
+		final OrchestrationPlan<T, O> orchestrationPlan = workerSession.getOrchestrationPlan();
+		return dispatch(orchestrationPlan, () -> orchestrationPlan.drainNextBatchOfData(workerSession, buffer));
+	}
+
+	private void forEachChunk(final Collection<T> data, final ChunkConsumer<T> chunkConsumer) {
+		if (data instanceof List && data instanceof RandomAccess) {
+			final List<T> randomAccessData = (List<T>) data;
+			for (int fromIndex = 0; fromIndex < randomAccessData.size(); fromIndex += BULK_EXTRACTION_CHUNK_SIZE) {
+				chunkConsumer.accept(randomAccessData.subList(fromIndex,
+						Math.min(randomAccessData.size(), fromIndex + BULK_EXTRACTION_CHUNK_SIZE)), fromIndex);
+			}
+			return;
+		}
+
+		final List<T> chunk = new ArrayList<>(BULK_EXTRACTION_CHUNK_SIZE);
+		final Iterator<T> iter = data.iterator();
+		int firstElementIndex = 0;
+		while (iter.hasNext()) {
+			chunk.add(iter.next());
+			if (chunk.size() == BULK_EXTRACTION_CHUNK_SIZE || !iter.hasNext()) {
+				chunkConsumer.accept(chunk, firstElementIndex);
+				firstElementIndex += chunk.size();
+				chunk.clear();
+			}
+		}
+	}
+
+	/**
+	 * Calls given request of data under lock required by {@link DispatchMode} of
+	 * this orchestrator, every request for data should be passed through it.
+	 */
+	private <R> R dispatch(final OrchestrationPlan<T, O> orchestrationPlan, final Supplier<R> request) {
+		if (dispatchMode == DispatchMode.CONCURRENT) {
+			return request.get();
+		}
+
+		synchronized (orchestrationPlan) {
+			return request.get();
+		}
+	}
+
+	private void validateBatchSize(final int batchSize) {
 		if (batchSize <= 0) {
 			throw new IllegalArgumentException(
 					"Batch size parameter should be greater than 0, currently it is " + batchSize);
 		}
+	}
 
-		synchronized (orchestrationPlan) {
-			return orchestrationPlan.poolNextBatchOfData(Thread.currentThread(), batchSize);
-		}
+	@FunctionalInterface
+	private interface ChunkConsumer<T> {
+		void accept(final List<T> chunk, final int firstElementIndex);
 	}
 }
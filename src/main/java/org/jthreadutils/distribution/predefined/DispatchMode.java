@@ -0,0 +1,31 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Describes how {@link DataOrchestratorBasedOnImmutableCollection} coordinates
+ * threads requesting next portion of data from the same
+ * {@link ImmutableCollectionOrchestrationPlan}.
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+public enum DispatchMode {
+	/**
+	 * Whole batch is assembled under lock on orchestration plan object. Threads
+	 * are served one by one, so distribution of groups between threads depends
+	 * only on order of requests.
+	 * 
+	 * @since 1.0.0
+	 */
+	SYNCHRONIZED,
+	/**
+	 * No shared lock is taken. Only claiming of the next free group is a short
+	 * atomic step, continuing of groups already assigned to thread and copying of
+	 * elements are performed by each thread independently. Every group is still
+	 * processed by only one thread, but groups claimed by threads calling at the
+	 * same time might interleave.
+	 * 
+	 * @since 1.0.0
+	 */
+	CONCURRENT
+}
@@ -0,0 +1,64 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Queue of group ordinals not claimed by any worker yet. Ordinals are kept in
+ * array in order in which they should be claimed, claim is only atomic move of
+ * head index, so it costs O(1) regardless of number of groups and doesn't
+ * require any lock.
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+class FreeGroupQueue {
+	/**
+	 * Value returned by {@link #claim()} in case there are no more free groups.
+	 */
+	static final int NO_FREE_GROUP = -1;
+
+	private final int[] groupOrdinalsInClaimOrder;
+	private final AtomicInteger head = new AtomicInteger();
+
+	/**
+	 * @param groupOrdinalsInClaimOrder group ordinals in order in which they
+	 *                                  should be claimed, array is not copied and
+	 *                                  shouldn't be modified afterwards
+	 */
+	FreeGroupQueue(final int[] groupOrdinalsInClaimOrder) {
+		this.groupOrdinalsInClaimOrder = groupOrdinalsInClaimOrder;
+	}
+
+	/**
+	 * @return the next free group ordinal or {@link #NO_FREE_GROUP}
+	 */
+	int claim() {
+		for (;;) {
+			final int currentHead = head.get();
+			if (currentHead >= groupOrdinalsInClaimOrder.length) {
+				return NO_FREE_GROUP;
+			}
+			if (head.compareAndSet(currentHead, currentHead + 1)) {
+				return groupOrdinalsInClaimOrder[currentHead];
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> in case all groups were already claimed
+	 */
+	boolean isEmpty() {
+		return head.get() >= groupOrdinalsInClaimOrder.length;
+	}
+
+	/**
+	 * @return number of groups not claimed yet
+	 */
+	int size() {
+		return Math.max(0, groupOrdinalsInClaimOrder.length - head.get());
+	}
+}
@@ -0,0 +1,42 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Dictionary used by {@link ImmutableCollectionOrchestrationPlan} in order to
+ * intern every distinct group id once into dense <code>int</code> ordinal.
+ * Ordinals are assigned in order of the first occurrence of group id, starting
+ * from <code>0</code>, so whole state of plan (group offsets, queue of free
+ * groups and progress of groups) is kept in arrays indexed by ordinal and
+ * <code>hashCode</code>/<code>equals</code> of group id is called only during
+ * plan creation. Original group id is still available by its ordinal for
+ * reporting purpose.
+ * 
+ * Dictionary is filled by single thread during plan creation and only read
+ * afterwards. This interface covers only the read side used by plans, the way
+ * ordinals are assigned depends on kind of group id, i.e. lookup by group id
+ * object is provided by {@link InterningGroupIdDictionary}.
+ * 
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+interface GroupIdDictionary<O> {
+
+	/**
+	 * @param groupOrdinal ordinal assigned by dictionary
+	 * @return group id with given ordinal
+	 * @throws IndexOutOfBoundsException in case there is no group with given
+	 *                                   ordinal
+	 * 
+	 * @since 1.0.0
+	 */
+	O groupIdOf(final int groupOrdinal);
+
+	/**
+	 * @return number of distinct group ids
+	 * 
+	 * @since 1.0.0
+	 */
+	int size();
+}
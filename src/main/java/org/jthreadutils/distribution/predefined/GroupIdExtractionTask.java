@@ -0,0 +1,96 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+
+/**
+ * Fork/join task used by {@link DataOrchestratorBasedOnImmutableCollection} in
+ * order to extract group ids for <i>random access</i> data in parallel. Range
+ * of elements is split in halves until it fits into single chunk, each chunk
+ * collects its own mapping between group key and element positions. Group ids
+ * of chunk are extracted by single call of
+ * {@link DataGroupIdExtractor#extractGroupIds(List, Object[])}.
+ *
+ * Result contains chunk mappings in the same order as chunks appear in data
+ * collection and group keys of every chunk are kept in order of their first
+ * occurrence, so merging them one by one preserves original order of elements
+ * within every group as well as order of groups.
+ *
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+class GroupIdExtractionTask<T, O> extends RecursiveTask<List<ListMultimap<O, Integer>>> {
+	private static final long serialVersionUID = 1L;
+
+	private final List<T> data;
+	private final DataGroupIdExtractor<T, O> groupIdExtractor;
+	private final int fromIndex;
+	private final int toIndex;
+	private final int chunkSize;
+
+	/**
+	 * @param data             random access data for which group ids should be
+	 *                         extracted
+	 * @param groupIdExtractor extractor used for get <code>groupId</code> for
+	 *                         given element
+	 * @param fromIndex        index of the first element to process (inclusive)
+	 * @param toIndex          index of the last element to process (exclusive)
+	 * @param chunkSize        maximum number of elements processed by single task
+	 *                         without further split
+	 */
+	GroupIdExtractionTask(final List<T> data, final DataGroupIdExtractor<T, O> groupIdExtractor,
+			final int fromIndex, final int toIndex, final int chunkSize) {
+		this.data = data;
+		this.groupIdExtractor = groupIdExtractor;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	protected List<ListMultimap<O, Integer>> compute() {
+		if (toIndex - fromIndex <= chunkSize) {
+			final List<ListMultimap<O, Integer>> result = new ArrayList<>(1);
+			result.add(extractGroupIdsForChunk());
+			return result;
+		}
+
+		final int middleIndex = (fromIndex + toIndex) >>> 1;
+		final GroupIdExtractionTask<T, O> firstHalf = new GroupIdExtractionTask<>(data, groupIdExtractor, fromIndex,
+				middleIndex, chunkSize);
+		final GroupIdExtractionTask<T, O> secondHalf = new GroupIdExtractionTask<>(data, groupIdExtractor,
+				middleIndex, toIndex, chunkSize);
+		firstHalf.fork();
+		final List<ListMultimap<O, Integer>> secondHalfResult = secondHalf.compute();
+		final List<ListMultimap<O, Integer>> firstHalfResult = firstHalf.join();
+
+		final List<ListMultimap<O, Integer>> result = new ArrayList<>(
+				firstHalfResult.size() + secondHalfResult.size());
+		result.addAll(firstHalfResult);
+		result.addAll(secondHalfResult);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private ListMultimap<O, Integer> extractGroupIdsForChunk() {
+		final ListMultimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideChunk = MultimapBuilder
+				.linkedHashKeys().arrayListValues().build();
+		final Object[] groupIds = new Object[toIndex - fromIndex];
+		groupIdExtractor.extractGroupIds(data.subList(fromIndex, toIndex), groupIds);
+		for (int index = fromIndex; index < toIndex; index++) {
+			mappingBetweenGroupKeyAndElementsPositionInsideChunk.put((O) groupIds[index - fromIndex], index);
+		}
+
+		return mappingBetweenGroupKeyAndElementsPositionInsideChunk;
+	}
+}
@@ -0,0 +1,89 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+
+/**
+ * Assigns group ordinals to consecutive chunks of data, used by plans which
+ * receive data chunk by chunk (appended, pulled from source or read by
+ * <code>long</code> index). Group ids are extracted by bulk methods of
+ * extractor and interned by {@link GroupIdDictionary} suitable for type of
+ * extractor.
+ * 
+ * @param <T> type of data
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class GroupOrdinalResolver<T, O> {
+	private final DataGroupIdExtractor<T, O> groupIdExtractor;
+	private final GroupIdDictionary<O> groupIdDictionary;
+
+	@SuppressWarnings("unchecked")
+	GroupOrdinalResolver(final DataGroupIdExtractor<T, O> groupIdExtractor) {
+		this.groupIdExtractor = groupIdExtractor;
+		if (groupIdExtractor instanceof CompositeDataGroupIdExtractor) {
+			this.groupIdDictionary = (GroupIdDictionary<O>) new CompositeGroupIdDictionary<>(
+					(CompositeDataGroupIdExtractor<T>) groupIdExtractor);
+		} else if (groupIdExtractor instanceof LongDataGroupIdExtractor) {
+			this.groupIdDictionary = new LongGroupOrdinalDictionary<>(false);
+		} else if (groupIdExtractor instanceof IntDataGroupIdExtractor) {
+			this.groupIdDictionary = new LongGroupOrdinalDictionary<>(true);
+		} else {
+			this.groupIdDictionary = new HashGroupIdDictionary<>();
+		}
+	}
+
+	/**
+	 * @return dictionary of all groups resolved so far
+	 */
+	GroupIdDictionary<O> getGroupIdDictionary() {
+		return groupIdDictionary;
+	}
+
+	/**
+	 * @param chunk         elements for which ordinals are resolved
+	 * @param groupOrdinals array, which first <code>chunk.size()</code> slots are
+	 *                      filled by ordinals of groups of elements
+	 */
+	@SuppressWarnings("unchecked")
+	void resolveGroupOrdinals(final List<? extends T> chunk, final int[] groupOrdinals) {
+		if (groupIdExtractor instanceof CompositeDataGroupIdExtractor) {
+			final CompositeDataGroupIdExtractor<T> compositeGroupIdExtractor = (CompositeDataGroupIdExtractor<T>) groupIdExtractor;
+			final long[] hashes = new long[chunk.size()];
+			compositeGroupIdExtractor.extractGroupIdHashes(chunk, hashes);
+			for (int index = 0; index < chunk.size(); index++) {
+				groupOrdinals[index] = ((CompositeGroupIdDictionary<T>) groupIdDictionary)
+						.ordinalOf(chunk.get(index), hashes[index]);
+			}
+		} else if (groupIdExtractor instanceof LongDataGroupIdExtractor) {
+			final long[] groupIds = new long[chunk.size()];
+			((LongDataGroupIdExtractor<T>) groupIdExtractor).extractLongGroupIds(chunk, groupIds);
+			for (int index = 0; index < chunk.size(); index++) {
+				groupOrdinals[index] = ((LongGroupOrdinalDictionary<O>) groupIdDictionary).ordinalOf(groupIds[index]);
+			}
+		} else if (groupIdExtractor instanceof IntDataGroupIdExtractor) {
+			final int[] groupIds = new int[chunk.size()];
+			((IntDataGroupIdExtractor<T>) groupIdExtractor).extractIntGroupIds(chunk, groupIds);
+			for (int index = 0; index < chunk.size(); index++) {
+				groupOrdinals[index] = ((LongGroupOrdinalDictionary<O>) groupIdDictionary).ordinalOf(groupIds[index]);
+			}
+		} else {
+			final Object[] groupIds = new Object[chunk.size()];
+			groupIdExtractor.extractGroupIds(chunk, groupIds);
+			for (int index = 0; index < chunk.size(); index++) {
+				groupOrdinals[index] = ((InterningGroupIdDictionary<O>) groupIdDictionary)
+						.ordinalOf((O) groupIds[index]);
+			}
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Batch of data split into segments, every segment is contiguous run of
+ * elements of single group in original order, returned by
+ * {@link DataOrchestratorBasedOnImmutableCollection#nextGroupedBatch(WorkerSession, int)}.
+ * Segments are taken from bookkeeping of plan, so consumer could apply
+ * per-group state once per segment without extracting group id of any
+ * element. Every group appears in batch at most once.
+ *
+ * @param <T> type of data inside batch
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+public final class GroupedBatch<T, O> {
+	private final OrchestrationPlan<T, O> orchestrationPlan;
+	private final Batch<T> elements;
+	private final int[] segmentGroupOrdinals;
+	private final int[] segmentEndsInBatch;
+	private final boolean[] segmentCompletesGroup;
+
+	GroupedBatch(final OrchestrationPlan<T, O> orchestrationPlan, final Batch<T> elements,
+			final int[] segmentGroupOrdinals, final int[] segmentEndsInBatch, final boolean[] segmentCompletesGroup) {
+		this.orchestrationPlan = orchestrationPlan;
+		this.elements = elements;
+		this.segmentGroupOrdinals = segmentGroupOrdinals;
+		this.segmentEndsInBatch = segmentEndsInBatch;
+		this.segmentCompletesGroup = segmentCompletesGroup;
+	}
+
+	/**
+	 * @return all elements of batch, segment after segment
+	 *
+	 * @since 1.0.0
+	 */
+	public Batch<T> getElements() {
+		return elements;
+	}
+
+	/**
+	 * @return <code>true</code> in case batch doesn't contain any element
+	 *
+	 * @since 1.0.0
+	 */
+	public boolean isEmpty() {
+		return elements.isEmpty();
+	}
+
+	/**
+	 * @return number of segments, which is number of groups inside batch
+	 *
+	 * @since 1.0.0
+	 */
+	public int getNumberOfSegments() {
+		return segmentGroupOrdinals.length;
+	}
+
+	/**
+	 * @param segment index of segment, between <code>0</code> (inclusive) and
+	 *                {@link #getNumberOfSegments()} (exclusive)
+	 * @return original group id of elements inside segment
+	 *
+	 * @since 1.0.0
+	 */
+	public O getGroupId(final int segment) {
+		return orchestrationPlan.getGroupId(segmentGroupOrdinals[segment]);
+	}
+
+	/**
+	 * @param segment index of segment, between <code>0</code> (inclusive) and
+	 *                {@link #getNumberOfSegments()} (exclusive)
+	 * @return ordinal of group of elements inside segment within plan
+	 *
+	 * @since 1.0.0
+	 */
+	public int getGroupOrdinal(final int segment) {
+		return segmentGroupOrdinals[segment];
+	}
+
+	/**
+	 * @param segment index of segment, between <code>0</code> (inclusive) and
+	 *                {@link #getNumberOfSegments()} (exclusive)
+	 * @return read-only view of elements inside segment
+	 *
+	 * @since 1.0.0
+	 */
+	public List<T> getSegmentElements(final int segment) {
+		return elements.subList(segment == 0 ? 0 : segmentEndsInBatch[segment - 1], segmentEndsInBatch[segment]);
+	}
+
+	/**
+	 * @param segment index of segment, between <code>0</code> (inclusive) and
+	 *                {@link #getNumberOfSegments()} (exclusive)
+	 * @return <code>true</code> in case segment contains the last element of its
+	 *         group, so no more elements of the group will be handed out, i.e.
+	 *         per-group state could be flushed once segment is processed
+	 *
+	 * @since 1.0.0
+	 */
+	public boolean isGroupCompletedBySegment(final int segment) {
+		return segmentCompletesGroup[segment];
+	}
+
+	/**
+	 * Passes every segment together with its group id into given consumer, in
+	 * order of segments.
+	 *
+	 * @param segmentConsumer consumer of group id and elements of segment
+	 *
+	 * @since 1.0.0
+	 */
+	public void forEachSegment(final BiConsumer<? super O, ? super List<T>> segmentConsumer) {
+		for (int segment = 0; segment < segmentGroupOrdinals.length; segment++) {
+			segmentConsumer.accept(getGroupId(segment), getSegmentElements(segment));
+		}
+	}
+}
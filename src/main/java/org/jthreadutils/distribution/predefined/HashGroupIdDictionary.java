@@ -0,0 +1,46 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * {@link InterningGroupIdDictionary} for any group id object, based on
+ * <code>hashCode</code> and <code>equals</code> of group id.
+ * 
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class HashGroupIdDictionary<O> implements InterningGroupIdDictionary<O> {
+	private final Map<O, Integer> groupOrdinalByGroupId = new HashMap<>();
+	private final List<O> groupIdOfOrdinal = new ArrayList<>();
+
+	@Override
+	public int ordinalOf(final O groupId) {
+		Integer groupOrdinal = groupOrdinalByGroupId.get(groupId);
+		if (groupOrdinal == null) {
+			groupOrdinal = groupIdOfOrdinal.size();
+			groupOrdinalByGroupId.put(groupId, groupOrdinal);
+			groupIdOfOrdinal.add(groupId);
+		}
+
+		return groupOrdinal;
+	}
+
+	@Override
+	public O groupIdOf(final int groupOrdinal) {
+		return groupIdOfOrdinal.get(groupOrdinal);
+	}
+
+	@Override
+	public int size() {
+		return groupIdOfOrdinal.size();
+	}
+}
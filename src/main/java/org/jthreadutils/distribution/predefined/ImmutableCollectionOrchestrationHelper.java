@@ -1,17 +1,22 @@
 package org.jthreadutils.distribution.predefined;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import com.google.common.collect.Multimap;
-import com.google.common.collect.TreeMultimap;
 
 /**
  * This is helper class used by {@link ImmutableCollectionOrchestrationPlan} in
  * order to perform operations not strictly related into executing of data
  * distribution plan.
  * 
+ * Groups are ordered by bucketing them based on their size (counting sort), or
+ * in case the biggest group is much bigger than number of groups by radix sort
+ * on group sizes. Both are linear in number of groups and keep groups with the
+ * same size in order in which they were provided.
+ * 
  * @param <O> type of group id object
  * 
  * @author adam-wypych
@@ -19,6 +24,9 @@ import com.google.common.collect.TreeMultimap;
  * @version %I%, %G%
  */
 class ImmutableCollectionOrchestrationHelper<O> {
+	private static final int RADIX_BITS = 16;
+	private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+	private static final int RADIX_MASK = RADIX_BUCKETS - 1;
 
 	/**
 	 * This method based on mappings between group keys and elements in collection,
@@ -37,32 +45,114 @@ class ImmutableCollectionOrchestrationHelper<O> {
 	 */
 	public List<O> createListWithGroupsSortedBasedOnBiggestNumberOfElements(
 			final Multimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideCollection) {
-		final List<O> freeGroupsToProcessSortedBasedOnBiggestNumberOfElements = new ArrayList<>();
+		final List<O> groupKeys = new ArrayList<>(mappingBetweenGroupKeyAndElementsPositionInsideCollection.keySet());
+		final int[] groupSizes = new int[groupKeys.size()];
+		for (int groupOrdinal = 0; groupOrdinal < groupSizes.length; groupOrdinal++) {
+			final Collection<Integer> elementsPosition = mappingBetweenGroupKeyAndElementsPositionInsideCollection
+					.get(groupKeys.get(groupOrdinal));
+			groupSizes[groupOrdinal] = elementsPosition.size();
+		}
 
-		final TreeMultimap<Integer, O> numberOfElementsToGivenGroupKey = collectNumberOfElementsToGivenGroupKeySortedFromBiggestCount(
-				mappingBetweenGroupKeyAndElementsPositionInsideCollection);
-		for (Integer sizeOfKeys : numberOfElementsToGivenGroupKey.keySet()) {
-			freeGroupsToProcessSortedBasedOnBiggestNumberOfElements
-					.addAll(numberOfElementsToGivenGroupKey.get(sizeOfKeys));
+		final int[] groupOrdinalsSorted = createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizes,
+				groupSizes.length);
+		final List<O> freeGroupsToProcessSortedBasedOnBiggestNumberOfElements = new ArrayList<>(
+				groupOrdinalsSorted.length);
+		for (int groupOrdinal : groupOrdinalsSorted) {
+			freeGroupsToProcessSortedBasedOnBiggestNumberOfElements.add(groupKeys.get(groupOrdinal));
 		}
 
 		return freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
 	}
 
-	private TreeMultimap<Integer, O> collectNumberOfElementsToGivenGroupKeySortedFromBiggestCount(
-			final Multimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideCollection) {
-		final Comparator<O> ignoreValueOrderComparator = (a, b) -> {
-			return 1;
-		};
-		final TreeMultimap<Integer, O> numberOfElementsToGivenGroupKey = TreeMultimap.create(Comparator.reverseOrder(),
-				ignoreValueOrderComparator);
-		for (O groupKey : mappingBetweenGroupKeyAndElementsPositionInsideCollection.keySet()) {
-			if (!mappingBetweenGroupKeyAndElementsPositionInsideCollection.get(groupKey).isEmpty()) {
-				numberOfElementsToGivenGroupKey
-						.put(mappingBetweenGroupKeyAndElementsPositionInsideCollection.get(groupKey).size(), groupKey);
+	/**
+	 * This method based on sizes of groups identified by their ordinals, creates
+	 * array where group ordinals are placed based on their occurrence inside data
+	 * collection. Groups with the same size are kept in order of their ordinals,
+	 * groups without elements are skipped.
+	 * 
+	 * @param groupSizes     number of elements inside collection for every group
+	 *                       ordinal
+	 * @param numberOfGroups number of groups described inside
+	 *                       <code>groupSizes</code>
+	 * @return array of group ordinals sorted based on their count in data
+	 *         collection
+	 * 
+	 * @since 1.0.0
+	 */
+	public int[] createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(final int[] groupSizes,
+			final int numberOfGroups) {
+		int maximalGroupSize = 0;
+		int numberOfNonEmptyGroups = 0;
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			maximalGroupSize = Math.max(maximalGroupSize, groupSizes[groupOrdinal]);
+			if (groupSizes[groupOrdinal] > 0) {
+				numberOfNonEmptyGroups++;
+			}
+		}
+
+		if (maximalGroupSize <= numberOfGroups + RADIX_BUCKETS) {
+			return sortByCountingGroupSizes(groupSizes, numberOfGroups, numberOfNonEmptyGroups, maximalGroupSize);
+		}
+
+		return sortByRadixOfGroupSizes(groupSizes, numberOfGroups, numberOfNonEmptyGroups, maximalGroupSize);
+	}
+
+	private int[] sortByCountingGroupSizes(final int[] groupSizes, final int numberOfGroups,
+			final int numberOfNonEmptyGroups, final int maximalGroupSize) {
+		// bucket 0 keeps the biggest groups, bucket (maximalGroupSize - 1) groups
+		// with single element
+		final int[] bucketStarts = new int[maximalGroupSize + 1];
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			if (groupSizes[groupOrdinal] > 0) {
+				bucketStarts[maximalGroupSize - groupSizes[groupOrdinal] + 1]++;
+			}
+		}
+		for (int bucket = 1; bucket <= maximalGroupSize; bucket++) {
+			bucketStarts[bucket] += bucketStarts[bucket - 1];
+		}
+
+		final int[] groupOrdinalsSorted = new int[numberOfNonEmptyGroups];
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			if (groupSizes[groupOrdinal] > 0) {
+				groupOrdinalsSorted[bucketStarts[maximalGroupSize - groupSizes[groupOrdinal]]++] = groupOrdinal;
+			}
+		}
+
+		return groupOrdinalsSorted;
+	}
+
+	private int[] sortByRadixOfGroupSizes(final int[] groupSizes, final int numberOfGroups,
+			final int numberOfNonEmptyGroups, final int maximalGroupSize) {
+		int[] groupOrdinalsSorted = new int[numberOfNonEmptyGroups];
+		int[] groupOrdinalsBuffer = new int[numberOfNonEmptyGroups];
+		for (int groupOrdinal = 0, index = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			if (groupSizes[groupOrdinal] > 0) {
+				groupOrdinalsSorted[index++] = groupOrdinal;
 			}
 		}
 
-		return numberOfElementsToGivenGroupKey;
+		final int[] bucketStarts = new int[RADIX_BUCKETS + 1];
+		for (int shift = 0; shift < Integer.SIZE && (maximalGroupSize >>> shift) > 0; shift += RADIX_BITS) {
+			Arrays.fill(bucketStarts, 0);
+			for (int groupOrdinal : groupOrdinalsSorted) {
+				bucketStarts[radixOf(maximalGroupSize - groupSizes[groupOrdinal], shift) + 1]++;
+			}
+			for (int bucket = 1; bucket <= RADIX_BUCKETS; bucket++) {
+				bucketStarts[bucket] += bucketStarts[bucket - 1];
+			}
+			for (int groupOrdinal : groupOrdinalsSorted) {
+				groupOrdinalsBuffer[bucketStarts[radixOf(maximalGroupSize - groupSizes[groupOrdinal], shift)]++] = groupOrdinal;
+			}
+
+			final int[] swap = groupOrdinalsSorted;
+			groupOrdinalsSorted = groupOrdinalsBuffer;
+			groupOrdinalsBuffer = swap;
+		}
+
+		return groupOrdinalsSorted;
+	}
+
+	private static int radixOf(final int key, final int shift) {
+		return (key >>> shift) & RADIX_MASK;
 	}
 }
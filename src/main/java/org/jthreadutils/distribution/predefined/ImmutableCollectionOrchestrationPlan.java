@@ -1,20 +1,53 @@
 package org.jthreadutils.distribution.predefined;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Map.Entry;
 
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
 import org.jthreadutils.distribution.collection.CollectionUtils;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
 
 /**
  * Please use this class only within
- * {@link DataOrchestratorBasedOnImmutableCollection}, which is thread-safe.
+ * {@link DataOrchestratorBasedOnImmutableCollection}.
+ * 
+ * Plan could be used by many workers at the same time without any external
+ * lock. Free groups are claimed from {@link FreeGroupQueue} with groups sorted
+ * by their size, every other state (groups assigned to worker and
+ * progress of those groups) is kept inside {@link WorkerSession} owning given
+ * group. The only requirement is that calls for the same session are not
+ * overlapping. Calls identified by {@link Thread} are served by session bound
+ * to given thread.
+ * 
+ * Positions of elements are stored in compact form: single array with
+ * positions inside original collection ordered by group and array of group
+ * offsets, where elements of group <code>g</code> are placed between
+ * <code>groupOffsets[g]</code> (inclusive) and <code>groupOffsets[g + 1]</code>
+ * (exclusive). Groups are identified by their ordinal (order of the first
+ * occurrence), which gives around 4 bytes per element for the whole plan.
+ * 
+ * Progress of every group is kept by its owner as cursor inside positions
+ * array pointing into the first element not handed out yet, so resuming processing of group
+ * doesn't depend on its size. Batch is collected as slices of positions array,
+ * which are either copied into list or returned as {@link Batch} view without
+ * copying any element.
+ * 
+ * Index-only plans, created via
+ * {@link DataOrchestratorBasedOnImmutableCollection#createKeyColumnPlan(long[])},
+ * {@link DataOrchestratorBasedOnImmutableCollection#createKeyColumnPlan(int[])}
+ * and
+ * {@link DataOrchestratorBasedOnImmutableCollection#createIndexPlan(int, java.util.function.IntFunction)},
+ * don't keep any data, they are used by callers keeping data in their own columns
+ * (struct of arrays), which request positions of elements via
+ * {@link #drainPositionsTo(WorkerSession, int[])}.
  * 
  * @param <T> type of data inside collection
  * @param <O> type of group id object
@@ -23,45 +56,62 @@ import com.google.common.collect.ArrayListMultimap;
  * @since 1.0.0
  * @version %I%, %G%
  */
-@NotThreadSafe
-public class ImmutableCollectionOrchestrationPlan<T, O> {
-	private final Collection<T> originalImmutableCollection;
-	private final ArrayListMultimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideCollection;
+@ThreadSafe
+public class ImmutableCollectionOrchestrationPlan<T, O> extends OrchestrationPlan<T, O> {
+	private final List<T> originalImmutableCollection;
+	private final int[] elementsPositionInsideCollectionSortedByGroup;
+	private final int[] groupOffsets;
+	private final GroupIdDictionary<O> groupIdDictionary;
 
-	private final Map<O, Integer> currentProcessingPositionWithinGroupKeyDataSet = new HashMap<>();
-	private final ArrayListMultimap<Thread, O> assignmentOfDataGroupIdToThread = ArrayListMultimap.create();
-	private final List<O> freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
+	private final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
 
 	/**
 	 * Please use builder {@link ImmutableCollectionOrchestrationPlanBuilder}
 	 * available also via {@link #builder(Collection)}, in order to create planner.
 	 * 
-	 * @param originalImmutableCollection                               data
-	 *                                                                  elements for
-	 *                                                                  which
-	 *                                                                  planner is
-	 *                                                                  created
-	 * @param mappingBetweenGroupKeyAndElementsPositionInsideCollection it is map
-	 *                                                                  between
-	 *                                                                  group key
-	 *                                                                  and position
-	 *                                                                  of elements
-	 *                                                                  inside data
-	 *                                                                  collection
-	 * @param freeGroupsToProcessSortedBasedOnBiggestNumberOfElements   list of
-	 *                                                                  available
-	 *                                                                  keys sorted
-	 *                                                                  based on
-	 *                                                                  number of
-	 *                                                                  elements
-	 *                                                                  inside data
-	 *                                                                  collection
+	 * @param originalImmutableCollection                            data elements
+	 *                                                               for which
+	 *                                                               planner is
+	 *                                                               created, with
+	 *                                                               random access
+	 *                                                               to elements
+	 * @param elementsPositionInsideCollectionSortedByGroup          positions of
+	 *                                                               elements
+	 *                                                               inside data
+	 *                                                               collection
+	 *                                                               ordered by
+	 *                                                               group ordinal
+	 * @param groupOffsets                                           offsets of
+	 *                                                               every group
+	 *                                                               inside
+	 *                                                               positions
+	 *                                                               array, the
+	 *                                                               last one is
+	 *                                                               equal to
+	 *                                                               number of
+	 *                                                               positions
+	 * @param groupIdDictionary                                      dictionary
+	 *                                                               of group ids
+	 *                                                               by their
+	 *                                                               ordinals
+	 * @param freeGroupsToProcessSortedBasedOnBiggestNumberOfElements queue of
+	 *                                                               available
+	 *                                                               group
+	 *                                                               ordinals
+	 *                                                               sorted based
+	 *                                                               on number of
+	 *                                                               elements
+	 *                                                               inside data
+	 *                                                               collection
 	 */
-	private ImmutableCollectionOrchestrationPlan(final Collection<T> originalImmutableCollection,
-			final ArrayListMultimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideCollection,
-			final List<O> freeGroupsToProcessSortedBasedOnBiggestNumberOfElements) {
+	private ImmutableCollectionOrchestrationPlan(final List<T> originalImmutableCollection,
+			final int[] elementsPositionInsideCollectionSortedByGroup, final int[] groupOffsets,
+			final GroupIdDictionary<O> groupIdDictionary,
+			final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements) {
 		this.originalImmutableCollection = originalImmutableCollection;
-		this.mappingBetweenGroupKeyAndElementsPositionInsideCollection = mappingBetweenGroupKeyAndElementsPositionInsideCollection;
+		this.elementsPositionInsideCollectionSortedByGroup = elementsPositionInsideCollectionSortedByGroup;
+		this.groupOffsets = groupOffsets;
+		this.groupIdDictionary = groupIdDictionary;
 		this.freeGroupsToProcessSortedBasedOnBiggestNumberOfElements = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
 	}
 
@@ -78,125 +128,350 @@ public class ImmutableCollectionOrchestrationPlan<T, O> {
 		return new ImmutableCollectionOrchestrationPlanBuilder<T, O>(originalImmutableCollection);
 	}
 
-	protected Collection<T> poolNextBatchOfData(final Thread currentThread, final int batchSize) {
-		final List<T> nextBatchOfData = new ArrayList<>();
+	@Override
+	public int getNumberOfGroups() {
+		return groupOffsets.length - 1;
+	}
 
-		if (assignmentOfDataGroupIdToThread.containsKey(currentThread)) {
-			removeFullyProcessedGroupIdsFor(currentThread);
-			nextBatchOfData.addAll(loadDataFromStillNotFullyProcessedGroups(currentThread, batchSize));
-		}
+	@Override
+	public O getGroupId(final int groupOrdinal) {
+		return groupIdDictionary.groupIdOf(groupOrdinal);
+	}
 
-		final int dataRemainingToCollect = batchSize - nextBatchOfData.size();
-		if (dataRemainingToCollect > 0) {
-			if (!freeGroupsToProcessSortedBasedOnBiggestNumberOfElements.isEmpty()) {
-				nextBatchOfData.addAll(loadGroupsDataNotProcessedYetFor(currentThread, dataRemainingToCollect));
-			}
+	@Override
+	public int getGroupSize(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= getNumberOfGroups()) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + getNumberOfGroups() + ")");
 		}
 
-		return nextBatchOfData;
+		return groupOffsets[groupOrdinal + 1] - groupOffsets[groupOrdinal];
 	}
 
-	private void removeFullyProcessedGroupIdsFor(final Thread currentThread) {
-		final List<O> groupsFullyProcessed = new ArrayList<>();
-		for (O groupId : assignmentOfDataGroupIdToThread.get(currentThread)) {
-			if (currentProcessingPositionWithinGroupKeyDataSet.get(groupId)
-					.equals(getLastElementPositionInCollectionForGivenGroupId(groupId))) {
-				groupsFullyProcessed.add(groupId);
-			}
+	@Override
+	protected Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize) {
+		final BatchSlices batchSlices = collectNextBatchSlices(workerSession, batchSize);
+		final List<T> nextBatchOfData = new ArrayList<>(batchSlices.size());
+		for (int slice = 0; slice < batchSlices.getNumberOfSlices(); slice++) {
+			CollectionUtils.addElementsByIndexes(originalImmutableCollection,
+					elementsPositionInsideCollectionSortedByGroup, batchSlices.getSliceFromIndex(slice),
+					batchSlices.getSliceToIndex(slice), nextBatchOfData);
 		}
 
-		groupsFullyProcessed.forEach(e -> {
-			currentProcessingPositionWithinGroupKeyDataSet.remove(e);
-			assignmentOfDataGroupIdToThread.remove(currentThread, e);
-		});
+		return nextBatchOfData;
 	}
 
-	private Integer getLastElementPositionInCollectionForGivenGroupId(final O groupId) {
-		List<Integer> values = mappingBetweenGroupKeyAndElementsPositionInsideCollection.get(groupId);
-		return values.isEmpty() ? null : values.get(values.size() - 1);
+	@Override
+	protected Batch<T> poolNextBatch(final WorkerSession<T, O> workerSession, final int batchSize) {
+		return collectNextBatchSlices(workerSession, batchSize).toBatch(originalImmutableCollection,
+				elementsPositionInsideCollectionSortedByGroup);
 	}
 
-	private List<T> loadDataFromStillNotFullyProcessedGroups(final Thread currentThread, final int batchSize) {
-		final List<T> dataRemainingForGroupsAssignedForGivenThread = new ArrayList<>();
+	@Override
+	protected GroupedBatch<T, O> poolNextGroupedBatch(final WorkerSession<T, O> workerSession, final int batchSize) {
+		return collectNextBatchSlices(workerSession, batchSize).toGroupedBatch(this, originalImmutableCollection,
+				elementsPositionInsideCollectionSortedByGroup);
+	}
 
-		final List<O> dataGroupIdsAssignedToThread = assignmentOfDataGroupIdToThread.get(currentThread);
-		for (int groupIndex = 0; dataRemainingForGroupsAssignedForGivenThread.size() < batchSize
-				&& groupIndex < dataGroupIdsAssignedToThread.size(); groupIndex++) {
-			final O groupId = dataGroupIdsAssignedToThread.get(groupIndex);
-			dataRemainingForGroupsAssignedForGivenThread.addAll(loadRemainingDataFromGivenGroupForThread(currentThread,
-					batchSize - dataRemainingForGroupsAssignedForGivenThread.size(), groupId));
+	@Override
+	protected int drainNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize,
+			final Collection<? super T> target) {
+		final BatchSlices batchSlices = collectNextBatchSlices(workerSession, batchSize);
+		for (int slice = 0; slice < batchSlices.getNumberOfSlices(); slice++) {
+			CollectionUtils.addElementsByIndexes(originalImmutableCollection,
+					elementsPositionInsideCollectionSortedByGroup, batchSlices.getSliceFromIndex(slice),
+					batchSlices.getSliceToIndex(slice), target);
 		}
 
-		return dataRemainingForGroupsAssignedForGivenThread;
+		return batchSlices.size();
 	}
 
-	private List<T> loadGroupsDataNotProcessedYetFor(final Thread currentThread, final int freeSlotInCurrentBatch) {
-		final List<T> dataToProcess = new ArrayList<>();
-
-		while (!freeGroupsToProcessSortedBasedOnBiggestNumberOfElements.isEmpty()
-				&& dataToProcess.size() < freeSlotInCurrentBatch) {
-			final O groupId = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements.remove(0);
-			dataToProcess.addAll(loadRemainingDataFromGivenGroupForThread(currentThread,
-					freeSlotInCurrentBatch - dataToProcess.size(), groupId));
-			assignmentOfDataGroupIdToThread.put(currentThread, groupId);
+	@Override
+	protected int drainNextBatchOfData(final WorkerSession<T, O> workerSession, final T[] buffer) {
+		final BatchSlices batchSlices = collectNextBatchSlices(workerSession, buffer.length);
+		int bufferIndex = 0;
+		for (int slice = 0; slice < batchSlices.getNumberOfSlices(); slice++) {
+			final int sliceToIndex = batchSlices.getSliceToIndex(slice);
+			for (int index = batchSlices.getSliceFromIndex(slice); index < sliceToIndex; index++) {
+				buffer[bufferIndex++] = originalImmutableCollection
+						.get(elementsPositionInsideCollectionSortedByGroup[index]);
+			}
 		}
 
-		return dataToProcess;
+		return bufferIndex;
 	}
 
-	private List<T> loadRemainingDataFromGivenGroupForThread(final Thread currentThread, final int remainingSize,
-			final O groupId) {
-		final List<Integer> groupElementPositionToProcessWithinOriginalCollection = findDataIndexesNotProcessedForGivenGroup(
-				groupId, remainingSize);
-		final List<T> dataToProcessForGivenGroup = CollectionUtils
-				.getElementsByIndexes(originalImmutableCollection, groupElementPositionToProcessWithinOriginalCollection);
-		if (!groupElementPositionToProcessWithinOriginalCollection.isEmpty()) {
-			currentProcessingPositionWithinGroupKeyDataSet.put(groupId, groupElementPositionToProcessWithinOriginalCollection
-					.get(groupElementPositionToProcessWithinOriginalCollection.size() - 1));
+	/**
+	 * Writes positions inside original collection of the next batch of elements
+	 * for given session into given buffer, starting from its first slot. Elements
+	 * themselves are not touched, so it is the main way of consuming index-only
+	 * plans, but it could be used for any plan of this type. Plan doesn't need any
+	 * external lock, but calls for the same session shouldn't overlap.
+	 * 
+	 * @param workerSession session obtained via {@link #openSession()}
+	 * @param buffer        buffer with length greater than 0, which is used as
+	 *                      batch size, slots after the last written position are
+	 *                      not modified
+	 * @return number of written positions, <code>0</code> in case no data is
+	 *         available for given session
+	 * 
+	 * @since 1.0.0
+	 */
+	public int drainPositionsTo(final WorkerSession<T, O> workerSession, final int[] buffer) {
+		if (buffer.length <= 0) {
+			throw new IllegalArgumentException(
+					"Buffer length parameter should be greater than 0, currently it is " + buffer.length);
+		}
+
+		final BatchSlices batchSlices = collectNextBatchSlices(workerSession, buffer.length);
+		int bufferIndex = 0;
+		for (int slice = 0; slice < batchSlices.getNumberOfSlices(); slice++) {
+			final int sliceFromIndex = batchSlices.getSliceFromIndex(slice);
+			final int sliceSize = batchSlices.getSliceToIndex(slice) - sliceFromIndex;
+			System.arraycopy(elementsPositionInsideCollectionSortedByGroup, sliceFromIndex, buffer, bufferIndex,
+					sliceSize);
+			bufferIndex += sliceSize;
 		}
 
-		return dataToProcessForGivenGroup;
+		return bufferIndex;
 	}
 
-	private List<Integer> findDataIndexesNotProcessedForGivenGroup(final O groupId, final long dataRemainingToCollect) {
-		final List<Integer> elementPositionInsideOriginalCollection = new ArrayList<>();
+	private BatchSlices collectNextBatchSlices(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateSessionOwnership(workerSession);
 
-		final Integer currentIndexOfElementInOriginalCollection = currentProcessingPositionWithinGroupKeyDataSet
-				.getOrDefault(groupId, -1);
-		final List<Integer> positionsOfElementWithinOriginalCollectionForGroup = mappingBetweenGroupKeyAndElementsPositionInsideCollection
-				.get(groupId);
+		final BatchSlices batchSlices = workerSession.clearedBatchSlices();
 
-		for (int index = positionsOfElementWithinOriginalCollectionForGroup
-				.lastIndexOf(currentIndexOfElementInOriginalCollection)
-				+ 1; index < positionsOfElementWithinOriginalCollectionForGroup.size()
-						&& elementPositionInsideOriginalCollection.size() < dataRemainingToCollect; index++) {
-			elementPositionInsideOriginalCollection.add(positionsOfElementWithinOriginalCollectionForGroup.get(index));
+		if (workerSession.getNumberOfAssignedGroups() > 0) {
+			workerSession.removeFullyProcessedGroups(groupOffsets);
+			loadDataFromStillNotFullyProcessedGroups(workerSession, batchSize, batchSlices);
+		}
+
+		if (batchSlices.size() < batchSize) {
+			if (!freeGroupsToProcessSortedBasedOnBiggestNumberOfElements.isEmpty()) {
+				loadGroupsDataNotProcessedYetFor(workerSession, batchSize, batchSlices);
+			}
 		}
 
-		return elementPositionInsideOriginalCollection;
+		return batchSlices;
+	}
+
+	private void loadDataFromStillNotFullyProcessedGroups(final WorkerSession<T, O> workerSession,
+			final int batchSize, final BatchSlices batchSlices) {
+		for (int assignmentIndex = 0; batchSlices.size() < batchSize
+				&& assignmentIndex < workerSession.getNumberOfAssignedGroups(); assignmentIndex++) {
+			loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - batchSlices.size(),
+					batchSlices);
+		}
+	}
+
+	private void loadGroupsDataNotProcessedYetFor(final WorkerSession<T, O> workerSession, final int batchSize,
+			final BatchSlices batchSlices) {
+		int groupOrdinal;
+		while (batchSlices.size() < batchSize && (groupOrdinal = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements
+				.claim()) != FreeGroupQueue.NO_FREE_GROUP) {
+			final int assignmentIndex = workerSession.assignGroup(groupOrdinal, groupOffsets[groupOrdinal]);
+			loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - batchSlices.size(),
+					batchSlices);
+		}
+	}
+
+	private void loadRemainingDataFromGivenGroup(final WorkerSession<T, O> workerSession, final int assignmentIndex,
+			final int remainingSize, final BatchSlices batchSlices) {
+		final int groupOrdinal = workerSession.getAssignedGroupOrdinal(assignmentIndex);
+		final int firstIndexToProcess = workerSession.getAssignedGroupCursor(assignmentIndex);
+		final int groupEnd = groupOffsets[groupOrdinal + 1];
+		// remaining size could be as big as Integer.MAX_VALUE, so it is not added to
+		// cursor before being limited by end of group
+		final int lastIndexToProcess = firstIndexToProcess + Math.min(remainingSize, groupEnd - firstIndexToProcess);
+		if (firstIndexToProcess < lastIndexToProcess) {
+			batchSlices.add(groupOrdinal, firstIndexToProcess, lastIndexToProcess, lastIndexToProcess == groupEnd);
+			workerSession.setAssignedGroupCursor(assignmentIndex, lastIndexToProcess);
+		}
 	}
 
 	protected static class ImmutableCollectionOrchestrationPlanBuilder<T, O> {
-		private final Collection<T> originalImmutableCollection;
-		private final ArrayListMultimap<O, Integer> mappingBetweenGroupKeyAndElementsPositionInsideCollection = ArrayListMultimap
-				.create();
+		private static final int MINIMAL_CAPACITY = 16;
+
+		private final List<T> originalImmutableCollection;
+		private GroupIdDictionary<O> groupIdDictionary;
 		private final ImmutableCollectionOrchestrationHelper<O> orchestrationHelper = new ImmutableCollectionOrchestrationHelper<>();
+		private int[] groupSizes = new int[MINIMAL_CAPACITY];
+		private int[] elementPositions;
+		private int[] elementGroupOrdinals;
+		private int numberOfAssignments;
 
 		private ImmutableCollectionOrchestrationPlanBuilder(final Collection<T> originalImmutableCollection) {
-			this.originalImmutableCollection = originalImmutableCollection;
+			this.originalImmutableCollection = CollectionUtils.asRandomAccessList(originalImmutableCollection);
+			final int initialCapacity = Math.max(MINIMAL_CAPACITY, originalImmutableCollection.size());
+			this.elementPositions = new int[initialCapacity];
+			this.elementGroupOrdinals = new int[initialCapacity];
 		}
 
 		public ImmutableCollectionOrchestrationPlanBuilder<T, O> putElementGroupIdAssignment(final int elementIndex,
 				final O groupId) {
-			mappingBetweenGroupKeyAndElementsPositionInsideCollection.put(groupId, elementIndex);
+			putElementGroupOrdinalAssignment(elementIndex, groupOrdinalFor(groupId));
+			return this;
+		}
+
+		/**
+		 * Primitive version of {@link #putElementGroupIdAssignment(int, Object)} used
+		 * for group ids provided by {@link LongDataGroupIdExtractor}, it doesn't
+		 * allocate any object. Builder which received primitive group ids accepts
+		 * also boxed ones, but not the other way round.
+		 * 
+		 * @param elementIndex position of element inside data collection
+		 * @param groupId      numeric group id of element
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public ImmutableCollectionOrchestrationPlanBuilder<T, O> putElementLongGroupIdAssignment(
+				final int elementIndex, final long groupId) {
+			putElementGroupOrdinalAssignment(elementIndex, primitiveGroupIdDictionary(false, groupId).ordinalOf(groupId));
+			return this;
+		}
+
+		/**
+		 * Primitive version of {@link #putElementGroupIdAssignment(int, Object)} used
+		 * for group ids provided by {@link IntDataGroupIdExtractor}, it doesn't
+		 * allocate any object.
+		 * 
+		 * @see #putElementLongGroupIdAssignment(int, long)
+		 * @param elementIndex position of element inside data collection
+		 * @param groupId      numeric group id of element
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public ImmutableCollectionOrchestrationPlanBuilder<T, O> putElementIntGroupIdAssignment(
+				final int elementIndex, final int groupId) {
+			putElementGroupOrdinalAssignment(elementIndex, primitiveGroupIdDictionary(true, groupId).ordinalOf(groupId));
+			return this;
+		}
+
+		/**
+		 * Version of {@link #putElementGroupIdAssignment(int, Object)} used for
+		 * group ids described by {@link CompositeDataGroupIdExtractor}, element is
+		 * assigned to group based on hash of its fields, which is verified by
+		 * comparing fields with the first element of group. Doesn't allocate any
+		 * object. Single builder should receive composite group ids only from the
+		 * same extractor.
+		 * 
+		 * @param elementIndex     position of element inside data collection
+		 * @param groupIdHash      hash of element calculated by
+		 *                         {@link CompositeDataGroupIdExtractor#extractGroupIdHash(Object)}
+		 * @param groupIdExtractor extractor which calculated hash
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		@SuppressWarnings("unchecked")
+		public ImmutableCollectionOrchestrationPlanBuilder<T, O> putElementCompositeGroupIdAssignment(
+				final int elementIndex, final long groupIdHash, final CompositeDataGroupIdExtractor<T> groupIdExtractor) {
+			if (groupIdDictionary == null) {
+				groupIdDictionary = (GroupIdDictionary<O>) new CompositeGroupIdDictionary<>(groupIdExtractor);
+			}
+
+			if (!(groupIdDictionary instanceof CompositeGroupIdDictionary)) {
+				throw new IllegalStateException("Builder already contains group ids of other type, composite group id "
+						+ "can't be mixed with them");
+			}
+
+			putElementGroupOrdinalAssignment(elementIndex,
+					((CompositeGroupIdDictionary<T>) groupIdDictionary)
+							.ordinalOf(originalImmutableCollection.get(elementIndex), groupIdHash));
+			return this;
+		}
+
+		/**
+		 * Appends all assignments from given mapping, positions of elements within
+		 * every group are added after already existing ones.
+		 * 
+		 * @param mappingBetweenGroupKeyAndElementsPosition mapping between group key
+		 *                                                  and position of elements
+		 *                                                  inside data collection
+		 * @return this builder
+		 * 
+		 * @since 1.0.0
+		 */
+		public ImmutableCollectionOrchestrationPlanBuilder<T, O> putElementsGroupIdAssignment(
+				final Multimap<O, Integer> mappingBetweenGroupKeyAndElementsPosition) {
+			for (Entry<O, Collection<Integer>> groupAssignment : mappingBetweenGroupKeyAndElementsPosition.asMap()
+					.entrySet()) {
+				final int groupOrdinal = groupOrdinalFor(groupAssignment.getKey());
+				for (Integer elementIndex : groupAssignment.getValue()) {
+					putElementGroupOrdinalAssignment(elementIndex, groupOrdinal);
+				}
+			}
 			return this;
 		}
 
 		public ImmutableCollectionOrchestrationPlan<T, O> build() {
-			return new ImmutableCollectionOrchestrationPlan<T, O>(originalImmutableCollection,
-					mappingBetweenGroupKeyAndElementsPositionInsideCollection,
-					orchestrationHelper.createListWithGroupsSortedBasedOnBiggestNumberOfElements(
-							mappingBetweenGroupKeyAndElementsPositionInsideCollection));
+			if (groupIdDictionary == null) {
+				groupIdDictionary = new HashGroupIdDictionary<>();
+			}
+			final int numberOfGroups = groupIdDictionary.size();
+			final int[] groupOffsets = new int[numberOfGroups + 1];
+			for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+				groupOffsets[groupOrdinal + 1] = groupOffsets[groupOrdinal] + groupSizes[groupOrdinal];
+			}
+
+			final int[] elementsPositionInsideCollectionSortedByGroup = new int[numberOfAssignments];
+			final int[] nextFreeSlotForGroup = Arrays.copyOf(groupOffsets, numberOfGroups);
+			for (int assignment = 0; assignment < numberOfAssignments; assignment++) {
+				elementsPositionInsideCollectionSortedByGroup[nextFreeSlotForGroup[elementGroupOrdinals[assignment]]++] = elementPositions[assignment];
+			}
+
+			return new ImmutableCollectionOrchestrationPlan<T, O>(
+					originalImmutableCollection,
+					elementsPositionInsideCollectionSortedByGroup, groupOffsets, groupIdDictionary,
+					new FreeGroupQueue(orchestrationHelper
+							.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizes, numberOfGroups)));
+		}
+
+		private int groupOrdinalFor(final O groupId) {
+			if (groupIdDictionary == null) {
+				groupIdDictionary = new HashGroupIdDictionary<>();
+			}
+
+			if (!(groupIdDictionary instanceof InterningGroupIdDictionary)) {
+				throw new IllegalStateException("Builder already contains composite group ids, group id " + groupId
+						+ " can't be mixed with them");
+			}
+
+			return ((InterningGroupIdDictionary<O>) groupIdDictionary).ordinalOf(groupId);
+		}
+
+		@SuppressWarnings("unchecked")
+		private LongGroupOrdinalDictionary<O> primitiveGroupIdDictionary(final boolean intGroupIds,
+				final long groupId) {
+			if (groupIdDictionary == null) {
+				groupIdDictionary = new LongGroupOrdinalDictionary<>(intGroupIds);
+			}
+
+			if (!(groupIdDictionary instanceof LongGroupOrdinalDictionary)
+					|| ((LongGroupOrdinalDictionary<O>) groupIdDictionary).isIntGroupIds() != intGroupIds) {
+				throw new IllegalStateException("Builder already contains group ids of other type, primitive group id "
+						+ groupId + " can't be mixed with them");
+			}
+
+			return (LongGroupOrdinalDictionary<O>) groupIdDictionary;
+		}
+
+		private void putElementGroupOrdinalAssignment(final int elementIndex, final int groupOrdinal) {
+			if (numberOfAssignments == elementPositions.length) {
+				elementPositions = Arrays.copyOf(elementPositions, elementPositions.length << 1);
+				elementGroupOrdinals = Arrays.copyOf(elementGroupOrdinals, elementGroupOrdinals.length << 1);
+			}
+
+			if (groupOrdinal == groupSizes.length) {
+				groupSizes = Arrays.copyOf(groupSizes, groupSizes.length << 1);
+			}
+
+			elementPositions[numberOfAssignments] = elementIndex;
+			elementGroupOrdinals[numberOfAssignments] = groupOrdinal;
+			numberOfAssignments++;
+			groupSizes[groupOrdinal]++;
 		}
 	}
 }
@@ -0,0 +1,42 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * List of consecutive indexes from <code>0</code> (inclusive) to its size
+ * (exclusive), which doesn't keep any element. Used as data of index-only
+ * plans, where caller keeps its data in own columns.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+class IndexList extends AbstractList<Integer> implements RandomAccess {
+	private final int size;
+
+	IndexList(final int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size parameter should be greater or equal 0, currently it is " + size);
+		}
+
+		this.size = size;
+	}
+
+	@Override
+	public Integer get(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of range [0, " + size + ")");
+		}
+
+		return index;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,32 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Describes what is known about order of data appended into
+ * {@link AppendableOrchestrationPlan}, it decides when group could be handed
+ * out to workers.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+public enum InputGrouping {
+	/**
+	 * Elements of the same group might appear anywhere in input. Group becomes
+	 * available for workers as soon as its first element is appended, elements
+	 * appended later are handed out to the same or next owner of group.
+	 *
+	 * @since 1.0.0
+	 */
+	UNGROUPED,
+	/**
+	 * Input is sorted or partitioned by group id, so all elements of group are
+	 * appended one after another. Group is complete once element of the next
+	 * group is appended or plan is sealed, only complete groups are handed out
+	 * to workers, so every group is processed by single worker in one go.
+	 * Appending element of group which was already complete fails with
+	 * {@link IllegalStateException}.
+	 *
+	 * @since 1.0.0
+	 */
+	GROUPED_BY_KEY
+}
@@ -0,0 +1,20 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Array of <code>int</code> values indexed by <code>long</code>, used by
+ * plans which could be bigger than {@link Integer#MAX_VALUE} elements.
+ *
+ * @see IntBigArray
+ * @see OffHeapIntArray
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+interface IntArray {
+
+	int get(final long index);
+
+	void set(final long index, final int value);
+
+	long size();
+}
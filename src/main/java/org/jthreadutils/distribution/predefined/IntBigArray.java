@@ -0,0 +1,58 @@
+package org.jthreadutils.distribution.predefined;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Array of <code>int</code> values indexed by <code>long</code>, values are
+ * kept in chunks of fixed size, so array could be bigger than
+ * {@link Integer#MAX_VALUE} and its memory grows linearly with its size.
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class IntBigArray implements IntArray {
+	static final int DEFAULT_CHUNK_SHIFT = 20;
+
+	private final int[][] chunks;
+	private final int chunkShift;
+	private final long chunkMask;
+	private final long size;
+
+	/**
+	 * @param size number of values, all values are initially <code>0</code>
+	 */
+	IntBigArray(final long size) {
+		this(size, DEFAULT_CHUNK_SHIFT);
+	}
+
+	IntBigArray(final long size, final int chunkShift) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size parameter should be greater or equal 0, currently it is " + size);
+		}
+
+		this.chunkShift = chunkShift;
+		this.chunkMask = (1L << chunkShift) - 1;
+		this.size = size;
+		this.chunks = new int[Math.toIntExact((size + chunkMask) >>> chunkShift)][];
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			chunks[chunkIndex] = new int[(int) Math.min(1L << chunkShift, size - ((long) chunkIndex << chunkShift))];
+		}
+	}
+
+	@Override
+	public int get(final long index) {
+		return chunks[(int) (index >>> chunkShift)][(int) (index & chunkMask)];
+	}
+
+	@Override
+	public void set(final long index, final int value) {
+		chunks[(int) (index >>> chunkShift)][(int) (index & chunkMask)] = value;
+	}
+
+	@Override
+	public long size() {
+		return size;
+	}
+}
@@ -0,0 +1,24 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * {@link GroupIdDictionary} which interns group ids looked up by group id
+ * object, used by plans for group ids extracted as objects or as primitive
+ * values.
+ * 
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+interface InterningGroupIdDictionary<O> extends GroupIdDictionary<O> {
+
+	/**
+	 * @param groupId group id to find
+	 * @return ordinal of given group id, new ordinal is assigned in case group id
+	 *         was not seen before
+	 * 
+	 * @since 1.0.0
+	 */
+	int ordinalOf(final O groupId);
+}
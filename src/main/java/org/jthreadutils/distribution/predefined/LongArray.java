@@ -0,0 +1,20 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Array of <code>long</code> values indexed by <code>long</code>, used by
+ * plans which could be bigger than {@link Integer#MAX_VALUE} elements.
+ *
+ * @see LongBigArray
+ * @see OffHeapLongArray
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+interface LongArray {
+
+	long get(final long index);
+
+	void set(final long index, final long value);
+
+	long size();
+}
@@ -0,0 +1,96 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+
+/**
+ * Fork/join task used by {@link DataOrchestratorBasedOnImmutableCollection} in
+ * order to extract primitive group ids for <i>random access</i> data in
+ * parallel. Range of elements is split in halves until it fits into single
+ * chunk, every chunk writes group ids of its elements into shared array at
+ * positions of those elements, so chunks never touch the same part of array.
+ * Group ids of chunk are extracted by single call of bulk method of extractor.
+ * 
+ * Group ids are assigned to groups afterwards by single thread in order of
+ * elements, which gives the same plan as sequential creation.
+ * 
+ * @param <T> type of data inside collection
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+class LongGroupIdExtractionTask<T> extends RecursiveAction {
+	private static final long serialVersionUID = 1L;
+
+	private final List<T> data;
+	private final LongDataGroupIdExtractor<T> longGroupIdExtractor;
+	private final IntDataGroupIdExtractor<T> intGroupIdExtractor;
+	private final long[] groupIdOfElement;
+	private final int fromIndex;
+	private final int toIndex;
+	private final int chunkSize;
+
+	/**
+	 * @param data                 random access data for which group ids should be
+	 *                             extracted
+	 * @param longGroupIdExtractor extractor used for get <code>groupId</code> for
+	 *                             given element, <code>null</code> in case
+	 *                             <code>intGroupIdExtractor</code> is used
+	 * @param intGroupIdExtractor  extractor used for get <code>groupId</code> for
+	 *                             given element, <code>null</code> in case
+	 *                             <code>longGroupIdExtractor</code> is used
+	 * @param groupIdOfElement     array, where group id of every element is
+	 *                             stored at position of element
+	 * @param fromIndex            index of the first element to process
+	 *                             (inclusive)
+	 * @param toIndex              index of the last element to process
+	 *                             (exclusive)
+	 * @param chunkSize            maximum number of elements processed by single
+	 *                             task without further split
+	 */
+	LongGroupIdExtractionTask(final List<T> data, final LongDataGroupIdExtractor<T> longGroupIdExtractor,
+			final IntDataGroupIdExtractor<T> intGroupIdExtractor, final long[] groupIdOfElement,
+			final int fromIndex, final int toIndex, final int chunkSize) {
+		this.data = data;
+		this.longGroupIdExtractor = longGroupIdExtractor;
+		this.intGroupIdExtractor = intGroupIdExtractor;
+		this.groupIdOfElement = groupIdOfElement;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	protected void compute() {
+		if (toIndex - fromIndex <= chunkSize) {
+			extractGroupIdsForChunk();
+			return;
+		}
+
+		final int middleIndex = (fromIndex + toIndex) >>> 1;
+		final LongGroupIdExtractionTask<T> firstHalf = new LongGroupIdExtractionTask<>(data, longGroupIdExtractor,
+				intGroupIdExtractor, groupIdOfElement, fromIndex, middleIndex, chunkSize);
+		final LongGroupIdExtractionTask<T> secondHalf = new LongGroupIdExtractionTask<>(data, longGroupIdExtractor,
+				intGroupIdExtractor, groupIdOfElement, middleIndex, toIndex, chunkSize);
+		invokeAll(firstHalf, secondHalf);
+	}
+
+	private void extractGroupIdsForChunk() {
+		final List<T> chunk = data.subList(fromIndex, toIndex);
+		if (longGroupIdExtractor != null) {
+			final long[] groupIds = new long[chunk.size()];
+			longGroupIdExtractor.extractLongGroupIds(chunk, groupIds);
+			System.arraycopy(groupIds, 0, groupIdOfElement, fromIndex, groupIds.length);
+		} else {
+			final int[] groupIds = new int[chunk.size()];
+			intGroupIdExtractor.extractIntGroupIds(chunk, groupIds);
+			for (int index = 0; index < groupIds.length; index++) {
+				groupIdOfElement[fromIndex + index] = groupIds[index];
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Dictionary which assigns dense ordinals to primitive group ids in order of
+ * their first occurrence. Group ids are kept inside open-addressing hash table
+ * with linear probing, so neither lookup nor insertion allocates any object.
+ * 
+ * Slots of table keep <code>ordinal + 1</code>, which allows to use
+ * <code>0</code> as marker of empty slot without reserving any group id value.
+ * 
+ * Group ids are boxed only when they are requested as objects, in order to
+ * match type used by extractor they are boxed into {@link Integer} or
+ * {@link Long}.
+ * 
+ * @param <O> type of group id object, {@link Integer} or {@link Long}
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class LongGroupOrdinalDictionary<O> implements InterningGroupIdDictionary<O> {
+	private static final int MINIMAL_CAPACITY = 16;
+
+	private final boolean intGroupIds;
+	private long[] groupIdOfSlot;
+	private int[] groupOrdinalOfSlotIncreasedByOne;
+	private long[] groupIdOfOrdinal;
+	private int numberOfGroups;
+
+	/**
+	 * @param intGroupIds <code>true</code> in case group ids are provided as
+	 *                    <code>int</code> values and should be reported as
+	 *                    {@link Integer}, otherwise they are reported as
+	 *                    {@link Long}
+	 */
+	LongGroupOrdinalDictionary(final boolean intGroupIds) {
+		this.intGroupIds = intGroupIds;
+		this.groupIdOfSlot = new long[MINIMAL_CAPACITY];
+		this.groupOrdinalOfSlotIncreasedByOne = new int[MINIMAL_CAPACITY];
+		this.groupIdOfOrdinal = new long[MINIMAL_CAPACITY];
+	}
+
+	/**
+	 * @param groupId group id to find
+	 * @return ordinal of given group id, new ordinal is assigned in case group id
+	 *         was not seen before
+	 * 
+	 * @since 1.0.0
+	 */
+	int ordinalOf(final long groupId) {
+		final int mask = groupIdOfSlot.length - 1;
+		int slot = mix(groupId) & mask;
+		while (groupOrdinalOfSlotIncreasedByOne[slot] != 0) {
+			if (groupIdOfSlot[slot] == groupId) {
+				return groupOrdinalOfSlotIncreasedByOne[slot] - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		final int groupOrdinal = numberOfGroups++;
+		groupIdOfSlot[slot] = groupId;
+		groupOrdinalOfSlotIncreasedByOne[slot] = groupOrdinal + 1;
+		if (groupOrdinal == groupIdOfOrdinal.length) {
+			groupIdOfOrdinal = Arrays.copyOf(groupIdOfOrdinal, groupIdOfOrdinal.length << 1);
+		}
+		groupIdOfOrdinal[groupOrdinal] = groupId;
+
+		if (numberOfGroups << 1 > groupIdOfSlot.length) {
+			rehash(groupIdOfSlot.length << 1);
+		}
+
+		return groupOrdinal;
+	}
+
+	@Override
+	public int ordinalOf(final O groupId) {
+		return ordinalOf(((Number) groupId).longValue());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public O groupIdOf(final int groupOrdinal) {
+		final long groupId = longGroupIdOf(groupOrdinal);
+		return (O) (intGroupIds ? (Object) Integer.valueOf((int) groupId) : (Object) Long.valueOf(groupId));
+	}
+
+	/**
+	 * @param groupOrdinal ordinal assigned by {@link #ordinalOf(long)}
+	 * @return group id with given ordinal
+	 * 
+	 * @since 1.0.0
+	 */
+	long longGroupIdOf(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= numberOfGroups) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + numberOfGroups + ")");
+		}
+
+		return groupIdOfOrdinal[groupOrdinal];
+	}
+
+	/**
+	 * @return <code>true</code> in case group ids are reported as {@link Integer}
+	 * 
+	 * @since 1.0.0
+	 */
+	boolean isIntGroupIds() {
+		return intGroupIds;
+	}
+
+	@Override
+	public int size() {
+		return numberOfGroups;
+	}
+
+	private void rehash(final int newCapacity) {
+		final int mask = newCapacity - 1;
+		final long[] newGroupIdOfSlot = new long[newCapacity];
+		final int[] newGroupOrdinalOfSlotIncreasedByOne = new int[newCapacity];
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			final long groupId = groupIdOfOrdinal[groupOrdinal];
+			int slot = mix(groupId) & mask;
+			while (newGroupOrdinalOfSlotIncreasedByOne[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			newGroupIdOfSlot[slot] = groupId;
+			newGroupOrdinalOfSlotIncreasedByOne[slot] = groupOrdinal + 1;
+		}
+
+		this.groupIdOfSlot = newGroupIdOfSlot;
+		this.groupOrdinalOfSlotIncreasedByOne = newGroupOrdinalOfSlotIncreasedByOne;
+	}
+
+	private static int mix(final long groupId) {
+		// finalizer of MurmurHash3, sequential ids would fill neighbour slots otherwise
+		long hash = groupId;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return (int) hash;
+	}
+}
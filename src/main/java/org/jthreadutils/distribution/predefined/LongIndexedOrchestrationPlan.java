@@ -0,0 +1,300 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.collection.LongIndexedData;
+
+/**
+ * Plan over {@link LongIndexedData}, which could contain more than
+ * {@link Integer#MAX_VALUE} elements, created via
+ * {@link DataOrchestratorBasedOnImmutableCollection#createLongIndexedPlan(LongIndexedData)}.
+ *
+ * Layout is the same as of {@link ImmutableCollectionOrchestrationPlan}, but
+ * positions of elements ordered by group are <code>long</code> values kept in
+ * chunked array, so plan takes around 8 bytes per element and its memory
+ * grows linearly with number of elements. During creation additional 4 bytes
+ * per element are used for group ordinals of elements. Number of groups is
+ * still limited to {@link Integer#MAX_VALUE}.
+ *
+ * Free groups are claimed from {@link FreeGroupQueue} starting from the
+ * biggest one, groups bigger than {@link Integer#MAX_VALUE} elements are
+ * claimed in order of their first occurrence before all smaller groups.
+ *
+ * Position index and group offsets could be kept outside of Java heap, as
+ * described by {@link PlanIndexStorage}, together with group ordinals of
+ * elements used during creation. Only structures with single entry per group
+ * (order of claiming and group ids) are kept on heap. Memory outside of heap
+ * is released by {@link #close()}, which should be called once all workers
+ * finished, since plan can't be used afterwards. Reads of index hold read lock
+ * of plan, so memory isn't released while any of them is still in progress.
+ *
+ * @param <T> type of data
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public class LongIndexedOrchestrationPlan<T, O> extends OrchestrationPlan<T, O> implements AutoCloseable {
+	private final LongIndexedData<T> data;
+	private final LongArray elementsPositionSortedByGroup;
+	private final LongArray groupOffsets;
+	private final GroupIdDictionary<O> groupIdDictionary;
+	private final OffHeapMemory offHeapMemory;
+
+	private final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
+	private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+	private volatile boolean closed;
+
+	private LongIndexedOrchestrationPlan(final LongIndexedData<T> data, final LongArray elementsPositionSortedByGroup,
+			final LongArray groupOffsets, final GroupIdDictionary<O> groupIdDictionary,
+			final OffHeapMemory offHeapMemory,
+			final FreeGroupQueue freeGroupsToProcessSortedBasedOnBiggestNumberOfElements) {
+		this.data = data;
+		this.elementsPositionSortedByGroup = elementsPositionSortedByGroup;
+		this.groupOffsets = groupOffsets;
+		this.groupIdDictionary = groupIdDictionary;
+		this.offHeapMemory = offHeapMemory;
+		this.freeGroupsToProcessSortedBasedOnBiggestNumberOfElements = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements;
+	}
+
+	/**
+	 * Please use
+	 * {@link DataOrchestratorBasedOnImmutableCollection#createLongIndexedPlan(LongIndexedData, PlanIndexStorage)}
+	 * in order to create plan.
+	 *
+	 * @param data             data for distribution
+	 * @param groupIdExtractor extractor used for get <code>groupId</code> for
+	 *                         elements
+	 * @param storage          place where index of plan is kept
+	 * @return plan for given data
+	 */
+	static <T, O> LongIndexedOrchestrationPlan<T, O> create(final LongIndexedData<T> data,
+			final DataGroupIdExtractor<T, O> groupIdExtractor, final PlanIndexStorage storage) {
+		if (storage == PlanIndexStorage.HEAP) {
+			return create(data, groupIdExtractor, null, new IntBigArray(data.size()));
+		}
+
+		final OffHeapMemory offHeapMemory = new OffHeapMemory(storage);
+		try (OffHeapMemory creationOffHeapMemory = new OffHeapMemory(storage)) {
+			return create(data, groupIdExtractor, offHeapMemory,
+					new OffHeapIntArray(creationOffHeapMemory, data.size()));
+		} catch (RuntimeException | Error e) {
+			offHeapMemory.close();
+			throw e;
+		}
+	}
+
+	private static <T, O> LongIndexedOrchestrationPlan<T, O> create(final LongIndexedData<T> data,
+			final DataGroupIdExtractor<T, O> groupIdExtractor, final OffHeapMemory offHeapMemory,
+			final IntArray groupOrdinalOfElement) {
+		final long size = data.size();
+		final GroupOrdinalResolver<T, O> groupOrdinalResolver = new GroupOrdinalResolver<>(groupIdExtractor);
+		final List<T> chunk = new ArrayList<>(DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE);
+		final int[] groupOrdinalsOfChunk = new int[DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE];
+		long[] groupSizes = new long[16];
+		for (long firstElementIndex = 0; firstElementIndex < size; firstElementIndex += chunk.size()) {
+			chunk.clear();
+			final long lastElementIndex = Math.min(size,
+					firstElementIndex + DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE);
+			for (long elementIndex = firstElementIndex; elementIndex < lastElementIndex; elementIndex++) {
+				chunk.add(data.get(elementIndex));
+			}
+
+			groupOrdinalResolver.resolveGroupOrdinals(chunk, groupOrdinalsOfChunk);
+			for (int index = 0; index < chunk.size(); index++) {
+				final int groupOrdinal = groupOrdinalsOfChunk[index];
+				if (groupOrdinal == groupSizes.length) {
+					groupSizes = Arrays.copyOf(groupSizes, groupSizes.length << 1);
+				}
+				groupSizes[groupOrdinal]++;
+				groupOrdinalOfElement.set(firstElementIndex + index, groupOrdinal);
+			}
+		}
+
+		final int numberOfGroups = groupOrdinalResolver.getGroupIdDictionary().size();
+		final int[] groupSizesForOrdering = new int[numberOfGroups];
+		// sizes are turned into offsets of the next position of group
+		long nextGroupOffset = 0;
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			groupSizesForOrdering[groupOrdinal] = (int) Math.min(Integer.MAX_VALUE, groupSizes[groupOrdinal]);
+			final long groupSize = groupSizes[groupOrdinal];
+			groupSizes[groupOrdinal] = nextGroupOffset;
+			nextGroupOffset += groupSize;
+		}
+
+		final LongArray groupOffsets = offHeapMemory == null ? new LongBigArray(numberOfGroups + 1)
+				: new OffHeapLongArray(offHeapMemory, numberOfGroups + 1);
+		for (int groupOrdinal = 0; groupOrdinal < numberOfGroups; groupOrdinal++) {
+			groupOffsets.set(groupOrdinal, groupSizes[groupOrdinal]);
+		}
+		groupOffsets.set(numberOfGroups, size);
+
+		final LongArray elementsPositionSortedByGroup = offHeapMemory == null ? new LongBigArray(size)
+				: new OffHeapLongArray(offHeapMemory, size);
+		final long[] nextPositionOfGroup = groupSizes;
+		for (long elementIndex = 0; elementIndex < size; elementIndex++) {
+			elementsPositionSortedByGroup.set(nextPositionOfGroup[groupOrdinalOfElement.get(elementIndex)]++,
+					elementIndex);
+		}
+
+		return new LongIndexedOrchestrationPlan<>(data, elementsPositionSortedByGroup, groupOffsets,
+				groupOrdinalResolver.getGroupIdDictionary(), offHeapMemory,
+				new FreeGroupQueue(new ImmutableCollectionOrchestrationHelper<O>()
+						.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizesForOrdering,
+								numberOfGroups)));
+	}
+
+	/**
+	 * @return number of elements inside plan
+	 *
+	 * @since 1.0.0
+	 */
+	public long size() {
+		return elementsPositionSortedByGroup.size();
+	}
+
+	@Override
+	public int getNumberOfGroups() {
+		return (int) groupOffsets.size() - 1;
+	}
+
+	@Override
+	public O getGroupId(final int groupOrdinal) {
+		return groupIdDictionary.groupIdOf(groupOrdinal);
+	}
+
+	/**
+	 * @throws ArithmeticException in case group contains more than
+	 *                             {@link Integer#MAX_VALUE} elements, please use
+	 *                             {@link #getLongGroupSize(int)} for such groups
+	 */
+	@Override
+	public int getGroupSize(final int groupOrdinal) {
+		return Math.toIntExact(getLongGroupSize(groupOrdinal));
+	}
+
+	/**
+	 * @param groupOrdinal ordinal of group, between <code>0</code> (inclusive) and
+	 *                     {@link #getNumberOfGroups()} (exclusive)
+	 * @return number of elements inside group with given ordinal
+	 *
+	 * @since 1.0.0
+	 */
+	public long getLongGroupSize(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= getNumberOfGroups()) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + getNumberOfGroups() + ")");
+		}
+
+		closeLock.readLock().lock();
+		try {
+			validateNotClosed();
+			return groupOffsets.get(groupOrdinal + 1) - groupOffsets.get(groupOrdinal);
+		} finally {
+			closeLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Releases memory outside of heap used by plan, in case plan is kept on heap
+	 * it only marks plan as closed. Plan can't be used once it is closed, so it
+	 * should be called only after all workers finished. Reads of plan which are
+	 * still in progress are awaited before memory is released. Calling it more
+	 * than once has no effect.
+	 *
+	 * @since 1.0.0
+	 */
+	@Override
+	public void close() {
+		closeLock.writeLock().lock();
+		try {
+			if (!closed) {
+				closed = true;
+				if (offHeapMemory != null) {
+					offHeapMemory.close();
+				}
+			}
+		} finally {
+			closeLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * @return <code>true</code> in case plan was closed
+	 *
+	 * @since 1.0.0
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	@Override
+	protected Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize) {
+		validateSessionOwnership(workerSession);
+
+		closeLock.readLock().lock();
+		try {
+			validateNotClosed();
+			return loadNextBatchOfData(workerSession, batchSize);
+		} finally {
+			closeLock.readLock().unlock();
+		}
+	}
+
+	private List<T> loadNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize) {
+		final List<T> nextBatchOfData = new ArrayList<>();
+		final BatchSlices batchSlices = workerSession.clearedBatchSlices();
+
+		if (workerSession.getNumberOfAssignedGroups() > 0) {
+			workerSession.removeFullyProcessedGroups(groupOffsets);
+			for (int assignmentIndex = 0; nextBatchOfData.size() < batchSize
+					&& assignmentIndex < workerSession.getNumberOfAssignedGroups(); assignmentIndex++) {
+				loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+						nextBatchOfData, batchSlices);
+			}
+		}
+
+		int groupOrdinal;
+		while (nextBatchOfData.size() < batchSize && (groupOrdinal = freeGroupsToProcessSortedBasedOnBiggestNumberOfElements
+				.claim()) != FreeGroupQueue.NO_FREE_GROUP) {
+			final int assignmentIndex = workerSession.assignGroup(groupOrdinal, groupOffsets.get(groupOrdinal));
+			loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+					nextBatchOfData, batchSlices);
+		}
+
+		return nextBatchOfData;
+	}
+
+	private void loadRemainingDataFromGivenGroup(final WorkerSession<T, O> workerSession, final int assignmentIndex,
+			final int remainingSize, final List<T> nextBatchOfData, final BatchSlices batchSlices) {
+		final int groupOrdinal = workerSession.getAssignedGroupOrdinal(assignmentIndex);
+		final long firstIndexToProcess = workerSession.getAssignedGroupLongCursor(assignmentIndex);
+		final long lastIndexToProcess = Math.min(groupOffsets.get(groupOrdinal + 1),
+				firstIndexToProcess + remainingSize);
+		if (firstIndexToProcess < lastIndexToProcess) {
+			final int firstIndexInBatch = nextBatchOfData.size();
+			for (long index = firstIndexToProcess; index < lastIndexToProcess; index++) {
+				nextBatchOfData.add(data.get(elementsPositionSortedByGroup.get(index)));
+			}
+			batchSlices.add(groupOrdinal, firstIndexInBatch, nextBatchOfData.size(),
+					lastIndexToProcess == groupOffsets.get(groupOrdinal + 1));
+			workerSession.setAssignedGroupCursor(assignmentIndex, lastIndexToProcess);
+		}
+	}
+
+	private void validateNotClosed() {
+		if (closed) {
+			throw new IllegalStateException("Plan is already closed");
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * {@link IntArray} kept in buffers allocated by {@link OffHeapMemory}, every
+ * buffer keeps chunk of fixed number of values. Array mustn't be used after
+ * its memory is closed.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class OffHeapIntArray implements IntArray {
+	private final ByteBuffer[] chunks;
+	private final int chunkShift;
+	private final long chunkMask;
+	private final long size;
+
+	/**
+	 * @param memory memory in which values are kept
+	 * @param size   number of values, all values are initially <code>0</code>
+	 */
+	OffHeapIntArray(final OffHeapMemory memory, final long size) {
+		this(memory, size, LongBigArray.DEFAULT_CHUNK_SHIFT);
+	}
+
+	OffHeapIntArray(final OffHeapMemory memory, final long size, final int chunkShift) {
+		if (size < 0) {
+			throw new IllegalArgumentException("Size parameter should be greater or equal 0, currently it is " + size);
+		}
+
+		this.chunkShift = chunkShift;
+		this.chunkMask = (1L << chunkShift) - 1;
+		this.size = size;
+		this.chunks = new ByteBuffer[Math.toIntExact((size + chunkMask) >>> chunkShift)];
+		for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+			chunks[chunkIndex] = memory.allocate(
+					(int) Math.min(1L << chunkShift, size - ((long) chunkIndex << chunkShift)) * Integer.BYTES);
+		}
+	}
+
+	@Override
+	public int get(final long index) {
+		return chunks[(int) (index >>> chunkShift)].getInt((int) (index & chunkMask) * Integer.BYTES);
+	}
+
+	@Override
+	public void set(final long index, final int value) {
+		chunks[(int) (index >>> chunkShift)].putInt((int) (index & chunkMask) * Integer.BYTES, value);
+	}
+
+	@Override
+	public long size() {
+		return size;
+	}
+}
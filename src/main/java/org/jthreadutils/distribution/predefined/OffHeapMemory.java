@@ -0,0 +1,153 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Allocator of memory outside of Java heap, all buffers allocated by it are
+ * released together by {@link #close()}. Depending on {@link PlanIndexStorage}
+ * buffers are direct {@link ByteBuffer}s or regions of temporary file mapped
+ * into memory. Buffers use native byte order.
+ *
+ * Direct and mapped buffers are released explicitly by their cleaner, in case
+ * it is not accessible (e.g. restricted reflection) they are released by
+ * garbage collector. Buffers mustn't be used after {@link #close()}.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class OffHeapMemory implements Closeable {
+	private final PlanIndexStorage storage;
+	private final List<ByteBuffer> allocatedBuffers = new ArrayList<>();
+	private Path temporaryFile;
+	private FileChannel temporaryFileChannel;
+	private long temporaryFileSize;
+
+	/**
+	 * @param storage {@link PlanIndexStorage#DIRECT_MEMORY} or
+	 *                {@link PlanIndexStorage#TEMPORARY_FILE}
+	 */
+	OffHeapMemory(final PlanIndexStorage storage) {
+		if (storage == PlanIndexStorage.HEAP) {
+			throw new IllegalArgumentException("Storage parameter should be outside of heap, currently it is " + storage);
+		}
+
+		this.storage = storage;
+	}
+
+	/**
+	 * @param numberOfBytes size of buffer
+	 * @return new buffer filled with zeros
+	 * @throws UncheckedIOException in case temporary file couldn't be created or
+	 *                              extended
+	 */
+	ByteBuffer allocate(final int numberOfBytes) {
+		final ByteBuffer buffer;
+		if (storage == PlanIndexStorage.DIRECT_MEMORY) {
+			buffer = ByteBuffer.allocateDirect(numberOfBytes);
+		} else {
+			try {
+				if (temporaryFileChannel == null) {
+					temporaryFile = Files.createTempFile("orchestration-plan-", ".index");
+					temporaryFileChannel = FileChannel.open(temporaryFile, StandardOpenOption.READ,
+							StandardOpenOption.WRITE);
+				}
+				buffer = temporaryFileChannel.map(MapMode.READ_WRITE, temporaryFileSize, numberOfBytes);
+				temporaryFileSize += numberOfBytes;
+			} catch (IOException e) {
+				throw new UncheckedIOException("Temporary file of plan index couldn't be mapped", e);
+			}
+		}
+
+		allocatedBuffers.add(buffer);
+		return buffer.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * @return temporary file in which buffers are mapped, <code>null</code> in
+	 *         case nothing was mapped yet or memory is direct
+	 */
+	Path getTemporaryFile() {
+		return temporaryFile;
+	}
+
+	/**
+	 * Releases all allocated buffers and deletes temporary file.
+	 *
+	 * @throws UncheckedIOException in case temporary file couldn't be closed or
+	 *                              deleted
+	 */
+	@Override
+	public void close() {
+		for (ByteBuffer buffer : allocatedBuffers) {
+			BufferCleaner.clean(buffer);
+		}
+		allocatedBuffers.clear();
+
+		if (temporaryFileChannel != null) {
+			try {
+				temporaryFileChannel.close();
+				Files.deleteIfExists(temporaryFile);
+			} catch (IOException e) {
+				throw new UncheckedIOException("Temporary file of plan index couldn't be deleted", e);
+			} finally {
+				temporaryFileChannel = null;
+			}
+		}
+	}
+
+	private static final class BufferCleaner {
+		private static final Object UNSAFE;
+		private static final Method INVOKE_CLEANER;
+
+		static {
+			Object unsafe = null;
+			Method invokeCleaner = null;
+			try {
+				// available since Java 9, Java 8 buffers are cleaned by their own cleaner
+				final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+				invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+				final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+				theUnsafe.setAccessible(true);
+				unsafe = theUnsafe.get(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				invokeCleaner = null;
+			}
+			UNSAFE = unsafe;
+			INVOKE_CLEANER = invokeCleaner;
+		}
+
+		private static void clean(final ByteBuffer buffer) {
+			try {
+				if (INVOKE_CLEANER != null) {
+					INVOKE_CLEANER.invoke(UNSAFE, buffer);
+				} else {
+					final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+					cleanerMethod.setAccessible(true);
+					final Object cleaner = cleanerMethod.invoke(buffer);
+					if (cleaner != null) {
+						cleaner.getClass().getMethod("clean").invoke(cleaner);
+					}
+				}
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// buffer is released once it is garbage collected
+			}
+		}
+	}
+}
@@ -0,0 +1,372 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Driver which executes {@link OrchestrationPlan} to the end
+ * by given number of workers. Every worker runs in its own thread created by
+ * provided {@link ThreadFactory}, opens own {@link WorkerSession} and passes
+ * batches of data into consumer until plan doesn't have any more data for it.
+ * On JDK 21+ virtual threads could be used by providing
+ * <code>Thread.ofVirtual().factory()</code>.
+ *
+ * Worker, which received empty batch, finishes instead of polling plan again.
+ * Empty batch means that none of groups assigned to worker contains data and
+ * there are no free groups, so plan will never provide any data for it. The
+ * only exception is {@link AppendableOrchestrationPlan}, which is not sealed
+ * yet, in such case worker waits until new data are appended or plan is
+ * sealed.
+ *
+ * In case consumer throws exception, remaining workers stop after their current
+ * batch and returned future is completed exceptionally with the first failure.
+ * Any retry mechanism or error handling should be done by consumer.
+ *
+ * With {@link #executeWithGroupStealing(ImmutableCollectionOrchestrationPlan, BiConsumer)}
+ * workers receive {@link GroupedBatch}es and pass them into consumer segment
+ * after segment. Segments not started yet, which complete their group, could
+ * be stolen by worker which didn't receive any data from plan, so the tail of
+ * execution doesn't wait for single worker with many small groups inside its
+ * batch. Segment of group, which still has elements inside plan, is never
+ * stolen, so every group is still processed in original order. Thief which
+ * found nothing to steal while other worker is still receiving batch parks for
+ * exponentially growing time, up to 1 millisecond, before it tries again.
+ *
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public class OrchestratedExecutor<T, O> {
+	private static final long IDLE_WORKER_WAIT_TIME_IN_MILLIS = 100;
+	private static final long MINIMAL_IDLE_THIEF_PARK_TIME_IN_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+	private static final long MAXIMAL_IDLE_THIEF_PARK_TIME_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final DataOrchestratorBasedOnImmutableCollection<T, O> dataOrchestrator;
+	private final int numberOfWorkers;
+	private final int batchSize;
+	private final ThreadFactory threadFactory;
+
+	/**
+	 * Creates executor which uses platform threads.
+	 *
+	 * @param dataOrchestrator orchestrator used for getting next portion of data
+	 * @param numberOfWorkers  number of workers processing plan, should be greater
+	 *                         than 0
+	 * @param batchSize        number of elements requested by worker at once,
+	 *                         should be greater than 0
+	 * @since 1.0.0
+	 */
+	public OrchestratedExecutor(final DataOrchestratorBasedOnImmutableCollection<T, O> dataOrchestrator,
+			final int numberOfWorkers, final int batchSize) {
+		this(dataOrchestrator, numberOfWorkers, batchSize,
+				new ThreadFactoryBuilder().setNameFormat("orchestrated-worker-%d").build());
+	}
+
+	/**
+	 * @param dataOrchestrator orchestrator used for getting next portion of data
+	 * @param numberOfWorkers  number of workers processing plan, should be greater
+	 *                         than 0
+	 * @param batchSize        number of elements requested by worker at once,
+	 *                         should be greater than 0
+	 * @param threadFactory    factory of threads in which workers are executed
+	 * @since 1.0.0
+	 */
+	public OrchestratedExecutor(final DataOrchestratorBasedOnImmutableCollection<T, O> dataOrchestrator,
+			final int numberOfWorkers, final int batchSize, final ThreadFactory threadFactory) {
+		if (numberOfWorkers <= 0) {
+			throw new IllegalArgumentException(
+					"Number of workers parameter should be greater than 0, currently it is " + numberOfWorkers);
+		}
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException(
+					"Batch size parameter should be greater than 0, currently it is " + batchSize);
+		}
+
+		this.dataOrchestrator = dataOrchestrator;
+		this.numberOfWorkers = numberOfWorkers;
+		this.batchSize = batchSize;
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Starts all workers and returns immediately.
+	 *
+	 * @param orchestrationPlan plan to execute
+	 * @param batchConsumer     consumer of data batches, it is called by many
+	 *                          workers at the same time, but data belonging to
+	 *                          the same group are always passed by single worker
+	 *                          in original order, batches are read-only
+	 *                          {@link Batch} views
+	 * @return future completed with statistics once all workers finished, or
+	 *         exceptionally in case any of workers couldn't be started
+	 *
+	 * @since 1.0.0
+	 */
+	public CompletableFuture<OrchestrationStatistics> execute(
+			final OrchestrationPlan<T, O> orchestrationPlan,
+			final Consumer<? super Collection<T>> batchConsumer) {
+		return new Execution(orchestrationPlan, batchConsumer, null).start();
+	}
+
+	/**
+	 * Starts all workers and returns immediately. Every worker passes segments of
+	 * its {@link GroupedBatch}es into consumer one by one, worker which didn't
+	 * receive any data from plan steals not started segments of other workers,
+	 * which complete their group. Worker finishes once plan doesn't have any data
+	 * for it and there is nothing to steal.
+	 *
+	 * @param orchestrationPlan plan to execute
+	 * @param segmentConsumer   consumer of group id and contiguous run of elements
+	 *                          of the group, it is called by many workers at the
+	 *                          same time, but segments of the same group are
+	 *                          passed one after another in original order
+	 * @return future completed with statistics once all workers finished, every
+	 *         segment is counted as batch
+	 *
+	 * @since 1.0.0
+	 */
+	public CompletableFuture<OrchestrationStatistics> executeWithGroupStealing(
+			final ImmutableCollectionOrchestrationPlan<T, O> orchestrationPlan,
+			final BiConsumer<? super O, ? super List<T>> segmentConsumer) {
+		return new Execution(orchestrationPlan, null, segmentConsumer).start();
+	}
+
+	private class Execution {
+		private final OrchestrationPlan<T, O> orchestrationPlan;
+		private final Consumer<? super Collection<T>> batchConsumer;
+		private final BiConsumer<? super O, ? super List<T>> segmentConsumer;
+		private final CompletableFuture<OrchestrationStatistics> completion = new CompletableFuture<>();
+		private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+		private final AtomicInteger numberOfRunningWorkers = new AtomicInteger(numberOfWorkers);
+		private final AtomicLong numberOfProcessedBatches = new AtomicLong();
+		private final AtomicLong numberOfStolenSegments = new AtomicLong();
+		private final AtomicInteger numberOfWorkersReceivingBatch = new AtomicInteger();
+		private final AtomicReferenceArray<StealableBatch> batchInProgressOfWorker = new AtomicReferenceArray<>(
+				numberOfWorkers);
+		private final long[] numberOfProcessedElementsPerWorker = new long[numberOfWorkers];
+		private long startTimeInNanos;
+
+		private Execution(final OrchestrationPlan<T, O> orchestrationPlan,
+				final Consumer<? super Collection<T>> batchConsumer,
+				final BiConsumer<? super O, ? super List<T>> segmentConsumer) {
+			this.orchestrationPlan = orchestrationPlan;
+			this.batchConsumer = batchConsumer;
+			this.segmentConsumer = segmentConsumer;
+		}
+
+		private CompletableFuture<OrchestrationStatistics> start() {
+			final Thread[] workers = new Thread[numberOfWorkers];
+			for (int workerIndex = 0; workerIndex < numberOfWorkers; workerIndex++) {
+				final int currentWorkerIndex = workerIndex;
+				workers[workerIndex] = threadFactory.newThread(() -> runWorker(currentWorkerIndex));
+				if (workers[workerIndex] == null) {
+					completion.completeExceptionally(new IllegalStateException(
+							"Thread factory " + threadFactory + " didn't create thread for worker " + workerIndex));
+					return completion;
+				}
+			}
+
+			startTimeInNanos = System.nanoTime();
+			for (int workerIndex = 0; workerIndex < numberOfWorkers; workerIndex++) {
+				try {
+					workers[workerIndex].start();
+				} catch (Throwable e) {
+					firstFailure.compareAndSet(null, e);
+					// workers which weren't started will never finish, started ones stop due to failure
+					if (numberOfRunningWorkers.addAndGet(workerIndex - numberOfWorkers) == 0) {
+						complete();
+					}
+					break;
+				}
+			}
+
+			return completion;
+		}
+
+		private void runWorker(final int workerIndex) {
+			if (segmentConsumer != null) {
+				runWorkerWithGroupStealing(workerIndex);
+				return;
+			}
+
+			final WorkerSession<T, O> workerSession = orchestrationPlan.openSession();
+			long numberOfProcessedElements = 0;
+			try {
+				while (firstFailure.get() == null) {
+					final long observedDataVersion = orchestrationPlan.getDataVersion();
+					final Batch<T> nextBatchOfData = dataOrchestrator.nextBatch(workerSession, batchSize);
+					if (nextBatchOfData.isEmpty()) {
+						if (!orchestrationPlan.awaitDataChangedAfter(observedDataVersion,
+								IDLE_WORKER_WAIT_TIME_IN_MILLIS)) {
+							break;
+						}
+						continue;
+					}
+
+					batchConsumer.accept(nextBatchOfData);
+					numberOfProcessedElements += nextBatchOfData.size();
+					numberOfProcessedBatches.incrementAndGet();
+				}
+			} catch (Throwable e) {
+				firstFailure.compareAndSet(null, e);
+			} finally {
+				numberOfProcessedElementsPerWorker[workerIndex] = numberOfProcessedElements;
+				if (numberOfRunningWorkers.decrementAndGet() == 0) {
+					complete();
+				}
+			}
+		}
+
+		private void runWorkerWithGroupStealing(final int workerIndex) {
+			final WorkerSession<T, O> workerSession = orchestrationPlan.openSession();
+			long numberOfProcessedElements = 0;
+			long idleParkTimeInNanos = MINIMAL_IDLE_THIEF_PARK_TIME_IN_NANOS;
+			try {
+				while (firstFailure.get() == null) {
+					// batch is published before worker stops receiving it, so thief which
+					// observed no worker receiving batch will find every published batch
+					numberOfWorkersReceivingBatch.incrementAndGet();
+					final GroupedBatch<T, O> nextBatchOfData;
+					try {
+						nextBatchOfData = dataOrchestrator.nextGroupedBatch(workerSession, batchSize);
+						if (!nextBatchOfData.isEmpty()) {
+							batchInProgressOfWorker.set(workerIndex, new StealableBatch(nextBatchOfData));
+						}
+					} finally {
+						numberOfWorkersReceivingBatch.decrementAndGet();
+					}
+
+					if (!nextBatchOfData.isEmpty()) {
+						final StealableBatch batchInProgress = batchInProgressOfWorker.get(workerIndex);
+						int segment;
+						while ((segment = batchInProgress.claimByOwner()) != StealableBatch.NO_SEGMENT
+								&& firstFailure.get() == null) {
+							numberOfProcessedElements += processSegment(nextBatchOfData, segment);
+						}
+						batchInProgressOfWorker.set(workerIndex, null);
+						continue;
+					}
+
+					final boolean otherWorkerReceivingBatch = numberOfWorkersReceivingBatch.get() > 0;
+					final long numberOfStolenElements = stealSegment(workerIndex);
+					if (numberOfStolenElements == 0) {
+						if (!otherWorkerReceivingBatch) {
+							break;
+						}
+						// receiving batch doesn't notify anyone, so thief backs off until it is published
+						LockSupport.parkNanos(idleParkTimeInNanos);
+						idleParkTimeInNanos = Math.min(idleParkTimeInNanos << 1, MAXIMAL_IDLE_THIEF_PARK_TIME_IN_NANOS);
+						continue;
+					}
+					idleParkTimeInNanos = MINIMAL_IDLE_THIEF_PARK_TIME_IN_NANOS;
+					numberOfProcessedElements += numberOfStolenElements;
+				}
+			} catch (Throwable e) {
+				firstFailure.compareAndSet(null, e);
+			} finally {
+				numberOfProcessedElementsPerWorker[workerIndex] = numberOfProcessedElements;
+				if (numberOfRunningWorkers.decrementAndGet() == 0) {
+					complete();
+				}
+			}
+		}
+
+		/**
+		 * @return number of elements inside processed stolen segment, <code>0</code>
+		 *         in case no other worker has segment to steal
+		 */
+		private long stealSegment(final int thiefWorkerIndex) {
+			for (int offset = 1; offset < numberOfWorkers; offset++) {
+				final StealableBatch victimBatch = batchInProgressOfWorker
+						.get((thiefWorkerIndex + offset) % numberOfWorkers);
+				if (victimBatch == null) {
+					continue;
+				}
+
+				final int segment = victimBatch.steal();
+				if (segment != StealableBatch.NO_SEGMENT) {
+					numberOfStolenSegments.incrementAndGet();
+					return processSegment(victimBatch.groupedBatch, segment);
+				}
+			}
+
+			return 0;
+		}
+
+		private int processSegment(final GroupedBatch<T, O> groupedBatch, final int segment) {
+			final List<T> segmentElements = groupedBatch.getSegmentElements(segment);
+			segmentConsumer.accept(groupedBatch.getGroupId(segment), segmentElements);
+			numberOfProcessedBatches.incrementAndGet();
+			return segmentElements.size();
+		}
+
+		private void complete() {
+			if (firstFailure.get() != null) {
+				completion.completeExceptionally(firstFailure.get());
+			} else {
+				completion.complete(new OrchestrationStatistics(numberOfProcessedElementsPerWorker,
+						numberOfProcessedBatches.get(), numberOfStolenSegments.get(),
+						System.nanoTime() - startTimeInNanos));
+			}
+		}
+	}
+
+	/**
+	 * Grouped batch being processed by its owner, segments are claimed from the
+	 * first one by owner and by thieves. Only leading segments, which complete
+	 * their group, could be stolen, the last segment of group continued in the
+	 * next batch is always processed by owner, before it requests the next batch.
+	 */
+	private final class StealableBatch {
+		private static final int NO_SEGMENT = -1;
+
+		private final GroupedBatch<T, O> groupedBatch;
+		private final int numberOfStealableSegments;
+		private final AtomicInteger nextSegment = new AtomicInteger();
+
+		private StealableBatch(final GroupedBatch<T, O> groupedBatch) {
+			this.groupedBatch = groupedBatch;
+			int stealableSegments = 0;
+			while (stealableSegments < groupedBatch.getNumberOfSegments()
+					&& groupedBatch.isGroupCompletedBySegment(stealableSegments)) {
+				stealableSegments++;
+			}
+			this.numberOfStealableSegments = stealableSegments;
+		}
+
+		private int claimByOwner() {
+			final int segment = nextSegment.getAndIncrement();
+			return segment < groupedBatch.getNumberOfSegments() ? segment : NO_SEGMENT;
+		}
+
+		private int steal() {
+			for (;;) {
+				final int segment = nextSegment.get();
+				if (segment >= numberOfStealableSegments) {
+					return NO_SEGMENT;
+				}
+				if (nextSegment.compareAndSet(segment, segment + 1)) {
+					return segment;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,222 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Common part of plans executed by {@link DataOrchestratorBasedOnImmutableCollection}.
+ * Plan hands out data in batches, every group of data is handed out by single
+ * {@link WorkerSession} at time in original order of elements. Calls
+ * identified by {@link Thread} are served by session bound to given thread,
+ * session is forgotten once it doesn't own any group.
+ * 
+ * @see ImmutableCollectionOrchestrationPlan
+ * @see AppendableOrchestrationPlan
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public abstract class OrchestrationPlan<T, O> {
+	private final ConcurrentMap<Thread, WorkerSession<T, O>> workerSessionOfThread = new ConcurrentHashMap<>();
+
+	OrchestrationPlan() {
+	}
+
+	/**
+	 * Opens new session for logical worker, groups claimed by worker are bound to
+	 * returned session.
+	 * 
+	 * @return new {@link WorkerSession} for this plan
+	 * 
+	 * @since 1.0.0
+	 */
+	public WorkerSession<T, O> openSession() {
+		return new WorkerSession<>(this);
+	}
+
+	/**
+	 * @return number of distinct groups inside plan
+	 * 
+	 * @since 1.0.0
+	 */
+	public abstract int getNumberOfGroups();
+
+	/**
+	 * @param groupOrdinal ordinal of group, between <code>0</code> (inclusive) and
+	 *                     {@link #getNumberOfGroups()} (exclusive)
+	 * @return original group id of group with given ordinal
+	 * 
+	 * @since 1.0.0
+	 */
+	public abstract O getGroupId(final int groupOrdinal);
+
+	/**
+	 * @param groupOrdinal ordinal of group, between <code>0</code> (inclusive) and
+	 *                     {@link #getNumberOfGroups()} (exclusive)
+	 * @return number of elements inside group with given ordinal
+	 * 
+	 * @since 1.0.0
+	 */
+	public abstract int getGroupSize(final int groupOrdinal);
+
+	protected Collection<T> poolNextBatchOfData(final Thread currentThread, final int batchSize) {
+		final WorkerSession<T, O> workerSession = workerSessionOf(currentThread);
+		final Collection<T> nextBatchOfData = poolNextBatchOfData(workerSession, batchSize);
+		forgetWorkerSessionWithoutGroups(currentThread, workerSession);
+
+		return nextBatchOfData;
+	}
+
+	protected int drainNextBatchOfData(final Thread currentThread, final int batchSize,
+			final Collection<? super T> target) {
+		final WorkerSession<T, O> workerSession = workerSessionOf(currentThread);
+		final int numberOfDrainedElements = drainNextBatchOfData(workerSession, batchSize, target);
+		forgetWorkerSessionWithoutGroups(currentThread, workerSession);
+
+		return numberOfDrainedElements;
+	}
+
+	protected int drainNextBatchOfData(final Thread currentThread, final T[] buffer) {
+		final WorkerSession<T, O> workerSession = workerSessionOf(currentThread);
+		final int numberOfDrainedElements = drainNextBatchOfData(workerSession, buffer);
+		forgetWorkerSessionWithoutGroups(currentThread, workerSession);
+
+		return numberOfDrainedElements;
+	}
+
+	protected abstract Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession,
+			final int batchSize);
+
+	/**
+	 * The same as {@link #poolNextBatchOfData(WorkerSession, int)}, but data are
+	 * returned as {@link Batch}. Plans able to hand out view of their data without
+	 * copying elements should override it, by default elements returned by
+	 * {@link #poolNextBatchOfData(WorkerSession, int)} are wrapped.
+	 * 
+	 * @param workerSession session requesting data
+	 * @param batchSize     maximal number of elements to return
+	 * @return next batch of data for given session
+	 */
+	protected Batch<T> poolNextBatch(final WorkerSession<T, O> workerSession, final int batchSize) {
+		final Collection<T> nextBatchOfData = poolNextBatchOfData(workerSession, batchSize);
+		if (nextBatchOfData instanceof List && nextBatchOfData instanceof RandomAccess) {
+			return Batch.of((List<T>) nextBatchOfData);
+		}
+
+		return Batch.of(new ArrayList<>(nextBatchOfData));
+	}
+
+	/**
+	 * The same as {@link #poolNextBatch(WorkerSession, int)}, but data are split
+	 * into segments of single group. By default segments are taken from
+	 * {@link BatchSlices} of session, which every plan fills while collecting
+	 * next batch of data.
+	 * 
+	 * @param workerSession session requesting data
+	 * @param batchSize     maximal number of elements to return
+	 * @return next batch of data for given session split by group
+	 */
+	protected GroupedBatch<T, O> poolNextGroupedBatch(final WorkerSession<T, O> workerSession,
+			final int batchSize) {
+		final Batch<T> nextBatch = poolNextBatch(workerSession, batchSize);
+		return workerSession.getBatchSlices().toGroupedBatch(this, nextBatch);
+	}
+
+	/**
+	 * Adds next batch of data for given session into given collection, by default
+	 * elements of {@link #poolNextBatch(WorkerSession, int)} are added. Plans
+	 * should override it in case they are able to add elements without any
+	 * intermediate object.
+	 * 
+	 * @param workerSession session requesting data
+	 * @param batchSize     maximal number of elements to add
+	 * @param target        collection to which elements are added
+	 * @return number of added elements
+	 */
+	protected int drainNextBatchOfData(final WorkerSession<T, O> workerSession, final int batchSize,
+			final Collection<? super T> target) {
+		final Batch<T> nextBatch = poolNextBatch(workerSession, batchSize);
+		target.addAll(nextBatch);
+		return nextBatch.size();
+	}
+
+	/**
+	 * Writes next batch of data for given session into given buffer starting from
+	 * its first slot, the same as
+	 * {@link #drainNextBatchOfData(WorkerSession, int, Collection)} with batch size
+	 * equal to length of buffer.
+	 * 
+	 * @param workerSession session requesting data
+	 * @param buffer        buffer to which elements are written, slots after the
+	 *                      last written element are not modified
+	 * @return number of written elements
+	 */
+	protected int drainNextBatchOfData(final WorkerSession<T, O> workerSession, final T[] buffer) {
+		final Batch<T> nextBatch = poolNextBatch(workerSession, buffer.length);
+		for (int index = 0; index < nextBatch.size(); index++) {
+			buffer[index] = nextBatch.get(index);
+		}
+		return nextBatch.size();
+	}
+
+	/**
+	 * Version of data inside plan, it changes every time new data are added to
+	 * plan or plan is closed for new data.
+	 * 
+	 * @return current version of data, always <code>0</code> for plans which
+	 *         can't receive new data
+	 */
+	long getDataVersion() {
+		return 0;
+	}
+
+	/**
+	 * Waits until data inside plan are changed after given version, but not longer
+	 * than given time. Used by workers which received empty batch in order to find
+	 * out if they should finish.
+	 * 
+	 * @param observedDataVersion version of data read before empty batch was
+	 *                            received
+	 * @param timeoutInMillis     maximum time of waiting
+	 * @return <code>true</code> in case plan received new data or could still
+	 *         receive them, <code>false</code> in case nothing more will be
+	 *         handed out for worker which received empty batch
+	 * @throws InterruptedException in case waiting thread was interrupted
+	 */
+	boolean awaitDataChangedAfter(final long observedDataVersion, final long timeoutInMillis)
+			throws InterruptedException {
+		return false;
+	}
+
+	private WorkerSession<T, O> workerSessionOf(final Thread currentThread) {
+		final WorkerSession<T, O> workerSession = workerSessionOfThread.get(currentThread);
+		if (workerSession != null) {
+			return workerSession;
+		}
+
+		return workerSessionOfThread.computeIfAbsent(currentThread, thread -> openSession());
+	}
+
+	private void forgetWorkerSessionWithoutGroups(final Thread currentThread,
+			final WorkerSession<T, O> workerSession) {
+		if (workerSession.getNumberOfAssignedGroups() == 0) {
+			workerSessionOfThread.remove(currentThread);
+		}
+	}
+
+	protected void validateSessionOwnership(final WorkerSession<T, O> workerSession) {
+		if (workerSession.getOrchestrationPlan() != this) {
+			throw new IllegalArgumentException("Session " + workerSession + " was not opened for plan " + this);
+		}
+	}
+}
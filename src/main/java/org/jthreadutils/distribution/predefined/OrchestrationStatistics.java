@@ -0,0 +1,128 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Summary of plan execution performed by {@link OrchestratedExecutor}.
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@Immutable
+public class OrchestrationStatistics {
+	private final long[] numberOfProcessedElementsPerWorker;
+	private final long numberOfProcessedBatches;
+	private final long numberOfStolenSegments;
+	private final long elapsedTimeInNanos;
+
+	/**
+	 * @param numberOfProcessedElementsPerWorker number of elements passed into
+	 *                                           consumer by every worker
+	 * @param numberOfProcessedBatches           number of batches passed into
+	 *                                           consumer by all workers
+	 * @param elapsedTimeInNanos                 time between start of the first
+	 *                                           worker and end of the last one
+	 */
+	OrchestrationStatistics(final long[] numberOfProcessedElementsPerWorker, final long numberOfProcessedBatches,
+			final long elapsedTimeInNanos) {
+		this(numberOfProcessedElementsPerWorker, numberOfProcessedBatches, 0, elapsedTimeInNanos);
+	}
+
+	/**
+	 * @param numberOfProcessedElementsPerWorker number of elements passed into
+	 *                                           consumer by every worker
+	 * @param numberOfProcessedBatches           number of batches or segments
+	 *                                           passed into consumer by all
+	 *                                           workers
+	 * @param numberOfStolenSegments             number of segments processed by
+	 *                                           other worker than the one which
+	 *                                           received them from plan
+	 * @param elapsedTimeInNanos                 time between start of the first
+	 *                                           worker and end of the last one
+	 */
+	OrchestrationStatistics(final long[] numberOfProcessedElementsPerWorker, final long numberOfProcessedBatches,
+			final long numberOfStolenSegments, final long elapsedTimeInNanos) {
+		this.numberOfProcessedElementsPerWorker = numberOfProcessedElementsPerWorker.clone();
+		this.numberOfProcessedBatches = numberOfProcessedBatches;
+		this.numberOfStolenSegments = numberOfStolenSegments;
+		this.elapsedTimeInNanos = elapsedTimeInNanos;
+	}
+
+	/**
+	 * @return number of elements passed into consumer by all workers
+	 * 
+	 * @since 1.0.0
+	 */
+	public long getNumberOfProcessedElements() {
+		return Arrays.stream(numberOfProcessedElementsPerWorker).sum();
+	}
+
+	/**
+	 * @param workerIndex index of worker, from 0 to number of workers (exclusive)
+	 * @return number of elements passed into consumer by given worker
+	 * 
+	 * @since 1.0.0
+	 */
+	public long getNumberOfProcessedElements(final int workerIndex) {
+		return numberOfProcessedElementsPerWorker[workerIndex];
+	}
+
+	/**
+	 * @return number of workers used during execution
+	 * 
+	 * @since 1.0.0
+	 */
+	public int getNumberOfWorkers() {
+		return numberOfProcessedElementsPerWorker.length;
+	}
+
+	/**
+	 * @return number of batches passed into consumer by all workers
+	 * 
+	 * @since 1.0.0
+	 */
+	public long getNumberOfProcessedBatches() {
+		return numberOfProcessedBatches;
+	}
+
+	/**
+	 * @return number of segments stolen by idle workers, always <code>0</code>
+	 *         for execution without group stealing
+	 * 
+	 * @since 1.0.0
+	 */
+	public long getNumberOfStolenSegments() {
+		return numberOfStolenSegments;
+	}
+
+	/**
+	 * @return time between start of the first worker and end of the last one
+	 * 
+	 * @since 1.0.0
+	 */
+	public Duration getElapsedTime() {
+		return Duration.ofNanos(elapsedTimeInNanos);
+	}
+
+	/**
+	 * @return number of processed elements per second, 0 in case no time elapsed
+	 * 
+	 * @since 1.0.0
+	 */
+	public double getThroughputPerSecond() {
+		return elapsedTimeInNanos == 0 ? 0 : getNumberOfProcessedElements() * 1_000_000_000d / elapsedTimeInNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "OrchestrationStatistics [numberOfProcessedElements=" + getNumberOfProcessedElements()
+				+ ", numberOfProcessedBatches=" + numberOfProcessedBatches + ", numberOfStolenSegments="
+				+ numberOfStolenSegments + ", numberOfWorkers="
+				+ getNumberOfWorkers() + ", elapsedTime=" + getElapsedTime() + ", throughputPerSecond="
+				+ getThroughputPerSecond() + "]";
+	}
+}
@@ -0,0 +1,36 @@
+package org.jthreadutils.distribution.predefined;
+
+/**
+ * Describes where {@link LongIndexedOrchestrationPlan} keeps its position index
+ * and group offsets.
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+public enum PlanIndexStorage {
+	/**
+	 * Index is kept inside chunked primitive arrays on Java heap and released by
+	 * garbage collector.
+	 *
+	 * @since 1.0.0
+	 */
+	HEAP,
+	/**
+	 * Index is kept inside direct {@link java.nio.ByteBuffer}s outside of Java
+	 * heap, so it doesn't add anything to work of garbage collector. Memory is
+	 * limited by <code>-XX:MaxDirectMemorySize</code> and it is released by
+	 * {@link LongIndexedOrchestrationPlan#close()}.
+	 *
+	 * @since 1.0.0
+	 */
+	DIRECT_MEMORY,
+	/**
+	 * Index is kept inside temporary file mapped into memory, so operating system
+	 * could page it out under memory pressure. File is unmapped and deleted by
+	 * {@link LongIndexedOrchestrationPlan#close()}.
+	 *
+	 * @since 1.0.0
+	 */
+	TEMPORARY_FILE
+}
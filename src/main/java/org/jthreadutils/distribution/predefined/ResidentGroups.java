@@ -0,0 +1,204 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Elements of groups, which are kept by plan only until they are handed out,
+ * together with state of every group. Used by plans receiving data after their
+ * creation, {@link AppendableOrchestrationPlan} and
+ * {@link WindowedOrchestrationPlan}, which guard it by their own lock.
+ *
+ * Elements of group are kept in ring buffer indexed by position of element
+ * within group, handed out slot is cleared and buffer is dropped once group is
+ * released by its owner. Group is idle, free (waiting in queue to be claimed)
+ * or owned by single worker. Sizes of groups are not known upfront, so free
+ * groups are claimed in order in which they became free.
+ *
+ * @param <T> type of elements
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+class ResidentGroups<T> {
+	private static final int MINIMAL_CAPACITY = 16;
+	private static final int MINIMAL_GROUP_CAPACITY = 4;
+	private static final byte GROUP_IDLE = 0;
+	private static final byte GROUP_FREE = 1;
+	private static final byte GROUP_OWNED = 2;
+
+	private final IntPredicate groupCompleteness;
+
+	private Object[][] residentElementsOfGroup = new Object[MINIMAL_CAPACITY][];
+	private long[] groupSizes = new long[MINIMAL_CAPACITY];
+	private long[] numberOfHandedOutElementsOfGroup = new long[MINIMAL_CAPACITY];
+	private byte[] groupStates = new byte[MINIMAL_CAPACITY];
+
+	private int[] freeGroupOrdinals = new int[MINIMAL_CAPACITY];
+	private int firstFreeGroupIndex;
+	private int numberOfFreeGroups;
+
+	private int numberOfResidentElements;
+
+	/**
+	 * @param groupCompleteness tells whether group with given ordinal won't
+	 *                          receive any more elements
+	 */
+	ResidentGroups(final IntPredicate groupCompleteness) {
+		this.groupCompleteness = groupCompleteness;
+	}
+
+	/**
+	 * @param groupOrdinal ordinal of group, ordinals are assigned without gaps
+	 * @return number of elements added into group so far
+	 */
+	long getGroupSize(final int groupOrdinal) {
+		return groupOrdinal < groupSizes.length ? groupSizes[groupOrdinal] : 0;
+	}
+
+	/**
+	 * @return number of added elements, which were not handed out yet
+	 */
+	int getNumberOfResidentElements() {
+		return numberOfResidentElements;
+	}
+
+	/**
+	 * Adds element at the tail of its group, group doesn't become free, please
+	 * use {@link #offerGroup(int)} for it.
+	 *
+	 * @param groupOrdinal ordinal of group of element
+	 * @param element      element to add
+	 */
+	void add(final int groupOrdinal, final T element) {
+		if (groupOrdinal == groupSizes.length) {
+			final int newCapacity = groupSizes.length << 1;
+			residentElementsOfGroup = Arrays.copyOf(residentElementsOfGroup, newCapacity);
+			groupSizes = Arrays.copyOf(groupSizes, newCapacity);
+			numberOfHandedOutElementsOfGroup = Arrays.copyOf(numberOfHandedOutElementsOfGroup, newCapacity);
+			groupStates = Arrays.copyOf(groupStates, newCapacity);
+		}
+
+		Object[] residentElements = residentElementsOfGroup[groupOrdinal];
+		final long numberOfResidentElementsOfGroup = groupSizes[groupOrdinal]
+				- numberOfHandedOutElementsOfGroup[groupOrdinal];
+		if (residentElements == null) {
+			residentElements = new Object[MINIMAL_GROUP_CAPACITY];
+			residentElementsOfGroup[groupOrdinal] = residentElements;
+		} else if (numberOfResidentElementsOfGroup == residentElements.length) {
+			final Object[] newResidentElements = new Object[residentElements.length << 1];
+			for (long position = numberOfHandedOutElementsOfGroup[groupOrdinal]; position < groupSizes[groupOrdinal]; position++) {
+				newResidentElements[(int) position & (newResidentElements.length - 1)] = residentElements[(int) position
+						& (residentElements.length - 1)];
+			}
+			residentElements = newResidentElements;
+			residentElementsOfGroup[groupOrdinal] = residentElements;
+		}
+		residentElements[(int) groupSizes[groupOrdinal]++ & (residentElements.length - 1)] = element;
+		numberOfResidentElements++;
+	}
+
+	/**
+	 * Places group at the end of queue of free groups in case it is idle, i.e.
+	 * nobody owns it and it isn't free already.
+	 *
+	 * @param groupOrdinal ordinal of group with elements not handed out yet
+	 */
+	void offerGroup(final int groupOrdinal) {
+		if (groupStates[groupOrdinal] != GROUP_IDLE) {
+			return;
+		}
+
+		groupStates[groupOrdinal] = GROUP_FREE;
+		if (numberOfFreeGroups == freeGroupOrdinals.length) {
+			final int[] newFreeGroupOrdinals = new int[freeGroupOrdinals.length << 1];
+			for (int index = 0; index < numberOfFreeGroups; index++) {
+				newFreeGroupOrdinals[index] = freeGroupOrdinals[(firstFreeGroupIndex + index)
+						% freeGroupOrdinals.length];
+			}
+			freeGroupOrdinals = newFreeGroupOrdinals;
+			firstFreeGroupIndex = 0;
+		}
+
+		freeGroupOrdinals[(firstFreeGroupIndex + numberOfFreeGroups) % freeGroupOrdinals.length] = groupOrdinal;
+		numberOfFreeGroups++;
+	}
+
+	/**
+	 * Releases groups of session, which were fully handed out, and fills given
+	 * list with next elements of groups still owned by session and of free
+	 * groups claimed by it. Segments of batch are recorded into slices of session.
+	 *
+	 * @param workerSession   session requesting data
+	 * @param batchSize       maximal number of elements to add
+	 * @param nextBatchOfData list to which elements are added
+	 */
+	void loadNextBatchOfData(final WorkerSession<T, ?> workerSession, final int batchSize,
+			final List<T> nextBatchOfData) {
+		final BatchSlices batchSlices = workerSession.clearedBatchSlices();
+
+		if (workerSession.getNumberOfAssignedGroups() > 0) {
+			releaseFullyProcessedGroups(workerSession);
+			for (int assignmentIndex = 0; nextBatchOfData.size() < batchSize
+					&& assignmentIndex < workerSession.getNumberOfAssignedGroups(); assignmentIndex++) {
+				loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+						nextBatchOfData, batchSlices);
+			}
+		}
+
+		while (nextBatchOfData.size() < batchSize && numberOfFreeGroups > 0) {
+			final int groupOrdinal = claimFreeGroup();
+			final int assignmentIndex = workerSession.assignGroup(groupOrdinal,
+					numberOfHandedOutElementsOfGroup[groupOrdinal]);
+			loadRemainingDataFromGivenGroup(workerSession, assignmentIndex, batchSize - nextBatchOfData.size(),
+					nextBatchOfData, batchSlices);
+		}
+	}
+
+	private void releaseFullyProcessedGroups(final WorkerSession<T, ?> workerSession) {
+		for (int assignmentIndex = 0; assignmentIndex < workerSession.getNumberOfAssignedGroups(); assignmentIndex++) {
+			final int groupOrdinal = workerSession.getAssignedGroupOrdinal(assignmentIndex);
+			if (workerSession.getAssignedGroupLongCursor(assignmentIndex) == groupSizes[groupOrdinal]) {
+				groupStates[groupOrdinal] = GROUP_IDLE;
+				residentElementsOfGroup[groupOrdinal] = null;
+			}
+		}
+
+		workerSession.removeFullyProcessedGroupsBasedOnSize(groupSizes);
+	}
+
+	@SuppressWarnings("unchecked")
+	private void loadRemainingDataFromGivenGroup(final WorkerSession<T, ?> workerSession, final int assignmentIndex,
+			final int remainingSize, final List<T> nextBatchOfData, final BatchSlices batchSlices) {
+		final int groupOrdinal = workerSession.getAssignedGroupOrdinal(assignmentIndex);
+		final long firstIndexToProcess = workerSession.getAssignedGroupLongCursor(assignmentIndex);
+		final long lastIndexToProcess = Math.min(groupSizes[groupOrdinal], firstIndexToProcess + remainingSize);
+		if (firstIndexToProcess < lastIndexToProcess) {
+			final int firstIndexInBatch = nextBatchOfData.size();
+			final Object[] residentElements = residentElementsOfGroup[groupOrdinal];
+			final int mask = residentElements.length - 1;
+			for (long index = firstIndexToProcess; index < lastIndexToProcess; index++) {
+				nextBatchOfData.add((T) residentElements[(int) index & mask]);
+				residentElements[(int) index & mask] = null;
+			}
+			batchSlices.add(groupOrdinal, firstIndexInBatch, nextBatchOfData.size(),
+					lastIndexToProcess == groupSizes[groupOrdinal] && groupCompleteness.test(groupOrdinal));
+			workerSession.setAssignedGroupCursor(assignmentIndex, lastIndexToProcess);
+			numberOfHandedOutElementsOfGroup[groupOrdinal] = lastIndexToProcess;
+			numberOfResidentElements -= (int) (lastIndexToProcess - firstIndexToProcess);
+		}
+	}
+
+	private int claimFreeGroup() {
+		final int groupOrdinal = freeGroupOrdinals[firstFreeGroupIndex];
+		firstFreeGroupIndex = (firstFreeGroupIndex + 1) % freeGroupOrdinals.length;
+		numberOfFreeGroups--;
+		groupStates[groupOrdinal] = GROUP_OWNED;
+		return groupOrdinal;
+	}
+}
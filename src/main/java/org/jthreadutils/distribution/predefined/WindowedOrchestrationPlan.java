@@ -0,0 +1,242 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+
+/**
+ * Plan over source of data, which doesn't have to fit into memory, created via
+ * {@link DataOrchestratorBasedOnImmutableCollection#createWindowedPlan(Iterator, int)}.
+ * At most window size of elements pulled from source, but not yet handed out to
+ * workers, are kept by plan. Every request for data first tops up the window
+ * from source and hands out elements afterwards, element is forgotten by plan
+ * as soon as it is handed out.
+ *
+ * Elements are kept per group in order in which they were pulled, group is
+ * owned by single worker at time and it is released by the owner only once the
+ * owner asks for next batch after all pulled elements of group were handed
+ * out. Elements of group pulled after its release are handed out to the next
+ * owner, so order of elements within group is kept. Groups are claimed in order
+ * in which they received elements, because their sizes are not known upfront.
+ *
+ * In case window is filled by elements of groups owned by other workers, worker
+ * receives empty batch although source is not exhausted yet,
+ * {@link OrchestratedExecutor} waits in such case until window changes. Only
+ * elements are released from memory, group ids seen so far are kept by plan.
+ *
+ * Source is read by threads requesting data while they hold lock on plan
+ * object, all operations of this plan are synchronized on it. In case source
+ * or extractor fails, every request for data fails with
+ * {@link IllegalStateException} caused by that failure.
+ *
+ * @param <T> type of data inside source
+ * @param <O> type of group id object
+ *
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@ThreadSafe
+public class WindowedOrchestrationPlan<T, O> extends OrchestrationPlan<T, O> {
+	private final Iterator<? extends T> source;
+	private final int windowSize;
+	private final GroupOrdinalResolver<T, O> groupOrdinalResolver;
+	private final GroupIdDictionary<O> groupIdDictionary;
+	private final List<T> pulledChunk;
+	private final int[] groupOrdinalsOfPulledChunk;
+
+	private final ResidentGroups<T> residentGroups;
+
+	private int residentElementsHighWaterMark;
+	private long numberOfPulledElements;
+	private long dataVersion;
+	private boolean sourceExhausted;
+	private Throwable failure;
+
+	/**
+	 * Please use
+	 * {@link DataOrchestratorBasedOnImmutableCollection#createWindowedPlan(Iterator, int)}
+	 * in order to create plan.
+	 *
+	 * @param source           source of data, it is read only by this plan
+	 * @param windowSize       maximum number of elements kept by plan, should be
+	 *                         greater than 0
+	 * @param groupIdExtractor extractor used for get <code>groupId</code> for
+	 *                         pulled elements
+	 */
+	WindowedOrchestrationPlan(final Iterator<? extends T> source, final int windowSize,
+			final DataGroupIdExtractor<T, O> groupIdExtractor) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException(
+					"Window size parameter should be greater than 0, currently it is " + windowSize);
+		}
+
+		this.source = source;
+		this.windowSize = windowSize;
+		this.groupOrdinalResolver = new GroupOrdinalResolver<>(groupIdExtractor);
+		this.groupIdDictionary = groupOrdinalResolver.getGroupIdDictionary();
+		// source could contain more elements of any group until it is exhausted
+		this.residentGroups = new ResidentGroups<>(groupOrdinal -> sourceExhausted);
+
+		final int chunkSize = Math.min(windowSize, DataOrchestratorBasedOnImmutableCollection.BULK_EXTRACTION_CHUNK_SIZE);
+		this.pulledChunk = new ArrayList<>(chunkSize);
+		this.groupOrdinalsOfPulledChunk = new int[chunkSize];
+	}
+
+	/**
+	 * @return maximum number of elements kept by plan
+	 *
+	 * @since 1.0.0
+	 */
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * @return number of elements pulled from source, which were not handed out yet
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized int getNumberOfResidentElements() {
+		return residentGroups.getNumberOfResidentElements();
+	}
+
+	/**
+	 * @return the biggest number of elements kept by plan at the same time, it is
+	 *         never bigger than {@link #getWindowSize()}
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized int getResidentElementsHighWaterMark() {
+		return residentElementsHighWaterMark;
+	}
+
+	/**
+	 * @return number of elements pulled from source so far
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized long getNumberOfPulledElements() {
+		return numberOfPulledElements;
+	}
+
+	/**
+	 * @return <code>true</code> in case all elements were pulled from source or
+	 *         source failed
+	 *
+	 * @since 1.0.0
+	 */
+	public synchronized boolean isSourceExhausted() {
+		return sourceExhausted;
+	}
+
+	@Override
+	public synchronized int getNumberOfGroups() {
+		return groupIdDictionary.size();
+	}
+
+	@Override
+	public synchronized O getGroupId(final int groupOrdinal) {
+		return groupIdDictionary.groupIdOf(groupOrdinal);
+	}
+
+	/**
+	 * @return number of elements of group pulled from source so far
+	 */
+	@Override
+	public synchronized int getGroupSize(final int groupOrdinal) {
+		if (groupOrdinal < 0 || groupOrdinal >= groupIdDictionary.size()) {
+			throw new IndexOutOfBoundsException(
+					"Group ordinal " + groupOrdinal + " is out of range [0, " + groupIdDictionary.size() + ")");
+		}
+
+		return Math.toIntExact(residentGroups.getGroupSize(groupOrdinal));
+	}
+
+	@Override
+	protected synchronized Collection<T> poolNextBatchOfData(final WorkerSession<T, O> workerSession,
+			final int batchSize) {
+		validateSessionOwnership(workerSession);
+		pullAhead();
+		if (failure != null) {
+			throw new IllegalStateException("Source of plan couldn't be read to the end", failure);
+		}
+
+		final List<T> nextBatchOfData = new ArrayList<>();
+		residentGroups.loadNextBatchOfData(workerSession, batchSize, nextBatchOfData);
+
+		if (!nextBatchOfData.isEmpty()) {
+			pullAhead();
+			dataVersion++;
+			notifyAll();
+		}
+
+		return nextBatchOfData;
+	}
+
+	@Override
+	synchronized long getDataVersion() {
+		return dataVersion;
+	}
+
+	@Override
+	synchronized boolean awaitDataChangedAfter(final long observedDataVersion, final long timeoutInMillis)
+			throws InterruptedException {
+		final long deadlineInNanos = System.nanoTime() + timeoutInMillis * 1_000_000L;
+		long remainingTimeInNanos;
+		while (dataVersion == observedDataVersion && !sourceExhausted
+				&& (remainingTimeInNanos = deadlineInNanos - System.nanoTime()) > 0) {
+			wait(Math.max(1L, remainingTimeInNanos / 1_000_000L));
+		}
+
+		return dataVersion != observedDataVersion || !sourceExhausted;
+	}
+
+	private void pullAhead() {
+		try {
+			while (!sourceExhausted && residentGroups.getNumberOfResidentElements() < windowSize) {
+				pullNextChunk(Math.min(windowSize - residentGroups.getNumberOfResidentElements(),
+						groupOrdinalsOfPulledChunk.length));
+			}
+		} catch (RuntimeException e) {
+			// reported by the next request, so already assembled batch is not lost
+			pulledChunk.clear();
+			failure = e;
+			sourceExhausted = true;
+			dataVersion++;
+			notifyAll();
+		}
+	}
+
+	private void pullNextChunk(final int chunkSize) {
+		while (pulledChunk.size() < chunkSize && source.hasNext()) {
+			pulledChunk.add(source.next());
+		}
+		if (pulledChunk.size() < chunkSize) {
+			sourceExhausted = true;
+			dataVersion++;
+			notifyAll();
+		}
+		if (pulledChunk.isEmpty()) {
+			return;
+		}
+
+		groupOrdinalResolver.resolveGroupOrdinals(pulledChunk, groupOrdinalsOfPulledChunk);
+		for (int index = 0; index < pulledChunk.size(); index++) {
+			residentGroups.add(groupOrdinalsOfPulledChunk[index], pulledChunk.get(index));
+			residentGroups.offerGroup(groupOrdinalsOfPulledChunk[index]);
+		}
+
+		numberOfPulledElements += pulledChunk.size();
+		residentElementsHighWaterMark = Math.max(residentElementsHighWaterMark,
+				residentGroups.getNumberOfResidentElements());
+		pulledChunk.clear();
+		dataVersion++;
+		notifyAll();
+	}
+}
@@ -0,0 +1,214 @@
+package org.jthreadutils.distribution.predefined;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongUnaryOperator;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Explicit identity of logical worker consuming data from
+ * {@link OrchestrationPlan}, obtained via
+ * {@link OrchestrationPlan#openSession()}. Ownership of
+ * groups is bound to session instead of {@link Thread}, so batches of single
+ * worker could be requested from different threads (i.e. pooled executors or
+ * virtual threads) as long as requests are not overlapping.
+ * 
+ * Session keeps groups assigned to worker together with cursors pointing into
+ * the first element of group not handed out yet, so no lookup is needed in
+ * order to continue processing.
+ * 
+ * @param <T> type of data inside collection
+ * @param <O> type of group id object
+ * 
+ * @author adam-wypych
+ * @since 1.0.0
+ * @version %I%, %G%
+ */
+@NotThreadSafe
+public class WorkerSession<T, O> {
+	private static final int INITIAL_CAPACITY = 4;
+
+	private final OrchestrationPlan<T, O> orchestrationPlan;
+	private int[] assignedGroupOrdinals = new int[INITIAL_CAPACITY];
+	private long[] assignedGroupCursors = new long[INITIAL_CAPACITY];
+	private int numberOfAssignedGroups;
+	private BatchSlices batchSlices;
+
+	WorkerSession(final OrchestrationPlan<T, O> orchestrationPlan) {
+		this.orchestrationPlan = orchestrationPlan;
+	}
+
+	/**
+	 * @return plan from which this session was opened
+	 * 
+	 * @since 1.0.0
+	 */
+	public OrchestrationPlan<T, O> getOrchestrationPlan() {
+		return orchestrationPlan;
+	}
+
+	/**
+	 * @return number of groups assigned to this session, which could still
+	 *         contain data to process
+	 * 
+	 * @since 1.0.0
+	 */
+	public int getNumberOfAssignedGroups() {
+		return numberOfAssignedGroups;
+	}
+
+	/**
+	 * @return original group ids of groups assigned to this session, in order in
+	 *         which they were claimed
+	 * 
+	 * @since 1.0.0
+	 */
+	public List<O> getAssignedGroupIds() {
+		final List<O> assignedGroupIds = new ArrayList<>(numberOfAssignedGroups);
+		for (int assignmentIndex = 0; assignmentIndex < numberOfAssignedGroups; assignmentIndex++) {
+			assignedGroupIds.add(orchestrationPlan.getGroupId(assignedGroupOrdinals[assignmentIndex]));
+		}
+
+		return assignedGroupIds;
+	}
+
+	/**
+	 * @return slices of the last batch collected for this session, emptied before
+	 *         being returned
+	 */
+	BatchSlices clearedBatchSlices() {
+		if (batchSlices == null) {
+			batchSlices = new BatchSlices();
+		}
+
+		batchSlices.clear();
+		return batchSlices;
+	}
+
+	/**
+	 * @return slices of the last batch collected for this session
+	 */
+	BatchSlices getBatchSlices() {
+		if (batchSlices == null) {
+			batchSlices = new BatchSlices();
+		}
+
+		return batchSlices;
+	}
+
+	int getAssignedGroupOrdinal(final int assignmentIndex) {
+		return assignedGroupOrdinals[assignmentIndex];
+	}
+
+	int getAssignedGroupCursor(final int assignmentIndex) {
+		return (int) assignedGroupCursors[assignmentIndex];
+	}
+
+	long getAssignedGroupLongCursor(final int assignmentIndex) {
+		return assignedGroupCursors[assignmentIndex];
+	}
+
+	void setAssignedGroupCursor(final int assignmentIndex, final long cursor) {
+		assignedGroupCursors[assignmentIndex] = cursor;
+	}
+
+	/**
+	 * @param groupOrdinal ordinal of group claimed by this session
+	 * @param cursor       position of the first element of group not handed out
+	 *                     yet
+	 * @return index of assignment within this session
+	 */
+	int assignGroup(final int groupOrdinal, final long cursor) {
+		if (numberOfAssignedGroups == assignedGroupOrdinals.length) {
+			assignedGroupOrdinals = Arrays.copyOf(assignedGroupOrdinals, numberOfAssignedGroups << 1);
+			assignedGroupCursors = Arrays.copyOf(assignedGroupCursors, numberOfAssignedGroups << 1);
+		}
+
+		assignedGroupOrdinals[numberOfAssignedGroups] = groupOrdinal;
+		assignedGroupCursors[numberOfAssignedGroups] = cursor;
+		return numberOfAssignedGroups++;
+	}
+
+	/**
+	 * Removes groups, which cursor reached end of group, order of remaining groups
+	 * is kept.
+	 * 
+	 * @param groupOffsets offsets of groups inside plan positions array
+	 */
+	void removeFullyProcessedGroups(final int[] groupOffsets) {
+		// called for every batch of immutable plan, so it doesn't create capturing
+		// lambda like other variants
+		int numberOfRemainingGroups = 0;
+		for (int assignmentIndex = 0; assignmentIndex < numberOfAssignedGroups; assignmentIndex++) {
+			final int groupOrdinal = assignedGroupOrdinals[assignmentIndex];
+			if (assignedGroupCursors[assignmentIndex] != groupOffsets[groupOrdinal + 1]) {
+				assignedGroupOrdinals[numberOfRemainingGroups] = groupOrdinal;
+				assignedGroupCursors[numberOfRemainingGroups] = assignedGroupCursors[assignmentIndex];
+				numberOfRemainingGroups++;
+			}
+		}
+
+		numberOfAssignedGroups = numberOfRemainingGroups;
+	}
+
+	/**
+	 * The same as {@link #removeFullyProcessedGroups(int[])} for plans with
+	 * <code>long</code> positions.
+	 * 
+	 * @param groupOffsets offsets of groups inside plan positions array
+	 */
+	void removeFullyProcessedGroups(final LongArray groupOffsets) {
+		removeGroupsWithCursorAtEnd(groupOrdinal -> groupOffsets.get(groupOrdinal + 1), cursor -> cursor);
+	}
+
+	/**
+	 * Removes groups, which cursor reached size of group, order of remaining
+	 * groups is kept. Used by plans, which keep cursors relative to the first
+	 * element of group.
+	 * 
+	 * @param groupSizes number of elements of every group
+	 */
+	void removeFullyProcessedGroupsBasedOnSize(final int[] groupSizes) {
+		removeGroupsWithCursorAtEnd(groupOrdinal -> groupSizes[groupOrdinal], cursor -> cursor);
+	}
+
+	/**
+	 * The same as {@link #removeFullyProcessedGroupsBasedOnSize(int[])} for plans
+	 * counting elements of group as <code>long</code>.
+	 * 
+	 * @param groupSizes number of elements of every group
+	 */
+	void removeFullyProcessedGroupsBasedOnSize(final long[] groupSizes) {
+		removeGroupsWithCursorAtEnd(groupOrdinal -> groupSizes[groupOrdinal], cursor -> cursor);
+	}
+
+	/**
+	 * The same as {@link #removeFullyProcessedGroups(int[])} for plans, which
+	 * keep offset inside group in the upper 32 bits of cursor and use the lower
+	 * 32 bits for their own decoding state.
+	 * 
+	 * @param groupOffsets offsets of groups inside plan
+	 */
+	void removeFullyProcessedGroupsBasedOnPackedCursor(final int[] groupOffsets) {
+		removeGroupsWithCursorAtEnd(groupOrdinal -> groupOffsets[groupOrdinal + 1], cursor -> cursor >>> Integer.SIZE);
+	}
+
+	private void removeGroupsWithCursorAtEnd(final IntToLongFunction endOfGroup,
+			final LongUnaryOperator offsetOfCursor) {
+		int numberOfRemainingGroups = 0;
+		for (int assignmentIndex = 0; assignmentIndex < numberOfAssignedGroups; assignmentIndex++) {
+			final int groupOrdinal = assignedGroupOrdinals[assignmentIndex];
+			if (offsetOfCursor.applyAsLong(assignedGroupCursors[assignmentIndex]) != endOfGroup
+					.applyAsLong(groupOrdinal)) {
+				assignedGroupOrdinals[numberOfRemainingGroups] = groupOrdinal;
+				assignedGroupCursors[numberOfRemainingGroups] = assignedGroupCursors[assignmentIndex];
+				numberOfRemainingGroups++;
+			}
+		}
+
+		numberOfAssignedGroups = numberOfRemainingGroups;
+	}
+}
@@ -0,0 +1,59 @@
+package org.jthreadutils.distribution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class CompositeDataGroupIdExtractorTest {
+
+	private final CompositeDataGroupIdExtractor<Object[]> extractor = CompositeDataGroupIdExtractor.<Object[]>builder()
+			.withField(e -> e[0]).withLongField(e -> (Long) e[1]).withIntField(e -> (Integer) e[2]).build();
+
+	@Test
+	public void givenElementsWithEqualFields__whenExtractGroupIdHash__thenHashesShouldBeEqual() {
+		// prepare
+		final Object[] first = new Object[] { "Foobar.org", 11L, 1, "Hat" };
+		final Object[] second = new Object[] { "Foobar.org", 11L, 1, "Gloves" };
+
+		// execute & verify
+		assertThat(extractor.extractGroupIdHash(first)).isEqualTo(extractor.extractGroupIdHash(second));
+	}
+
+	@Test
+	public void givenElementsWithFieldsInSwappedOrder__whenExtractGroupIdHash__thenHashesShouldBeDifferent() {
+		// prepare
+		final CompositeDataGroupIdExtractor<long[]> twoLongsExtractor = CompositeDataGroupIdExtractor.<long[]>builder()
+				.withLongField(e -> e[0]).withLongField(e -> e[1]).build();
+
+		// execute & verify
+		assertThat(twoLongsExtractor.extractGroupIdHash(new long[] { 1L, 2L }))
+				.isNotEqualTo(twoLongsExtractor.extractGroupIdHash(new long[] { 2L, 1L }));
+	}
+
+	@Test
+	public void givenGroupIdOfElement__whenIsGroupOf__thenOnlyElementsWithEqualFieldsShouldBelongToIt() {
+		// prepare
+		final List<Object> groupId = extractor.extractGroupId(new Object[] { "Foobar.org", 11L, 1, "Hat" });
+
+		// execute & verify
+		assertThat(extractor.isGroupOf(new Object[] { "Foobar.org", 11L, 1, "Gloves" }, groupId)).isTrue();
+		assertThat(extractor.isGroupOf(new Object[] { "Foobar.org", 12L, 1, "Hat" }, groupId)).isFalse();
+		assertThat(extractor.isGroupOf(new Object[] { "Foobar.org", 11L, 2, "Hat" }, groupId)).isFalse();
+		assertThat(extractor.isGroupOf(new Object[] { "Foobar.com", 11L, 1, "Hat" }, groupId)).isFalse();
+	}
+
+	@Test
+	public void givenElement__whenExtractGroupId__thenValuesOfFieldsShouldBeReturnInOrderOfFields() {
+		// execute & verify
+		assertThat(extractor.extractGroupId(new Object[] { "Foobar.org", 11L, 1, "Hat" }))
+				.containsExactly("Foobar.org", 11L, 1);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void givenBuilderWithoutFields__whenBuild__thenIllegalStateExceptionShouldBeThrown() {
+		// execute
+		CompositeDataGroupIdExtractor.builder().build();
+	}
+}
@@ -4,6 +4,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
 
 import org.junit.Test;
 
@@ -192,4 +195,77 @@ public class CollectionUtilsTest {
 		// verify
 		assertThat(foundElements).isEmpty();
 	}
+
+	@Test
+	public void givenNonRandomAccessList_andAllIndexesCorrect__whenGetForIndexesBasedOnList__thenCollectionWithExpectedDataShouldBeReturn() {
+		// prepare
+		final Collection<String> elements = new LinkedList<>(Arrays.asList("A", "B", "C", "D", "E"));
+
+		// execute
+		final Collection<String> foundElements = CollectionUtils.getElementsByIndexes(elements, Arrays.asList(4, 2, 2, 0));
+
+		// verify
+		assertThat(foundElements).containsExactly("A", "C", "E");
+	}
+
+	@Test
+	public void givenRandomAccessList_andIndexesArrayRange__whenGetForIndexesBasedOnIntArray__thenElementsInOrderOfIndexesShouldBeReturn() {
+		// prepare
+		final List<String> elements = Arrays.asList("A", "B", "C", "D", "E");
+		final int[] indexes = new int[] { 4, 0, 3, 1, 2 };
+
+		// execute
+		final Collection<String> foundElements = CollectionUtils.getElementsByIndexes(elements, indexes, 1, 4);
+
+		// verify
+		assertThat(foundElements).containsExactly("A", "D", "B");
+	}
+
+	@Test
+	public void givenRandomAccessList_andEmptyIndexesArrayRange__whenGetForIndexesBasedOnIntArray__thenEmptyListShouldBeReturn() {
+		// prepare
+		final List<String> elements = Arrays.asList("A", "B", "C");
+
+		// execute
+		final Collection<String> foundElements = CollectionUtils.getElementsByIndexes(elements, new int[] { 0, 1 }, 1,
+				1);
+
+		// verify
+		assertThat(foundElements).isEmpty();
+	}
+
+	@Test
+	public void givenRandomAccessList_andTargetCollection__whenAddElementsByIndexes__thenElementsShouldBeAppendedToTarget() {
+		// prepare
+		final List<String> elements = Arrays.asList("A", "B", "C");
+		final List<String> target = new ArrayList<>(Arrays.asList("X"));
+
+		// execute
+		CollectionUtils.addElementsByIndexes(elements, new int[] { 2, 1 }, 0, 2, target);
+
+		// verify
+		assertThat(target).containsExactly("X", "C", "B");
+	}
+
+	@Test
+	public void givenRandomAccessList__whenAsRandomAccessList__thenSameListShouldBeReturn() {
+		// prepare
+		final List<String> elements = new ArrayList<>(Arrays.asList("A", "B"));
+
+		// execute & verify
+		assertThat(CollectionUtils.asRandomAccessList(elements)).isSameAs(elements);
+	}
+
+	@Test
+	public void givenNonRandomAccessCollection__whenAsRandomAccessList__thenListWithSameElementsShouldBeReturn() {
+		// prepare
+		final Collection<String> elements = new LinkedList<>(Arrays.asList("A", "B", "C"));
+
+		// execute
+		final List<String> randomAccessList = CollectionUtils.asRandomAccessList(elements);
+
+		// verify
+		assertThat(randomAccessList).isInstanceOf(RandomAccess.class);
+		assertThat(randomAccessList).containsExactly("A", "B", "C");
+	}
 }
@@ -0,0 +1,35 @@
+package org.jthreadutils.distribution.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+public class LongIndexedDataTest {
+
+	@Test
+	public void givenChunksWithEmptyOne__whenGet__thenElementsShouldBeSeenOneAfterAnother() throws Exception {
+		// execute
+		final LongIndexedData<String> data = LongIndexedData.ofChunks(Arrays.asList(Arrays.asList("A", "B"),
+				Collections.<String>emptyList(), new LinkedList<>(Arrays.asList("C")), Arrays.asList("D", "E")));
+
+		// verify
+		assertThat(data.size()).isEqualTo(5);
+		assertThat(data.get(0)).isEqualTo("A");
+		assertThat(data.get(2)).isEqualTo("C");
+		assertThat(data.get(3)).isEqualTo("D");
+		assertThat(data.get(4)).isEqualTo("E");
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void givenChunks__whenGetAfterLastElement__thenIndexOutOfBoundsExceptionShouldBeThrown() throws Exception {
+		// prepare
+		final LongIndexedData<String> data = LongIndexedData.ofChunks(Arrays.asList(Arrays.asList("A", "B")));
+
+		// execute
+		data.get(2);
+	}
+}
@@ -0,0 +1,142 @@
+package org.jthreadutils.distribution.collection.mapped;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.jthreadutils.distribution.predefined.DataOrchestratorBasedOnImmutableCollection;
+import org.jthreadutils.distribution.predefined.ImmutableCollectionOrchestrationPlan;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedRecordFileTest {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void givenFileWithFixedSizeRecords__whenGet__thenSliceOfRecordShouldBeReturned() throws Exception {
+		// prepare
+		final Path file = writeFixedSizeRecords(new long[][] { { 1, 10 }, { 2, 20 }, { 1, 30 } });
+
+		// execute
+		final MappedRecordFile records = MappedRecordFile.ofFixedSizeRecords(file, 16);
+
+		// verify
+		assertThat(records).hasSize(3);
+		assertThat(records.get(1).remaining()).isEqualTo(16);
+		assertThat(records.get(1).getLong(0)).isEqualTo(2);
+		assertThat(records.get(2).getLong(8)).isEqualTo(30);
+		assertThat(records.get(0).isReadOnly()).isTrue();
+	}
+
+	@Test
+	public void givenFileWithFixedSizeRecords_andRegionSmallerThanFile__whenGet__thenRecordsShouldBeFoundInTheirRegions()
+			throws Exception {
+		// prepare
+		final Path file = writeFixedSizeRecords(new long[][] { { 1, 10 }, { 2, 20 }, { 3, 30 }, { 4, 40 }, { 5, 50 } });
+
+		// execute
+		final MappedRecordFile records = MappedRecordFile.ofFixedSizeRecords(file, 16, 40);
+
+		// verify
+		assertThat(records.getNumberOfRegions()).isEqualTo(3);
+		assertThat(records.stream().map(record -> record.getLong(8)).collect(Collectors.toList())).containsExactly(10L,
+				20L, 30L, 40L, 50L);
+	}
+
+	@Test(expected = IOException.class)
+	public void givenFileWithTruncatedFixedSizeRecord__whenOfFixedSizeRecords__thenIOExceptionShouldBeThrown()
+			throws Exception {
+		// prepare
+		final Path file = temporaryFolder.newFile().toPath();
+		Files.write(file, new byte[20]);
+
+		// execute
+		MappedRecordFile.ofFixedSizeRecords(file, 16);
+	}
+
+	@Test
+	public void givenFileWithLengthPrefixedRecords_andRegionSmallerThanFile__whenGet__thenPayloadsShouldBeReturnedInOrder()
+			throws Exception {
+		// prepare
+		final Path file = writeLengthPrefixedRecords("A", "BBBBBB", "", "CCC", "DDDDDDDD");
+
+		// execute
+		final MappedRecordFile records = MappedRecordFile.ofLengthPrefixedRecords(file, 16);
+
+		// verify
+		assertThat(records.getNumberOfRegions()).isGreaterThan(1);
+		assertThat(records.stream().map(MappedRecordFileTest::asString).collect(Collectors.toList()))
+				.containsExactly("A", "BBBBBB", "", "CCC", "DDDDDDDD");
+	}
+
+	@Test(expected = IOException.class)
+	public void givenFileWithRecordExceedingEndOfFile__whenOfLengthPrefixedRecords__thenIOExceptionShouldBeThrown()
+			throws Exception {
+		// prepare
+		final Path file = temporaryFolder.newFile().toPath();
+		Files.write(file, ByteBuffer.allocate(6).putInt(5).array());
+
+		// execute
+		MappedRecordFile.ofLengthPrefixedRecords(file);
+	}
+
+	@Test
+	public void givenMappedRecordFile__whenCreatePlanWithExtractorReadingMappedBytes__thenRecordsShouldBeGroupedByKey()
+			throws Exception {
+		// prepare
+		final MappedRecordFile records = MappedRecordFile
+				.ofFixedSizeRecords(writeFixedSizeRecords(new long[][] { { 7, 1 }, { 8, 2 }, { 7, 3 }, { 7, 4 } }), 16);
+		final LongDataGroupIdExtractor<ByteBuffer> keyExtractor = (record) -> record.getLong(0);
+		final DataOrchestratorBasedOnImmutableCollection<ByteBuffer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				keyExtractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<ByteBuffer, Long> plan = dataOrchestrator.createPlan(records);
+		final List<Long> firstBatchValues = dataOrchestrator.nextPortionOfData(plan, 3).stream()
+				.map(record -> record.getLong(8)).collect(Collectors.toList());
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(2);
+		assertThat(firstBatchValues).containsExactly(1L, 3L, 4L);
+	}
+
+	private Path writeFixedSizeRecords(final long[][] records) throws IOException {
+		final ByteBuffer content = ByteBuffer.allocate(records.length * 16);
+		for (long[] record : records) {
+			content.putLong(record[0]).putLong(record[1]);
+		}
+		final Path file = temporaryFolder.newFile().toPath();
+		Files.write(file, content.array());
+		return file;
+	}
+
+	private Path writeLengthPrefixedRecords(final String... payloads) throws IOException {
+		int size = 0;
+		for (String payload : payloads) {
+			size += Integer.BYTES + payload.length();
+		}
+		final ByteBuffer content = ByteBuffer.allocate(size);
+		for (String payload : payloads) {
+			content.putInt(payload.length()).put(payload.getBytes(StandardCharsets.US_ASCII));
+		}
+		final Path file = temporaryFolder.newFile().toPath();
+		Files.write(file, content.array());
+		return file;
+	}
+
+	private static String asString(final ByteBuffer record) {
+		final byte[] payload = new byte[record.remaining()];
+		record.duplicate().get(payload);
+		return new String(payload, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,199 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.junit.Test;
+
+public class AppendableOrchestrationPlanTest {
+
+	private final DataGroupIdExtractor<String, String> extractor = (e) -> e.substring(0, 1);
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenGroupOwnedBySession__whenNewElementsOfGroupAppended__thenOnlyOwnerShouldReceiveThemInOrder()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "A2", "B1"));
+		final WorkerSession<String, String> owner = plan.openSession();
+		final WorkerSession<String, String> other = plan.openSession();
+
+		// execute
+		final Collection<String> firstBatch = dataOrchestrator.nextPortionOfData(owner, 2);
+		plan.appendAll(Arrays.asList("A3", "C1", "A4"));
+
+		// verify
+		assertThat(firstBatch).containsExactly("A1", "A2");
+		assertThat(dataOrchestrator.nextPortionOfData(other, 10)).containsExactly("B1", "C1");
+		assertThat(dataOrchestrator.nextPortionOfData(owner, 10)).containsExactly("A3", "A4");
+	}
+
+	@Test
+	public void givenGroupFullyHandedOut__whenOwnerDidNotAskForNextBatchYet__thenNewElementsOfGroupShouldBeKeptForOwner()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "A2"));
+		final WorkerSession<String, String> owner = plan.openSession();
+		final WorkerSession<String, String> other = plan.openSession();
+		dataOrchestrator.nextPortionOfData(owner, 10);
+
+		// execute
+		plan.append("A3");
+
+		// verify
+		assertThat(dataOrchestrator.nextPortionOfData(other, 10)).isEmpty();
+		assertThat(dataOrchestrator.nextPortionOfData(owner, 10)).containsExactly("A3");
+	}
+
+	@Test
+	public void givenGroupReleasedByOwner__whenNewElementsOfGroupAppended__thenAnySessionShouldReceiveOnlyNewElements()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "A2"));
+		final WorkerSession<String, String> owner = plan.openSession();
+		final WorkerSession<String, String> other = plan.openSession();
+		dataOrchestrator.nextPortionOfData(owner, 10);
+		assertThat(dataOrchestrator.nextPortionOfData(owner, 10)).isEmpty();
+
+		// execute
+		plan.appendAll(Arrays.asList("A3", "A4"));
+
+		// verify
+		assertThat(owner.getNumberOfAssignedGroups()).isZero();
+		assertThat(dataOrchestrator.nextPortionOfData(other, 10)).containsExactly("A3", "A4");
+		assertThat(plan.getNumberOfGroups()).isEqualTo(1);
+		assertThat(plan.getGroupId(0)).isEqualTo("A");
+		assertThat(plan.getGroupSize(0)).isEqualTo(4);
+	}
+
+	@Test
+	public void givenAppendableJustCreatedPlan__whenNextPortionOfDataByThread__thenElementsShouldBeGroupedInOrderOfArrival()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+
+		// execute
+		plan.appendAll(Arrays.asList("B1", "A1", "B2", "A2"));
+
+		// verify
+		assertThat(dataOrchestrator.nextPortionOfData(plan, 3)).containsExactly("B1", "B2", "A1");
+		assertThat(dataOrchestrator.nextPortionOfData(plan, 3)).containsExactly("A2");
+		assertThat(dataOrchestrator.nextPortionOfData(plan, 3)).isEmpty();
+	}
+
+	@Test
+	public void givenPartiallyHandedOutGroup__whenNextPortionOfDataWithMaximalIntegerBatchSize__thenAllRemainingElementsShouldBeReturned()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "A2", "A3", "A4", "B1"));
+		final WorkerSession<String, String> session = plan.openSession();
+		dataOrchestrator.nextPortionOfData(session, 2);
+
+		// execute
+		final Collection<String> remainingData = dataOrchestrator.nextPortionOfData(session, Integer.MAX_VALUE);
+
+		// verify
+		assertThat(remainingData).containsExactly("A3", "A4", "B1");
+		assertThat(dataOrchestrator.nextPortionOfData(session, Integer.MAX_VALUE)).isEmpty();
+	}
+
+	@Test
+	public void givenElementsAppendedContinuously__whenHandedOut__thenPlanShouldNotKeepThem() throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		final WorkerSession<String, String> session = plan.openSession();
+
+		// execute
+		for (int round = 0; round < 1000; round++) {
+			plan.appendAll(Arrays.asList("A" + round, "B" + round));
+			assertThat(dataOrchestrator.nextPortionOfData(session, 10)).containsExactly("A" + round, "B" + round);
+		}
+
+		// verify
+		assertThat(plan.size()).isEqualTo(2000);
+		assertThat(plan.getNumberOfResidentElements()).isZero();
+		assertThat(plan.getGroupSize(0)).isEqualTo(1000);
+	}
+
+	@Test
+	public void givenLongDataGroupIdExtractor__whenAppendAll__thenElementsShouldBeGroupedByNumericGroupId()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> longExtractor = (e) -> e % 2;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> longDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				longExtractor);
+		final AppendableOrchestrationPlan<Integer, Long> plan = longDataOrchestrator.createAppendablePlan();
+
+		// execute
+		plan.appendAll(IntStream.range(0, 3000).boxed().collect(Collectors.toList()));
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(2);
+		assertThat(plan.getGroupId(1)).isEqualTo(1L);
+		assertThat(longDataOrchestrator.nextPortionOfData(plan, 1500)).allMatch(e -> e % 2 == 0).hasSize(1500);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void givenSealedPlan__whenAppend__thenIllegalStateExceptionShouldBeThrown() throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.seal();
+
+		// execute
+		plan.append("A1");
+	}
+
+	@Test(timeout = 60000)
+	public void givenOrchestratedExecutor__whenDataAppendedDuringExecution__thenAllElementsShouldBeProcessedInGroupOrder_andExecutionShouldFinishAfterSeal()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<Integer, Integer> moduloExtractor = (e) -> e % 13;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> moduloDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				moduloExtractor);
+		final AppendableOrchestrationPlan<Integer, Integer> plan = moduloDataOrchestrator.createAppendablePlan();
+		final Map<Integer, List<Integer>> processedElementsPerGroup = new ConcurrentHashMap<>();
+
+		// execute
+		final CompletableFuture<OrchestrationStatistics> execution = new OrchestratedExecutor<>(
+				moduloDataOrchestrator, 4, 7).execute(plan, batch -> {
+					for (Integer element : batch) {
+						final List<Integer> processedElements = processedElementsPerGroup
+								.computeIfAbsent(element % 13, group -> new ArrayList<>());
+						synchronized (processedElements) {
+							processedElements.add(element);
+						}
+					}
+				});
+		for (int part = 0; part < 20; part++) {
+			plan.appendAll(IntStream.range(part * 500, (part + 1) * 500).boxed().collect(Collectors.toList()));
+			Thread.sleep(5);
+		}
+		assertThat(execution.isDone()).isFalse();
+		plan.seal();
+		final OrchestrationStatistics statistics = execution.get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(10_000);
+		assertThat(processedElementsPerGroup).hasSize(13);
+		for (List<Integer> processedElements : processedElementsPerGroup.values()) {
+			assertThat(processedElements).isSorted();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+public class BatchTest {
+
+	private final DataGroupIdExtractor<String, String> extractor = (e) -> e.substring(0, 1);
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenImmutableCollectionPlan__whenNextBatchFromSingleGroup__thenViewShouldBeBackedBySingleSlice()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "A2", "A3", "B2"));
+		final WorkerSession<String, String> session = plan.openSession();
+
+		// execute
+		final Batch<String> batch = dataOrchestrator.nextBatch(session, 2);
+
+		// verify
+		assertThat(batch).containsExactly("A1", "A2");
+		assertThat(batch.getNumberOfSlices()).isEqualTo(1);
+		assertThat(dataOrchestrator.nextBatch(session, 2)).containsExactly("A3", "B1");
+	}
+
+	@Test
+	public void givenImmutableCollectionPlan__whenNextBatchSpanningManyGroups__thenElementsShouldBeResolvedFromEverySlice()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "C1", "A2", "D1", "D2", "A3"));
+		final WorkerSession<String, String> session = plan.openSession();
+		dataOrchestrator.nextBatch(session, 2);
+
+		// execute
+		final Batch<String> batch = dataOrchestrator.nextBatch(session, 10);
+		final List<String> elementsFromForEach = new ArrayList<>();
+		batch.forEach(elementsFromForEach::add);
+
+		// verify
+		assertThat(batch).hasSize(5);
+		assertThat(batch.get(0)).isEqualTo("A3");
+		assertThat(batch.get(2)).isEqualTo("D2");
+		assertThat(batch.get(3)).isEqualTo("B1");
+		assertThat(batch.get(4)).isEqualTo("C1");
+		assertThat(elementsFromForEach).containsExactly("A3", "D1", "D2", "B1", "C1");
+		// groups B and C are adjacent inside positions array, so their slices are merged
+		assertThat(batch.getNumberOfSlices()).isEqualTo(3);
+		assertThat(dataOrchestrator.nextBatch(session, 10)).isEmpty();
+	}
+
+	@Test
+	public void givenAppendablePlan__whenNextBatch__thenElementsHandedOutByPlanShouldBeWrapped() throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "B1", "A2"));
+
+		// execute
+		final Batch<String> batch = dataOrchestrator.nextBatch(plan.openSession(), 10);
+
+		// verify
+		assertThat(batch).containsExactly("A1", "A2", "B1");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void givenBatch__whenAdd__thenUnsupportedOperationExceptionShouldBeThrown() throws Exception {
+		// prepare
+		final Batch<String> batch = dataOrchestrator
+				.nextBatch(dataOrchestrator.createPlan(Arrays.asList("A1")).openSession(), 1);
+
+		// execute
+		batch.add("A2");
+	}
+}
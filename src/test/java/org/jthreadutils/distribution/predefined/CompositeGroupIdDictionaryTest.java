@@ -0,0 +1,100 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.junit.Test;
+
+public class CompositeGroupIdDictionaryTest {
+
+	private final CompositeDataGroupIdExtractor<String[]> extractor = CompositeDataGroupIdExtractor.<String[]>builder()
+			.withField(e -> e[0]).withField(e -> e[1]).build();
+
+	@Test
+	public void givenElementsOfTheSameGroup__whenOrdinalOf__thenTheSameOrdinalShouldBeAssigned() {
+		// prepare
+		final List<String[]> data = Arrays.asList(new String[] { "Foobar.org", "Customer_11" },
+				new String[] { "Foobar.org", "Customer_12" }, new String[] { "Foobar.org", "Customer_11" });
+		final CompositeGroupIdDictionary<String[]> dictionary = new CompositeGroupIdDictionary<>(extractor);
+
+		// execute & verify
+		assertThat(ordinalOf(dictionary, data, 0)).isEqualTo(0);
+		assertThat(ordinalOf(dictionary, data, 1)).isEqualTo(1);
+		assertThat(ordinalOf(dictionary, data, 2)).isEqualTo(0);
+		assertThat(dictionary.size()).isEqualTo(2);
+		assertThat(dictionary.groupIdOf(1)).containsExactly("Foobar.org", "Customer_12");
+	}
+
+	@Test
+	public void givenElementsOfDifferentGroupsWithCollidingHash__whenOrdinalOf__thenDifferentOrdinalsShouldBeAssigned() {
+		// prepare
+		final List<String[]> data = Arrays.asList(new String[] { "Aa", "X" }, new String[] { "BB", "X" },
+				new String[] { "BB", "X" }, new String[] { "Aa", "X" });
+		final CompositeGroupIdDictionary<String[]> dictionary = new CompositeGroupIdDictionary<>(extractor);
+
+		// execute & verify
+		assertThat(extractor.extractGroupIdHash(data.get(0))).isEqualTo(extractor.extractGroupIdHash(data.get(1)));
+		assertThat(ordinalOf(dictionary, data, 0)).isEqualTo(0);
+		assertThat(ordinalOf(dictionary, data, 1)).isEqualTo(1);
+		assertThat(ordinalOf(dictionary, data, 2)).isEqualTo(1);
+		assertThat(ordinalOf(dictionary, data, 3)).isEqualTo(0);
+		assertThat(dictionary.groupIdOf(0)).containsExactly("Aa", "X");
+		assertThat(dictionary.groupIdOf(1)).containsExactly("BB", "X");
+	}
+
+	@Test
+	public void givenElementsWithFieldsInSwappedOrder__whenOrdinalOf__thenDifferentOrdinalsShouldBeAssigned() {
+		// prepare
+		final CompositeDataGroupIdExtractor<long[]> twoLongsExtractor = CompositeDataGroupIdExtractor.<long[]>builder()
+				.withLongField(e -> e[0]).withLongField(e -> e[1]).build();
+		final CompositeGroupIdDictionary<long[]> dictionary = new CompositeGroupIdDictionary<>(twoLongsExtractor);
+		final long[] first = new long[] { 1L, 2L };
+		final long[] second = new long[] { 2L, 1L };
+		final long[] third = new long[] { 1L, 2L, 3L };
+
+		// execute & verify
+		assertThat(dictionary.ordinalOf(first, twoLongsExtractor.extractGroupIdHash(first))).isEqualTo(0);
+		assertThat(dictionary.ordinalOf(second, twoLongsExtractor.extractGroupIdHash(second))).isEqualTo(1);
+		assertThat(dictionary.ordinalOf(third, twoLongsExtractor.extractGroupIdHash(third))).isEqualTo(0);
+		assertThat(dictionary.groupIdOf(1)).containsExactly(2L, 1L);
+	}
+
+	@Test
+	public void givenElementOfKnownGroup__whenOrdinalOf__thenFieldsOfElementShouldBeReadOnlyOnce() {
+		// prepare
+		final AtomicInteger numberOfFieldReads = new AtomicInteger();
+		final CompositeDataGroupIdExtractor<String[]> countingExtractor = CompositeDataGroupIdExtractor
+				.<String[]>builder().withField(e -> {
+					numberOfFieldReads.incrementAndGet();
+					return e[0];
+				}).build();
+		final CompositeGroupIdDictionary<String[]> dictionary = new CompositeGroupIdDictionary<>(countingExtractor);
+		final String[] firstElement = new String[] { "Foobar.org" };
+		final String[] secondElement = new String[] { "Foobar.org" };
+		dictionary.ordinalOf(firstElement, countingExtractor.extractGroupIdHash(firstElement));
+		final long hashOfSecondElement = countingExtractor.extractGroupIdHash(secondElement);
+		numberOfFieldReads.set(0);
+
+		// execute
+		final int groupOrdinal = dictionary.ordinalOf(secondElement, hashOfSecondElement);
+
+		// verify
+		assertThat(groupOrdinal).isEqualTo(0);
+		assertThat(numberOfFieldReads.get()).isEqualTo(1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void givenOrdinalOfNotExistingGroup__whenGroupIdOf__thenIndexOutOfBoundsExceptionShouldBeThrown() {
+		// execute
+		new CompositeGroupIdDictionary<>(extractor).groupIdOf(0);
+	}
+
+	private int ordinalOf(final CompositeGroupIdDictionary<String[]> dictionary, final List<String[]> data,
+			final int elementIndex) {
+		return dictionary.ordinalOf(data.get(elementIndex), extractor.extractGroupIdHash(data.get(elementIndex)));
+	}
+}
@@ -0,0 +1,150 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.junit.Test;
+
+public class CompressedOrchestrationPlanTest {
+
+	@Test
+	public void givenDataWithClusteredKeys__whenCreateCompressedPlan__thenPositionsShouldTakeAroundSingleByteEach()
+			throws Exception {
+		// prepare
+		final IntDataGroupIdExtractor<Integer> extractor = (e) -> e / 1000;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final List<Integer> data = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+		// execute
+		final CompressedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator.createCompressedPlan(data);
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(10);
+		assertThat(plan.getGroupSize(3)).isEqualTo(1000);
+		// the first position of every group except the first one takes 2 bytes
+		assertThat(plan.getEncodedPositionsSizeInBytes()).isEqualTo(10_000 + 9);
+	}
+
+	@Test
+	public void givenScatteredKeys_andSmallBatches__whenAllDataRequested__thenTheSameDataAsFromUncompressedPlanShouldBeHandedOut()
+			throws Exception {
+		// prepare
+		final IntDataGroupIdExtractor<Integer> extractor = (e) -> (e * 7919) % 5 == 0 ? 0 : e % 97;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final List<Integer> data = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+		final ImmutableCollectionOrchestrationPlan<Integer, Integer> uncompressedPlan = dataOrchestrator
+				.createPlan(data);
+		final CompressedOrchestrationPlan<Integer, Integer> compressedPlan = dataOrchestrator
+				.createCompressedPlan(data);
+
+		// execute
+		final List<Integer> processedFromUncompressedPlan = new ArrayList<>();
+		final List<Integer> processedFromCompressedPlan = new ArrayList<>();
+		final WorkerSession<Integer, Integer> uncompressedPlanSession = uncompressedPlan.openSession();
+		final WorkerSession<Integer, Integer> compressedPlanSession = compressedPlan.openSession();
+		for (int request = 0; request < 50_000 / 333 + 1; request++) {
+			processedFromUncompressedPlan.addAll(dataOrchestrator.nextPortionOfData(uncompressedPlanSession, 333));
+			processedFromCompressedPlan.addAll(dataOrchestrator.nextPortionOfData(compressedPlanSession, 333));
+		}
+
+		// verify
+		assertThat(processedFromCompressedPlan).hasSize(50_000).isEqualTo(processedFromUncompressedPlan);
+		assertThat(dataOrchestrator.nextPortionOfData(compressedPlanSession, 333)).isEmpty();
+		assertThat(compressedPlan.getEncodedPositionsSizeInBytes()).isLessThan(2 * 50_000);
+	}
+
+	@Test
+	public void givenGapsBiggerThanSingleByte__whenNextPortionOfData__thenPositionsShouldBeDecodedFromManyBytes()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<Integer, String> extractor = (e) -> e % 100_000 == 0 ? "rare" : "common";
+		final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final CompressedOrchestrationPlan<Integer, String> plan = dataOrchestrator
+				.createCompressedPlan(IntStream.range(0, 300_001).boxed().collect(Collectors.toList()));
+		final WorkerSession<Integer, String> session = plan.openSession();
+		dataOrchestrator.nextPortionOfData(session, 300_000 - 3);
+
+		// execute
+		final List<Integer> rareGroup = new ArrayList<>(dataOrchestrator.nextPortionOfData(plan.openSession(), 10));
+
+		// verify
+		assertThat(plan.getGroupId(0)).isEqualTo("rare");
+		assertThat(rareGroup).containsExactly(0, 100_000, 200_000, 300_000);
+	}
+
+	@Test
+	public void givenCompositeDataGroupIdExtractor__whenCreateCompressedPlan__thenGroupIdsShouldBeReportedFromRepresentatives()
+			throws Exception {
+		// prepare
+		final CompositeDataGroupIdExtractor<String> extractor = CompositeDataGroupIdExtractor.<String>builder()
+				.withField(e -> e.substring(0, 1)).withIntField(String::length).build();
+		final DataOrchestratorBasedOnImmutableCollection<String, List<Object>> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final CompressedOrchestrationPlan<String, List<Object>> plan = dataOrchestrator
+				.createCompressedPlan(Arrays.asList("A1", "A22", "A3"));
+
+		// verify
+		assertThat(plan.getGroupId(1)).containsExactly("A", 3);
+		assertThat(dataOrchestrator.nextPortionOfData(plan, 10)).containsExactly("A1", "A3", "A22");
+	}
+
+	@Test
+	public void givenOrdinalOutOfRange__whenGetGroupSize__thenIndexOutOfBoundsExceptionWithMessageShouldBeThrown()
+			throws Exception {
+		// prepare
+		final CompressedOrchestrationPlan<Integer, Integer> plan = new DataOrchestratorBasedOnImmutableCollection<>(
+				(DataGroupIdExtractor<Integer, Integer>) (e) -> e % 2).createCompressedPlan(Arrays.asList(1, 2, 3));
+
+		// execute
+		final Throwable failure = catchThrowable(() -> plan.getGroupSize(2));
+
+		// verify
+		assertThat(failure).isExactlyInstanceOf(IndexOutOfBoundsException.class)
+				.hasMessage("Group ordinal 2 is out of range [0, 2)");
+	}
+
+	@Test(timeout = 60000)
+	public void givenOrchestratedExecutor__whenCompressedPlanExecuted__thenEveryGroupShouldBeProcessedInOriginalOrder()
+			throws Exception {
+		// prepare
+		final IntDataGroupIdExtractor<Integer> extractor = (e) -> e % 13;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final CompressedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createCompressedPlan(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+		final Map<Integer, List<Integer>> processedElementsPerGroup = new ConcurrentHashMap<>();
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 4, 7)
+				.execute(plan, batch -> {
+					for (Integer element : batch) {
+						processedElementsPerGroup.computeIfAbsent(element % 13, group -> new ArrayList<>())
+								.add(element);
+					}
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(10_000);
+		for (Map.Entry<Integer, List<Integer>> processedElementsOfGroup : processedElementsPerGroup.entrySet()) {
+			assertThat(processedElementsOfGroup.getValue()).isSorted().hasSize(plan.getGroupSize(
+					processedElementsOfGroup.getKey()));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionBulkExtractionTest {
+
+	private final List<Integer> elements = IntStream.range(0, 2500).boxed().collect(Collectors.toList());
+
+	@Test
+	public void givenExtractorWithBulkMethod__whenCreatePlan__thenBulkMethodShouldBeCalledForConsecutiveChunks()
+			throws Exception {
+		// prepare
+		final ChunkRecordingExtractor extractor = new ChunkRecordingExtractor();
+		final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> plan = dataOrchestrator.createPlan(elements);
+
+		// verify
+		assertThat(extractor.firstElementOfChunks).containsExactly(0, 1024, 2048);
+		assertThat(extractor.sizeOfChunks).containsExactly(1024, 1024, 452);
+		assertThat(consumeAllBatches(dataOrchestrator, plan, 100))
+				.isEqualTo(consumeAllBatches(dataOrchestrator, createPlanWithSingleElementExtractor(), 100));
+	}
+
+	@Test
+	public void givenCollectionWithoutRandomAccess__whenCreatePlan__thenBulkMethodShouldBeCalledForConsecutiveChunks()
+			throws Exception {
+		// prepare
+		final ChunkRecordingExtractor extractor = new ChunkRecordingExtractor();
+		final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> plan = dataOrchestrator
+				.createPlan(new LinkedList<>(elements));
+
+		// verify
+		assertThat(extractor.firstElementOfChunks).containsExactly(0, 1024, 2048);
+		assertThat(consumeAllBatches(dataOrchestrator, plan, 100))
+				.isEqualTo(consumeAllBatches(dataOrchestrator, createPlanWithSingleElementExtractor(), 100));
+	}
+
+	@Test
+	public void givenExtractorWithBulkMethod__whenCreatePlanInParallel__thenBulkMethodShouldBeCalledForEveryChunk()
+			throws Exception {
+		// prepare
+		final ChunkRecordingExtractor extractor = new ChunkRecordingExtractor();
+		final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> plan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(4), 1000);
+
+		// verify
+		assertThat(extractor.firstElementOfChunks).containsExactlyInAnyOrder(0, 625, 1250, 1875);
+		assertThat(consumeAllBatches(dataOrchestrator, plan, 100))
+				.isEqualTo(consumeAllBatches(dataOrchestrator, createPlanWithSingleElementExtractor(), 100));
+	}
+
+	@Test
+	public void givenLongExtractorWithBulkMethod__whenCreatePlan__thenOnlyBulkMethodShouldBeUsed() throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = new LongDataGroupIdExtractor<Integer>() {
+			@Override
+			public long extractLongGroupId(final Integer data) {
+				throw new AssertionError("Single element extraction shouldn't be used");
+			}
+
+			@Override
+			public void extractLongGroupIds(final List<? extends Integer> chunk, final long[] groupIds) {
+				for (int index = 0; index < chunk.size(); index++) {
+					groupIds[index] = chunk.get(index) % 3;
+				}
+			}
+		};
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> plan = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor).createPlan(elements);
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(3);
+		assertThat(plan.getGroupSize(0)).isEqualTo(834);
+	}
+
+	private ImmutableCollectionOrchestrationPlan<Integer, String> createPlanWithSingleElementExtractor() {
+		final DataGroupIdExtractor<Integer, String> extractor = (e) -> "GROUP-" + e % 7;
+		return new DataOrchestratorBasedOnImmutableCollection<>(extractor).createPlan(elements);
+	}
+
+	private List<Collection<Integer>> consumeAllBatches(
+			final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator,
+			final ImmutableCollectionOrchestrationPlan<Integer, String> plan, final int batchSize) {
+		final List<Collection<Integer>> batches = new ArrayList<>();
+		Collection<Integer> batch;
+		while (!(batch = dataOrchestrator.nextPortionOfData(plan, batchSize)).isEmpty()) {
+			batches.add(batch);
+		}
+
+		return batches;
+	}
+
+	private static class ChunkRecordingExtractor implements DataGroupIdExtractor<Integer, String> {
+		private final List<Integer> firstElementOfChunks = new ArrayList<>();
+		private final List<Integer> sizeOfChunks = new ArrayList<>();
+
+		@Override
+		public String extractGroupId(final Integer data) {
+			throw new AssertionError("Single element extraction shouldn't be used");
+		}
+
+		@Override
+		public void extractGroupIds(final List<? extends Integer> chunk, final Object[] groupIds) {
+			synchronized (this) {
+				firstElementOfChunks.add(chunk.get(0));
+				sizeOfChunks.add(chunk.size());
+			}
+			for (int index = 0; index < chunk.size(); index++) {
+				groupIds[index] = "GROUP-" + chunk.get(index) % 7;
+			}
+		}
+	}
+}
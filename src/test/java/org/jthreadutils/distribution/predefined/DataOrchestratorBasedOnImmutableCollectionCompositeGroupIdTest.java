@@ -0,0 +1,68 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionCompositeGroupIdTest {
+
+	private final List<long[]> elements = IntStream.range(0, 1000)
+			.mapToObj(e -> new long[] { e % 5, e % 7 == 0 ? 0 : e % 3 + 1, e }).collect(Collectors.toList());
+	private final CompositeDataGroupIdExtractor<long[]> compositeExtractor = CompositeDataGroupIdExtractor
+			.<long[]>builder().withLongField(e -> e[0]).withIntField(e -> (int) e[1]).build();
+	private final DataOrchestratorBasedOnImmutableCollection<long[], List<Object>> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			compositeExtractor);
+
+	@Test
+	public void givenCompositeDataGroupIdExtractor__whenCreatePlan__thenPlanShouldProvideSameBatchesAsPlanWithGroupIdObjects()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<long[], List<Object>> objectExtractor = (e) -> Arrays.asList(e[0], (int) e[1]);
+		final DataOrchestratorBasedOnImmutableCollection<long[], List<Object>> objectDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				objectExtractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<long[], List<Object>> plan = dataOrchestrator.createPlan(elements);
+
+		// verify
+		assertThat(consumeAllBatches(dataOrchestrator, plan, 13))
+				.isEqualTo(consumeAllBatches(objectDataOrchestrator, objectDataOrchestrator.createPlan(elements), 13));
+		assertThat(plan.getNumberOfGroups()).isEqualTo(20);
+		assertThat(plan.getGroupId(0)).containsExactly(0L, 0);
+		assertThat(plan.getGroupId(1)).containsExactly(1L, 2);
+	}
+
+	@Test
+	public void givenCompositeDataGroupIdExtractor__whenCreatePlanInParallel__thenPlanShouldProvideSameBatchesAsSequentiallyCreatedPlan()
+			throws Exception {
+		// execute
+		final ImmutableCollectionOrchestrationPlan<long[], List<Object>> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(4), 16);
+
+		// verify
+		assertThat(consumeAllBatches(dataOrchestrator, parallelPlan, 13))
+				.isEqualTo(consumeAllBatches(dataOrchestrator, dataOrchestrator.createPlan(elements), 13));
+	}
+
+	private List<List<Long>> consumeAllBatches(
+			final DataOrchestratorBasedOnImmutableCollection<long[], List<Object>> dataOrchestrator,
+			final ImmutableCollectionOrchestrationPlan<long[], List<Object>> plan, final int batchSize) {
+		final List<List<Long>> batches = new ArrayList<>();
+		Collection<long[]> batch;
+		while (!(batch = dataOrchestrator.nextPortionOfData(plan, batchSize)).isEmpty()) {
+			batches.add(batch.stream().map(e -> e[2]).collect(Collectors.toList()));
+		}
+
+		return batches;
+	}
+}
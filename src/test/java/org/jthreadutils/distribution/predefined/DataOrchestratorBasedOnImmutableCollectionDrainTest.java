@@ -0,0 +1,97 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionDrainTest {
+
+	private final DataGroupIdExtractor<String, String> extractor = (e) -> e.substring(0, 1);
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenReusedBuffer__whenDrainToUntilNoData__thenEveryGroupShouldBeWrittenInOriginalOrder()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "A2", "C1", "A3", "B2"));
+		final WorkerSession<String, String> session = plan.openSession();
+		final String[] buffer = new String[4];
+
+		// execute
+		final int firstCount = dataOrchestrator.drainTo(session, buffer);
+		final List<String> firstBatch = new ArrayList<>(Arrays.asList(buffer).subList(0, firstCount));
+		final int secondCount = dataOrchestrator.drainTo(session, buffer);
+		final List<String> secondBatch = new ArrayList<>(Arrays.asList(buffer).subList(0, secondCount));
+		final int thirdCount = dataOrchestrator.drainTo(session, buffer);
+
+		// verify
+		assertThat(firstBatch).containsExactly("A1", "A2", "A3", "B1");
+		assertThat(secondBatch).containsExactly("B2", "C1");
+		assertThat(buffer).containsExactly("B2", "C1", "A3", "B1");
+		assertThat(thirdCount).isZero();
+	}
+
+	@Test
+	public void givenReusedTargetCollection__whenNextPortionOfData__thenElementsShouldBeAddedAfterExistingOnes()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "A2"));
+		final List<Object> target = new ArrayList<>(Arrays.asList("existing"));
+
+		// execute
+		final int count = dataOrchestrator.nextPortionOfData(plan.openSession(), 2, target);
+
+		// verify
+		assertThat(count).isEqualTo(2);
+		assertThat(target).containsExactly("existing", "A1", "A2");
+	}
+
+	@Test
+	public void givenPlanWithoutSession__whenNextPortionOfDataIntoTarget__thenGroupsShouldBeOwnedByCallingThread()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "A2", "A3"));
+		final List<String> target = new ArrayList<>();
+
+		// execute
+		dataOrchestrator.nextPortionOfData(plan, 2, target);
+		dataOrchestrator.nextPortionOfData(plan, 2, target);
+
+		// verify
+		assertThat(target).containsExactly("A1", "A2", "A3", "B1");
+	}
+
+	@Test
+	public void givenAppendablePlan__whenDrainTo__thenElementsHandedOutByPlanShouldBeWritten() throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "B1", "A2"));
+		final String[] buffer = new String[10];
+
+		// execute
+		final int count = dataOrchestrator.drainTo(plan, buffer);
+
+		// verify
+		assertThat(count).isEqualTo(3);
+		assertThat(Arrays.asList(buffer).subList(0, count)).containsExactly("A1", "A2", "B1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenEmptyBuffer__whenDrainTo__thenIllegalArgumentExceptionShouldBeThrown() throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1"));
+
+		// execute
+		dataOrchestrator.drainTo(plan.openSession(), new String[0]);
+	}
+}
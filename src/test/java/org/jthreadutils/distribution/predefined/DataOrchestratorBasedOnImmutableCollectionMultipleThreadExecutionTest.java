@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -32,13 +33,23 @@ public class DataOrchestratorBasedOnImmutableCollectionMultipleThreadExecutionTe
 		
 		final Multimap<Thread, Integer> resultsPerThread = Multimaps.synchronizedMultimap(LinkedHashMultimap.create());
 		final Runnable[] runnables = new Runnable[3];
+		// every thread receives its first batch before any thread asks for the next
+		// one, otherwise thread which started first could consume all groups alone
+		final CountDownLatch awaitFirstBatchOfAll = new CountDownLatch(runnables.length);
 		for (int i = 0; i < runnables.length; i++) {
 			runnables[i] = () -> {
-				Collection<Integer> data = new ArrayList<>(0);
-				do {
+				Collection<Integer> data = dataOrchestrator.nextPortionOfData(orchPlan, 9);
+				resultsPerThread.putAll(Thread.currentThread(), data);
+				awaitFirstBatchOfAll.countDown();
+				try {
+					awaitFirstBatchOfAll.await();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				while(!data.isEmpty()) {
 					data = dataOrchestrator.nextPortionOfData(orchPlan, 9);
 					resultsPerThread.putAll(Thread.currentThread(), data);
-				} while(!data.isEmpty());				
+				}
 			};
 		}
 
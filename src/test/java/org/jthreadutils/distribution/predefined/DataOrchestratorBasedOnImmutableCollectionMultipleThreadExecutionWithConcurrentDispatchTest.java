@@ -0,0 +1,62 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.collection.utils.MultithreadCoordinationTestHarness;
+import org.junit.Test;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+
+public class DataOrchestratorBasedOnImmutableCollectionMultipleThreadExecutionWithConcurrentDispatchTest {
+
+	@Test(timeout = 60000)
+	public void givenManyGroupsWithDifferentSizes_andEightThreads__whenAllThreadsStartedSameTime_andConsumeSmallBatches__thenEveryGroupShouldBeConsumedByOnlyOneThread_inOriginalOrder()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 20000).boxed().collect(Collectors.toList());
+		DataGroupIdExtractor<Integer, Integer> extractor = (e) -> e % 97 == 0 ? -1 : e % 211;
+
+		DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		ImmutableCollectionOrchestrationPlan<Integer, Integer> orchPlan = dataOrchestrator.createPlan(elements);
+
+		final Multimap<Integer, Thread> threadsPerGroup = Multimaps.synchronizedMultimap(LinkedHashMultimap.create());
+		final Multimap<Integer, Integer> elementsPerGroup = Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+		final Runnable[] runnables = new Runnable[8];
+		for (int i = 0; i < runnables.length; i++) {
+			runnables[i] = () -> {
+				Collection<Integer> data = new ArrayList<>(0);
+				do {
+					data = dataOrchestrator.nextPortionOfData(orchPlan, 7);
+					for (Integer element : data) {
+						threadsPerGroup.put(extractor.extractGroupId(element), Thread.currentThread());
+						elementsPerGroup.put(extractor.extractGroupId(element), element);
+					}
+				} while (!data.isEmpty());
+			};
+		}
+
+		// execute
+		final Multimap<Runnable, Throwable> errorsPerThread = new MultithreadCoordinationTestHarness()
+				.allThreadsShouldStartOnSameTime(runnables);
+
+		// verify
+		assertThat(errorsPerThread.isEmpty()).isTrue();
+		assertThat(elementsPerGroup.size()).isEqualTo(elements.size());
+		assertThat(elementsPerGroup.keySet()).hasSize(212);
+		for (Integer groupId : elementsPerGroup.keySet()) {
+			assertThat(threadsPerGroup.get(groupId)).hasSize(1);
+			assertThat(new ArrayList<>(elementsPerGroup.get(groupId))).isSorted();
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.collection.immutable.LockableCollection;
+import org.jthreadutils.distribution.collection.immutable.impl.ArrayListLockableCollection;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionParallelPlanCreationTest {
+
+	private final DataGroupIdExtractor<Integer, String> extractor = (e) -> "GROUP-" + (e % 7 == 0 ? 0 : e % 3 + 1);
+	private final DataOrchestratorBasedOnImmutableCollection<Integer, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenDataBiggerThanSingleChunk__whenCreatePlanInParallel__thenPlanShouldProvideSameBatchesAsSequentiallyCreatedPlan()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(4), 16);
+		final ImmutableCollectionOrchestrationPlan<Integer, String> sequentialPlan = dataOrchestrator
+				.createPlan(elements);
+
+		// verify
+		assertThat(consumeAllBatches(parallelPlan, 13)).isEqualTo(consumeAllBatches(sequentialPlan, 13));
+	}
+
+	@Test
+	public void givenDataBiggerThanSingleChunk__whenCreatePlanInParallel__thenElementsWithinGroupShouldKeepOriginalOrder()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 500).boxed().collect(Collectors.toList());
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(4), 10);
+
+		// verify
+		final List<Integer> allData = new ArrayList<>();
+		consumeAllBatches(parallelPlan, 1000).forEach(allData::addAll);
+		assertThat(allData).hasSize(500);
+		final List<Integer> groupZero = allData.stream().filter(e -> "GROUP-0".equals(extractor.extractGroupId(e)))
+				.collect(Collectors.toList());
+		assertThat(groupZero).isSorted();
+		assertThat(groupZero).hasSize(72);
+	}
+
+	@Test
+	public void givenLockableCollection__whenCreatePlanInParallel__thenCollectionShouldBeMarkedAsImmutable()
+			throws Exception {
+		// prepare
+		final LockableCollection<Integer> elements = new ArrayListLockableCollection<>();
+		IntStream.range(0, 100).forEachOrdered(elements::add);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements);
+
+		// verify
+		assertThat(consumeAllBatches(parallelPlan, 5)).isEqualTo(consumeAllBatches(dataOrchestrator.createPlan(
+				IntStream.range(0, 100).boxed().collect(Collectors.toList())), 5));
+		assertThatThrownBy(() -> elements.add(100)).isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void givenCollectionWithoutRandomAccess__whenCreatePlanInParallel__thenPlanShouldBeCreatedSequentially()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = new LinkedList<>(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(2), 4);
+
+		// verify
+		assertThat(consumeAllBatches(parallelPlan, 9))
+				.isEqualTo(consumeAllBatches(dataOrchestrator.createPlan(elements), 9));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenChunkSizeEqualZero__whenCreatePlanInParallel__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// execute
+		dataOrchestrator.createPlanInParallel(new ArrayList<>(), ForkJoinPool.commonPool(), 0);
+	}
+
+	private List<Collection<Integer>> consumeAllBatches(final ImmutableCollectionOrchestrationPlan<Integer, String> plan,
+			final int batchSize) {
+		final List<Collection<Integer>> batches = new ArrayList<>();
+		Collection<Integer> batch;
+		while (!(batch = dataOrchestrator.nextPortionOfData(plan, batchSize)).isEmpty()) {
+			batches.add(batch);
+		}
+
+		return batches;
+	}
+}
@@ -0,0 +1,207 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionPipelinedPlanTest {
+
+	private final DataGroupIdExtractor<String, String> extractor = (e) -> e.substring(0, 1);
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenPlanGroupedByKey__whenElementOfNextGroupAppended__thenOnlyCompleteGroupsShouldBeHandedOut()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createAppendablePlan(InputGrouping.GROUPED_BY_KEY);
+		final WorkerSession<String, String> session = plan.openSession();
+
+		// execute
+		plan.appendAll(Arrays.asList("A1", "A2"));
+		final Collection<String> beforeGroupComplete = dataOrchestrator.nextPortionOfData(session, 10);
+		plan.appendAll(Arrays.asList("A3", "B1"));
+		final Collection<String> afterGroupComplete = dataOrchestrator.nextPortionOfData(session, 10);
+		plan.seal();
+
+		// verify
+		assertThat(beforeGroupComplete).isEmpty();
+		assertThat(afterGroupComplete).containsExactly("A1", "A2", "A3");
+		assertThat(dataOrchestrator.nextPortionOfData(session, 10)).containsExactly("B1");
+		assertThat(dataOrchestrator.nextPortionOfData(session, 10)).isEmpty();
+	}
+
+	@Test
+	public void givenPlanGroupedByKey__whenElementOfCompleteGroupAppended__thenIllegalStateExceptionShouldBeThrown_andPlanShouldBeFailed()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createAppendablePlan(InputGrouping.GROUPED_BY_KEY);
+
+		// execute
+		final Throwable appendFailure = catchThrowable(() -> plan.appendAll(Arrays.asList("A1", "B1", "A2")));
+		final Throwable nextPortionFailure = catchThrowable(
+				() -> dataOrchestrator.nextPortionOfData(plan.openSession(), 10));
+
+		// verify
+		assertThat(appendFailure).isInstanceOf(IllegalStateException.class).hasMessageContaining("Group A");
+		assertThat(plan.isSealed()).isTrue();
+		assertThat(nextPortionFailure).isInstanceOf(IllegalStateException.class).hasCause(appendFailure);
+	}
+
+	@Test
+	public void givenExtractorFailingDuringScan__whenNextPortionOfData__thenIllegalStateExceptionCausedByFailureShouldBeThrown()
+			throws Exception {
+		// prepare
+		final RuntimeException extractionFailure = new RuntimeException("broken element");
+		final DataOrchestratorBasedOnImmutableCollection<String, String> failingDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				e -> {
+					if (e.isEmpty()) {
+						throw extractionFailure;
+					}
+					return e.substring(0, 1);
+				});
+
+		// execute
+		final AppendableOrchestrationPlan<String, String> plan = failingDataOrchestrator
+				.createPipelinedPlan(Arrays.asList("A1", "", "B1"), InputGrouping.UNGROUPED, Runnable::run);
+		final Throwable nextPortionFailure = catchThrowable(
+				() -> failingDataOrchestrator.nextPortionOfData(plan.openSession(), 10));
+
+		// verify
+		assertThat(plan.isSealed()).isTrue();
+		assertThat(nextPortionFailure).isInstanceOf(IllegalStateException.class).hasCause(extractionFailure);
+	}
+
+	@Test(timeout = 60000)
+	public void givenScanBlockedInTheMiddleOfData__whenNextPortionOfData__thenGroupsAlreadyScannedShouldBeHandedOut()
+			throws Exception {
+		// prepare
+		final CountDownLatch scanMayContinue = new CountDownLatch(1);
+		final List<String> elements = IntStream.range(0, 5000)
+				.mapToObj(index -> (char) ('A' + index / 1000) + Integer.toString(index)).collect(Collectors.toList());
+		final Collection<String> data = new BlockingCollection(elements, 2500, scanMayContinue);
+		final ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+
+		try {
+			// execute
+			final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createPipelinedPlan(data,
+					InputGrouping.GROUPED_BY_KEY, scanExecutor);
+			final WorkerSession<String, String> session = plan.openSession();
+			final List<String> processedBeforeScanFinished = new ArrayList<>();
+			while (processedBeforeScanFinished.size() < 1000) {
+				final long observedDataVersion = plan.getDataVersion();
+				final Collection<String> nextBatchOfData = dataOrchestrator.nextPortionOfData(session, 250);
+				if (nextBatchOfData.isEmpty()) {
+					plan.awaitDataChangedAfter(observedDataVersion, 100);
+				}
+				processedBeforeScanFinished.addAll(nextBatchOfData);
+			}
+			final boolean sealedBeforeScanFinished = plan.isSealed();
+			scanMayContinue.countDown();
+
+			// verify
+			assertThat(sealedBeforeScanFinished).isFalse();
+			assertThat(processedBeforeScanFinished).isEqualTo(elements.subList(0, 1000));
+		} finally {
+			scanMayContinue.countDown();
+			scanExecutor.shutdownNow();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void givenOrchestratedExecutor__whenPipelinedPlanExecuted__thenAllElementsShouldBeProcessedInGroupOrder()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<Integer, Integer> rangeExtractor = (e) -> e / 700;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> rangeDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				rangeExtractor);
+		final List<Integer> elements = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+		final Map<Integer, List<Integer>> processedElementsPerGroup = new ConcurrentHashMap<>();
+		final ExecutorService scanExecutor = Executors.newSingleThreadExecutor();
+
+		try {
+			// execute
+			final AppendableOrchestrationPlan<Integer, Integer> plan = rangeDataOrchestrator
+					.createPipelinedPlan(elements, InputGrouping.GROUPED_BY_KEY, scanExecutor);
+			final OrchestrationStatistics statistics = new OrchestratedExecutor<>(rangeDataOrchestrator, 4, 50)
+					.execute(plan, batch -> {
+						for (Integer element : batch) {
+							processedElementsPerGroup.computeIfAbsent(element / 700, group -> new ArrayList<>())
+									.add(element);
+						}
+					}).get(30, TimeUnit.SECONDS);
+
+			// verify
+			assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(10_000);
+			assertThat(processedElementsPerGroup).hasSize(15);
+			for (Map.Entry<Integer, List<Integer>> processedElementsOfGroup : processedElementsPerGroup.entrySet()) {
+				assertThat(processedElementsOfGroup.getValue()).isEqualTo(elements.stream()
+						.filter(e -> e / 700 == processedElementsOfGroup.getKey()).collect(Collectors.toList()));
+			}
+		} finally {
+			scanExecutor.shutdownNow();
+		}
+	}
+
+	private static class BlockingCollection extends AbstractCollection<String> {
+		private final List<String> elements;
+		private final int blockingIndex;
+		private final CountDownLatch mayContinue;
+
+		private BlockingCollection(final List<String> elements, final int blockingIndex,
+				final CountDownLatch mayContinue) {
+			this.elements = elements;
+			this.blockingIndex = blockingIndex;
+			this.mayContinue = mayContinue;
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			final Iterator<String> elementsIterator = elements.iterator();
+			return new Iterator<String>() {
+				private int index;
+
+				@Override
+				public boolean hasNext() {
+					return elementsIterator.hasNext();
+				}
+
+				@Override
+				public String next() {
+					if (index++ == blockingIndex) {
+						try {
+							mayContinue.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					return elementsIterator.next();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return elements.size();
+		}
+	}
+}
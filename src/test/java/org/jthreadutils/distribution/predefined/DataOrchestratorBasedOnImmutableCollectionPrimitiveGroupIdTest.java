@@ -0,0 +1,89 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.junit.Test;
+
+public class DataOrchestratorBasedOnImmutableCollectionPrimitiveGroupIdTest {
+
+	private final List<Integer> elements = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+	private final DataGroupIdExtractor<Integer, Long> boxedExtractor = (e) -> (e % 7 == 0 ? 0L : e % 3 + 1L) << 40;
+	private final DataOrchestratorBasedOnImmutableCollection<Integer, Long> boxedDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			boxedExtractor);
+
+	@Test
+	public void givenLongDataGroupIdExtractor__whenCreatePlan__thenPlanShouldProvideSameBatchesAsPlanWithBoxedGroupIds()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> (e % 7 == 0 ? 0L : e % 3 + 1L) << 40;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> plan = dataOrchestrator.createPlan(elements);
+
+		// verify
+		assertThat(consumeAllBatches(dataOrchestrator, plan, 13))
+				.isEqualTo(consumeAllBatches(boxedDataOrchestrator, boxedDataOrchestrator.createPlan(elements), 13));
+	}
+
+	@Test
+	public void givenIntDataGroupIdExtractor__whenCreatePlan__thenPlanShouldProvideSameBatchesAsPlanWithBoxedGroupIds()
+			throws Exception {
+		// prepare
+		final IntDataGroupIdExtractor<Integer> extractor = (e) -> e % 7 == 0 ? 0 : e % 3 + 1;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, Integer> plan = dataOrchestrator.createPlan(elements);
+
+		// verify
+		final List<Collection<Integer>> batches = new ArrayList<>();
+		Collection<Integer> batch;
+		while (!(batch = dataOrchestrator.nextPortionOfData(plan, 13)).isEmpty()) {
+			batches.add(batch);
+		}
+		assertThat(batches)
+				.isEqualTo(consumeAllBatches(boxedDataOrchestrator, boxedDataOrchestrator.createPlan(elements), 13));
+	}
+
+	@Test
+	public void givenLongDataGroupIdExtractor__whenCreatePlanInParallel__thenPlanShouldProvideSameBatchesAsSequentiallyCreatedPlan()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> (e % 7 == 0 ? 0L : e % 3 + 1L) << 40;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> parallelPlan = dataOrchestrator
+				.createPlanInParallel(elements, new ForkJoinPool(4), 16);
+
+		// verify
+		assertThat(consumeAllBatches(dataOrchestrator, parallelPlan, 13))
+				.isEqualTo(consumeAllBatches(dataOrchestrator, dataOrchestrator.createPlan(elements), 13));
+	}
+
+	private List<Collection<Integer>> consumeAllBatches(
+			final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator,
+			final ImmutableCollectionOrchestrationPlan<Integer, Long> plan, final int batchSize) {
+		final List<Collection<Integer>> batches = new ArrayList<>();
+		Collection<Integer> batch;
+		while (!(batch = dataOrchestrator.nextPortionOfData(plan, batchSize)).isEmpty()) {
+			batches.add(batch);
+		}
+
+		return batches;
+	}
+}
@@ -0,0 +1,68 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.collection.utils.MultithreadCoordinationTestHarness;
+import org.junit.Test;
+
+import com.google.common.collect.Multimap;
+
+public class FreeGroupQueueTest {
+
+	@Test
+	public void givenThreeGroups__whenClaimCalledFourTimes__thenGroupsShouldBeReturnedInGivenOrder_andThenNoFreeGroup()
+			throws Exception {
+		// prepare
+		final FreeGroupQueue sut = new FreeGroupQueue(new int[] { 2, 0, 1 });
+
+		// execute & verify
+		assertThat(sut.size()).isEqualTo(3);
+		assertThat(sut.claim()).isEqualTo(2);
+		assertThat(sut.claim()).isEqualTo(0);
+		assertThat(sut.isEmpty()).isFalse();
+		assertThat(sut.claim()).isEqualTo(1);
+		assertThat(sut.isEmpty()).isTrue();
+		assertThat(sut.claim()).isEqualTo(FreeGroupQueue.NO_FREE_GROUP);
+		assertThat(sut.size()).isZero();
+	}
+
+	@Test
+	public void givenNoGroups__whenClaim__thenNoFreeGroupShouldBeReturned() throws Exception {
+		// prepare
+		final FreeGroupQueue sut = new FreeGroupQueue(new int[0]);
+
+		// execute & verify
+		assertThat(sut.isEmpty()).isTrue();
+		assertThat(sut.claim()).isEqualTo(FreeGroupQueue.NO_FREE_GROUP);
+	}
+
+	@Test(timeout = 60000)
+	public void givenManyGroups_andFourThreads__whenAllThreadsClaimUntilQueueIsEmpty__thenEveryGroupShouldBeClaimedExactlyOnce()
+			throws Exception {
+		// prepare
+		final int numberOfGroups = 100000;
+		final FreeGroupQueue sut = new FreeGroupQueue(IntStream.range(0, numberOfGroups).toArray());
+		final Set<Integer> claimedGroups = ConcurrentHashMap.newKeySet();
+		final Runnable[] runnables = new Runnable[4];
+		for (int i = 0; i < runnables.length; i++) {
+			runnables[i] = () -> {
+				int groupOrdinal;
+				while ((groupOrdinal = sut.claim()) != FreeGroupQueue.NO_FREE_GROUP) {
+					assertThat(claimedGroups.add(groupOrdinal)).isTrue();
+				}
+			};
+		}
+
+		// execute
+		final Multimap<Runnable, Throwable> errorsPerThread = new MultithreadCoordinationTestHarness()
+				.allThreadsShouldStartOnSameTime(runnables);
+
+		// verify
+		assertThat(errorsPerThread.isEmpty()).isTrue();
+		assertThat(claimedGroups).hasSize(numberOfGroups);
+	}
+}
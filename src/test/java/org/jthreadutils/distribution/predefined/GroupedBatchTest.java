@@ -0,0 +1,143 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+public class GroupedBatchTest {
+
+	private final AtomicInteger numberOfExtractions = new AtomicInteger();
+	private final DataGroupIdExtractor<String, String> extractor = (e) -> {
+		numberOfExtractions.incrementAndGet();
+		return e.substring(0, 1);
+	};
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			extractor);
+
+	@Test
+	public void givenBatchSpanningManyGroups__whenNextGroupedBatch__thenEveryGroupShouldBeReturnedAsSeparateSegment()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "C1", "A2", "B2", "D1", "A3"));
+		final WorkerSession<String, String> session = plan.openSession();
+		dataOrchestrator.nextGroupedBatch(session, 2);
+		numberOfExtractions.set(0);
+
+		// execute
+		final GroupedBatch<String, String> batch = dataOrchestrator.nextGroupedBatch(session, 10);
+
+		// verify
+		assertThat(numberOfExtractions.get()).isZero();
+		assertThat(batch.getElements()).containsExactly("A3", "B1", "B2", "C1", "D1");
+		assertThat(batch.getNumberOfSegments()).isEqualTo(4);
+		assertThat(batch.getGroupId(0)).isEqualTo("A");
+		assertThat(batch.getSegmentElements(0)).containsExactly("A3");
+		assertThat(batch.getGroupId(1)).isEqualTo("B");
+		assertThat(batch.getSegmentElements(1)).containsExactly("B1", "B2");
+		assertThat(batch.getGroupOrdinal(3)).isEqualTo(3);
+		assertThat(batch.getSegmentElements(3)).containsExactly("D1");
+	}
+
+	@Test
+	public void givenGroupedBatch__whenForEachSegment__thenSegmentsShouldBePassedInOrder() throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1", "B1", "A2"));
+		final GroupedBatch<String, String> batch = dataOrchestrator.nextGroupedBatch(plan.openSession(), 10);
+		final List<String> segments = new ArrayList<>();
+
+		// execute
+		batch.forEachSegment((groupId, elements) -> segments.add(groupId + "=" + elements));
+
+		// verify
+		assertThat(segments).containsExactly("A=[A1, A2]", "B=[B1]");
+	}
+
+	@Test
+	public void givenNoMoreData__whenNextGroupedBatch__thenEmptyBatchWithoutSegmentsShouldBeReturned()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createPlan(Arrays.asList("A1"));
+		final WorkerSession<String, String> session = plan.openSession();
+		dataOrchestrator.nextGroupedBatch(session, 10);
+
+		// execute
+		final GroupedBatch<String, String> batch = dataOrchestrator.nextGroupedBatch(session, 10);
+
+		// verify
+		assertThat(batch.isEmpty()).isTrue();
+		assertThat(batch.getNumberOfSegments()).isZero();
+	}
+
+	@Test
+	public void givenNotSealedAppendablePlan__whenNextGroupedBatch__thenSegmentsShouldNotCompleteTheirGroups()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "B1", "A2"));
+
+		// execute
+		final GroupedBatch<String, String> batch = dataOrchestrator.nextGroupedBatch(plan.openSession(), 10);
+
+		// verify
+		assertThat(batch.getElements()).containsExactly("A1", "A2", "B1");
+		assertThat(batch.getNumberOfSegments()).isEqualTo(2);
+		assertThat(batch.getGroupId(0)).isEqualTo("A");
+		assertThat(batch.getSegmentElements(0)).containsExactly("A1", "A2");
+		assertThat(batch.isGroupCompletedBySegment(0)).isFalse();
+		assertThat(batch.getGroupId(1)).isEqualTo("B");
+		assertThat(batch.getSegmentElements(1)).containsExactly("B1");
+		assertThat(batch.isGroupCompletedBySegment(1)).isFalse();
+	}
+
+	@Test
+	public void givenSealedAppendablePlan__whenNextGroupedBatch__thenLastSegmentOfGroupShouldCompleteIt()
+			throws Exception {
+		// prepare
+		final AppendableOrchestrationPlan<String, String> plan = dataOrchestrator.createAppendablePlan();
+		plan.appendAll(Arrays.asList("A1", "B1", "A2"));
+		plan.seal();
+		final WorkerSession<String, String> session = plan.openSession();
+
+		// execute
+		final GroupedBatch<String, String> firstBatch = dataOrchestrator.nextGroupedBatch(session, 1);
+		final GroupedBatch<String, String> secondBatch = dataOrchestrator.nextGroupedBatch(session, 10);
+
+		// verify
+		assertThat(firstBatch.getSegmentElements(0)).containsExactly("A1");
+		assertThat(firstBatch.isGroupCompletedBySegment(0)).isFalse();
+		assertThat(secondBatch.getNumberOfSegments()).isEqualTo(2);
+		assertThat(secondBatch.getSegmentElements(0)).containsExactly("A2");
+		assertThat(secondBatch.isGroupCompletedBySegment(0)).isTrue();
+		assertThat(secondBatch.getSegmentElements(1)).containsExactly("B1");
+		assertThat(secondBatch.isGroupCompletedBySegment(1)).isTrue();
+	}
+
+	@Test
+	public void givenCompressedPlan__whenNextGroupedBatch__thenEveryGroupShouldBeReturnedAsSeparateSegment()
+			throws Exception {
+		// prepare
+		final CompressedOrchestrationPlan<String, String> plan = dataOrchestrator
+				.createCompressedPlan(Arrays.asList("A1", "B1", "A2", "C1"));
+
+		// execute
+		final GroupedBatch<String, String> batch = dataOrchestrator.nextGroupedBatch(plan.openSession(), 10);
+
+		// verify
+		assertThat(batch.getElements()).containsExactly("A1", "A2", "B1", "C1");
+		assertThat(batch.getNumberOfSegments()).isEqualTo(3);
+		assertThat(batch.getGroupId(0)).isEqualTo("A");
+		assertThat(batch.getSegmentElements(0)).containsExactly("A1", "A2");
+		assertThat(batch.getGroupId(2)).isEqualTo("C");
+		assertThat(batch.getSegmentElements(2)).containsExactly("C1");
+		assertThat(batch.isGroupCompletedBySegment(2)).isTrue();
+	}
+}
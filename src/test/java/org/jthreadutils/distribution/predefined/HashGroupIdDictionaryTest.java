@@ -0,0 +1,41 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class HashGroupIdDictionaryTest {
+
+	@Test
+	public void givenEqualCompositeGroupIds__whenOrdinalOf__thenTheSameOrdinalShouldBeAssigned() {
+		// prepare
+		final HashGroupIdDictionary<List<String>> dictionary = new HashGroupIdDictionary<>();
+
+		// execute & verify
+		assertThat(dictionary.ordinalOf(Arrays.asList("Foobar.org", "Customer_11"))).isEqualTo(0);
+		assertThat(dictionary.ordinalOf(Arrays.asList("Foobar.org", "Customer_12"))).isEqualTo(1);
+		assertThat(dictionary.ordinalOf(Arrays.asList("Foobar.org", "Customer_11"))).isEqualTo(0);
+		assertThat(dictionary.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void givenInternedGroupIds__whenGroupIdOf__thenOriginalGroupIdShouldBeReturn() {
+		// prepare
+		final HashGroupIdDictionary<String> dictionary = new HashGroupIdDictionary<>();
+		dictionary.ordinalOf("GROUP-2");
+		dictionary.ordinalOf("GROUP-1");
+
+		// execute & verify
+		assertThat(dictionary.groupIdOf(0)).isEqualTo("GROUP-2");
+		assertThat(dictionary.groupIdOf(1)).isEqualTo("GROUP-1");
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void givenEmptyDictionary__whenGroupIdOf__thenIndexOutOfBoundsExceptionShouldBeThrown() {
+		// execute
+		new HashGroupIdDictionary<String>().groupIdOf(0);
+	}
+}
@@ -138,6 +138,59 @@ public class ImmutableCollectionOrchestrationHelperTest {
 		assertThat(groupKeysFromHighestToLowestOccurance).isEmpty();
 	}
 
+	@Test
+	public void givenGroupsWithSameNumberOfElements__whenCreateArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements__thenGroupsShouldKeepOrderOfOrdinals()
+			throws Exception {
+		// prepare
+		final int[] groupSizes = new int[] { 2, 5, 2, 7, 5, 1 };
+
+		// execute
+		final int[] groupOrdinalsFromHighestToLowestOccurance = sut
+				.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizes, groupSizes.length);
+
+		// verify
+		assertThat(groupOrdinalsFromHighestToLowestOccurance).containsExactly(3, 1, 4, 0, 2, 5);
+	}
+
+	@Test
+	public void givenGroupsWithoutElements__whenCreateArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements__thenEmptyGroupsShouldBeSkipped()
+			throws Exception {
+		// prepare
+		final int[] groupSizes = new int[] { 0, 3, 0, 4, 0, 0 };
+
+		// execute
+		final int[] groupOrdinalsFromHighestToLowestOccurance = sut
+				.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizes, 5);
+
+		// verify
+		assertThat(groupOrdinalsFromHighestToLowestOccurance).containsExactly(3, 1);
+	}
+
+	@Test
+	public void givenBiggestGroupMuchBiggerThanNumberOfGroups__whenCreateArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements__thenGroupsShouldBeSortedFromBiggest()
+			throws Exception {
+		// prepare
+		final int[] groupSizes = new int[] { 70_000, 3_000_000, 1, 65_536, 3_000_000, 131_073, 65_537 };
+
+		// execute
+		final int[] groupOrdinalsFromHighestToLowestOccurance = sut
+				.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(groupSizes, groupSizes.length);
+
+		// verify
+		assertThat(groupOrdinalsFromHighestToLowestOccurance).containsExactly(1, 4, 5, 0, 6, 3, 2);
+	}
+
+	@Test
+	public void givenNoGroups__whenCreateArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements__thenEmptyArrayShouldBeReturn()
+			throws Exception {
+		// execute
+		final int[] groupOrdinalsFromHighestToLowestOccurance = sut
+				.createArrayWithGroupOrdinalsSortedBasedOnBiggestNumberOfElements(new int[0], 0);
+
+		// verify
+		assertThat(groupOrdinalsFromHighestToLowestOccurance).isEmpty();
+	}
+
 	@Before
 	public void setUp() {
 		this.sut = new ImmutableCollectionOrchestrationHelper<>();
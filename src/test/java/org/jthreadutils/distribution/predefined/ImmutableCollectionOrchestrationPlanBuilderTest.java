@@ -61,4 +61,67 @@ public class ImmutableCollectionOrchestrationPlanBuilderTest {
 		// verify
 		assertThat(orchestrationPlan.poolNextBatchOfData(Thread.currentThread(), 2)).containsExactly("1", "3");
 	}
+	
+	@Test
+	public void givenNonEmptyList__whenImmutableCollectionOrchestrationPlanBuildingWithLongGroupIds__thenElementsShouldBeGroupedByNumericGroupId() {
+		// prepare
+		final List<String> dataCollection = Arrays.asList("1", "2", "3", "4");
+		
+		// execute
+		ImmutableCollectionOrchestrationPlanBuilder<String, Long> orchestrationPlanBuilder = ImmutableCollectionOrchestrationPlan.<String, Long>builder(dataCollection).putElementLongGroupIdAssignment(0, 7L).putElementLongGroupIdAssignment(1, -3L).putElementLongGroupIdAssignment(2, 7L).putElementLongGroupIdAssignment(3, -3L);
+		ImmutableCollectionOrchestrationPlan<String, Long> orchestrationPlan = orchestrationPlanBuilder.build();
+		
+		// verify
+		assertThat(orchestrationPlan.poolNextBatchOfData(Thread.currentThread(), 4)).containsExactly("1", "3", "2", "4");
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void givenBuilderWithObjectGroupIds__whenPutElementLongGroupIdAssignment__thenIllegalStateExceptionShouldBeThrown() {
+		// prepare
+		final List<String> dataCollection = Arrays.asList("1", "2");
+		final ImmutableCollectionOrchestrationPlanBuilder<String, Long> orchestrationPlanBuilder = ImmutableCollectionOrchestrationPlan.<String, Long>builder(dataCollection).putElementGroupIdAssignment(0, 1L);
+		
+		// execute
+		orchestrationPlanBuilder.putElementLongGroupIdAssignment(1, 1L);
+	}
+	
+	@Test
+	public void givenNonEmptyList__whenImmutableCollectionOrchestrationPlanBuilding__thenGroupIdsAndSizesShouldBeAvailableByGroupOrdinal() {
+		// prepare
+		final List<String> dataCollection = Arrays.asList("1", "2", "3");
+		
+		// execute
+		ImmutableCollectionOrchestrationPlan<String, String> orchestrationPlan = ImmutableCollectionOrchestrationPlan.<String, String>builder(dataCollection).putElementGroupIdAssignment(0, "GROUP-1").putElementGroupIdAssignment(1, "GROUP-2").putElementGroupIdAssignment(2, "GROUP-1").build();
+		
+		// verify
+		assertThat(orchestrationPlan.getNumberOfGroups()).isEqualTo(2);
+		assertThat(orchestrationPlan.getGroupId(0)).isEqualTo("GROUP-1");
+		assertThat(orchestrationPlan.getGroupSize(0)).isEqualTo(2);
+		assertThat(orchestrationPlan.getGroupId(1)).isEqualTo("GROUP-2");
+		assertThat(orchestrationPlan.getGroupSize(1)).isEqualTo(1);
+	}
+	
+	@Test
+	public void givenNonEmptyList__whenImmutableCollectionOrchestrationPlanBuildingWithIntGroupIds__thenGroupIdsShouldBeReportedAsInteger() {
+		// prepare
+		final List<String> dataCollection = Arrays.asList("1", "2");
+		
+		// execute
+		ImmutableCollectionOrchestrationPlan<String, Integer> orchestrationPlan = ImmutableCollectionOrchestrationPlan.<String, Integer>builder(dataCollection).putElementIntGroupIdAssignment(0, 5).putElementIntGroupIdAssignment(1, 5).build();
+		
+		// verify
+		assertThat(orchestrationPlan.getNumberOfGroups()).isEqualTo(1);
+		assertThat(orchestrationPlan.getGroupId(0)).isEqualTo(Integer.valueOf(5));
+		assertThat(orchestrationPlan.getGroupSize(0)).isEqualTo(2);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void givenBuilderWithLongGroupIds__whenPutElementIntGroupIdAssignment__thenIllegalStateExceptionShouldBeThrown() {
+		// prepare
+		final List<String> dataCollection = Arrays.asList("1", "2");
+		final ImmutableCollectionOrchestrationPlanBuilder<String, Long> orchestrationPlanBuilder = ImmutableCollectionOrchestrationPlan.<String, Long>builder(dataCollection).putElementLongGroupIdAssignment(0, 1L);
+		
+		// execute
+		orchestrationPlanBuilder.putElementIntGroupIdAssignment(1, 1);
+	}
 }
@@ -0,0 +1,124 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import org.junit.Test;
+
+public class ImmutableCollectionOrchestrationPlanIndexOnlyTest {
+
+	@Test
+	public void givenLongKeyColumn__whenDrainPositionsTo__thenPositionsOfBiggestGroupShouldBeWrittenFirst()
+			throws Exception {
+		// prepare
+		final long[] ids = { 7, 3, 7, 9, 7, 3 };
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> plan = DataOrchestratorBasedOnImmutableCollection
+				.createKeyColumnPlan(ids);
+		final WorkerSession<Integer, Long> session = plan.openSession();
+		final int[] buffer = new int[4];
+
+		// execute
+		final int firstCount = plan.drainPositionsTo(session, buffer);
+		final int[] firstBatch = Arrays.copyOf(buffer, firstCount);
+		final int secondCount = plan.drainPositionsTo(session, buffer);
+		final int[] secondBatch = Arrays.copyOf(buffer, secondCount);
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(3);
+		assertThat(plan.getGroupId(0)).isEqualTo(7L);
+		assertThat(firstBatch).containsExactly(0, 2, 4, 1);
+		assertThat(secondBatch).containsExactly(5, 3);
+		assertThat(plan.drainPositionsTo(session, buffer)).isZero();
+	}
+
+	@Test
+	public void givenIntKeyColumn__whenNextPortionOfData__thenPositionsShouldBeHandedOutAsElements() throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<Integer, Integer> plan = DataOrchestratorBasedOnImmutableCollection
+				.createKeyColumnPlan(new int[] { 1, 2, 1 });
+		// extractor is not used, plan is already created
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				(Integer position) -> 0);
+
+		// execute
+		final Batch<Integer> batch = dataOrchestrator.nextBatch(plan.openSession(), 10);
+
+		// verify
+		assertThat(batch).containsExactly(0, 2, 1);
+	}
+
+	@Test
+	public void givenIndexesWithGroupIdFunction__whenDrainPositionsTo__thenGroupIdsShouldBeProvidedByFunction()
+			throws Exception {
+		// prepare
+		final String[] regions = { "EU", "US", "EU" };
+
+		// execute
+		final ImmutableCollectionOrchestrationPlan<Integer, String> plan = DataOrchestratorBasedOnImmutableCollection
+				.createIndexPlan(regions.length, position -> regions[position]);
+		final int[] buffer = new int[10];
+		final int count = plan.drainPositionsTo(plan.openSession(), buffer);
+
+		// verify
+		assertThat(plan.getGroupId(1)).isEqualTo("US");
+		assertThat(Arrays.copyOf(buffer, count)).containsExactly(0, 2, 1);
+	}
+
+	@Test(timeout = 60000)
+	public void givenParallelColumns_andManyWorkers__whenAllPositionsDrained__thenEveryAmountShouldBeSummedOnce()
+			throws Exception {
+		// prepare
+		final int size = 100_000;
+		final long[] ids = new long[size];
+		final double[] amounts = new double[size];
+		for (int position = 0; position < size; position++) {
+			ids[position] = position % 101;
+			amounts[position] = position % 10;
+		}
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> plan = DataOrchestratorBasedOnImmutableCollection
+				.createKeyColumnPlan(ids);
+		final DoubleAdder total = new DoubleAdder();
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		// execute
+		try {
+			final Future<?>[] workers = new Future<?>[4];
+			for (int worker = 0; worker < workers.length; worker++) {
+				workers[worker] = executor.submit(() -> {
+					final WorkerSession<Integer, Long> session = plan.openSession();
+					final int[] buffer = new int[256];
+					int count;
+					while ((count = plan.drainPositionsTo(session, buffer)) > 0) {
+						for (int index = 0; index < count; index++) {
+							total.add(amounts[buffer[index]]);
+						}
+					}
+				});
+			}
+			for (Future<?> worker : workers) {
+				worker.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// verify
+		assertThat(total.sum()).isEqualTo(4.5 * size);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenEmptyBuffer__whenDrainPositionsTo__thenIllegalArgumentExceptionShouldBeThrown() throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<Integer, Long> plan = DataOrchestratorBasedOnImmutableCollection
+				.createKeyColumnPlan(new long[] { 1 });
+
+		// execute
+		plan.drainPositionsTo(plan.openSession(), new int[0]);
+	}
+}
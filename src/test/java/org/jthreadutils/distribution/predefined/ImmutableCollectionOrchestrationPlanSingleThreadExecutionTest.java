@@ -127,4 +127,44 @@ public class ImmutableCollectionOrchestrationPlanSingleThreadExecutionTest {
 		assertThat(orchPlan.poolNextBatchOfData(current, 5)).isEmpty();
 		assertThat(orchPlan.poolNextBatchOfData(next, 5)).isEmpty();
 	}	
+	
+	@Test
+	public void givenOneBigGroup_andOneSmallGroup__whenPoolNextBatchOfDataExecutedWithSingleElementBatchSize__thenBigGroupElementsShouldBeReturnOneByOneInOriginalOrder() throws Exception {
+		// prepare
+		final List<String> elements = IntStream.range(0, 1001).mapToObj(Integer::toString).collect(Collectors.toList());
+		
+		// execute
+		ImmutableCollectionOrchestrationPlanBuilder<String, String> orchPlanBuilder = ImmutableCollectionOrchestrationPlan.<String,String>builder(elements);
+		for (int i = 0; i < 1000; i++) {
+			orchPlanBuilder.putElementGroupIdAssignment(i, "GROUP-BIG");
+		}
+		orchPlanBuilder.putElementGroupIdAssignment(1000, "GROUP-SMALL");
+		ImmutableCollectionOrchestrationPlan<String, String> orchPlan = orchPlanBuilder.build();
+		
+		// verify
+		Thread current = Thread.currentThread();
+		for (int i = 0; i < 1000; i++) {
+			assertThat(orchPlan.poolNextBatchOfData(current, 1)).containsExactly(Integer.toString(i));
+		}
+		assertThat(orchPlan.poolNextBatchOfData(current, 1)).containsExactly("1000");
+		assertThat(orchPlan.poolNextBatchOfData(current, 1)).isEmpty();
+	}
+
+	@Test
+	public void givenTwoGroups__whenPoolNextBatchOfDataExecutedWithMaximalIntegerBatchSize__thenAllDataShouldBeReturnedByFirstRequest() throws Exception {
+		// prepare
+		final List<String> elements = Arrays.asList("a", "b", "b", "b", "b", "b");
+		
+		// execute
+		ImmutableCollectionOrchestrationPlanBuilder<String, String> orchPlanBuilder = ImmutableCollectionOrchestrationPlan.<String,String>builder(elements);
+		for (int i = 0; i < elements.size(); i++) {
+			orchPlanBuilder.putElementGroupIdAssignment(i, elements.get(i));
+		}
+		ImmutableCollectionOrchestrationPlan<String, String> orchPlan = orchPlanBuilder.build();
+		
+		// verify
+		Thread current = Thread.currentThread();
+		assertThat(orchPlan.poolNextBatchOfData(current, Integer.MAX_VALUE)).containsExactly("b", "b", "b", "b", "b", "a");
+		assertThat(orchPlan.poolNextBatchOfData(current, Integer.MAX_VALUE)).isEmpty();
+	}
 }
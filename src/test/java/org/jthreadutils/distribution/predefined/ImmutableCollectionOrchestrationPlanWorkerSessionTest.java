@@ -0,0 +1,105 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.predefined.ImmutableCollectionOrchestrationPlan.ImmutableCollectionOrchestrationPlanBuilder;
+import org.junit.Test;
+
+public class ImmutableCollectionOrchestrationPlanWorkerSessionTest {
+
+	@Test
+	public void givenThreeGroupWithSixSevenEightElements_andTwoSessionsUsedBySameThread__whenPoolNextBatchOfData__thenEverySessionShouldContinueOnlyItsOwnGroups()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> orchPlan = createPlanWithThreeGroups();
+
+		// execute
+		final WorkerSession<String, String> current = orchPlan.openSession();
+		final WorkerSession<String, String> next = orchPlan.openSession();
+
+		// verify
+		assertThat(orchPlan.poolNextBatchOfData(current, 5)).containsExactly("0", "3", "6", "9", "12");
+		assertThat(orchPlan.poolNextBatchOfData(next, 5)).containsExactly("1", "4", "7", "10", "13");
+		assertThat(current.getNumberOfAssignedGroups()).isEqualTo(1);
+		assertThat(orchPlan.poolNextBatchOfData(next, 5)).containsExactly("16", "20", "2", "5", "8");
+		assertThat(next.getNumberOfAssignedGroups()).isEqualTo(2);
+		assertThat(orchPlan.poolNextBatchOfData(current, 5)).containsExactly("15", "18", "19");
+		assertThat(orchPlan.poolNextBatchOfData(next, 5)).containsExactly("11", "14", "17");
+		assertThat(orchPlan.poolNextBatchOfData(current, 5)).isEmpty();
+		assertThat(orchPlan.poolNextBatchOfData(next, 5)).isEmpty();
+		assertThat(current.getNumberOfAssignedGroups()).isZero();
+		assertThat(next.getNumberOfAssignedGroups()).isZero();
+	}
+
+	@Test
+	public void givenThreeGroupWithSixSevenEightElements_andSessionPassedBetweenPoolThreads__whenNextPortionOfData__thenSessionShouldKeepOwnershipOfItsGroups()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> orchPlan = createPlanWithThreeGroups();
+		final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				e -> e);
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		// execute
+		final WorkerSession<String, String> session = orchPlan.openSession();
+		try {
+			final Collection<String> first = executor.submit(() -> dataOrchestrator.nextPortionOfData(session, 5)).get();
+			final Collection<String> fromOtherSession = dataOrchestrator.nextPortionOfData(orchPlan.openSession(), 5);
+			final Collection<String> second = executor.submit(() -> dataOrchestrator.nextPortionOfData(session, 5)).get();
+			final Collection<String> third = executor.submit(() -> dataOrchestrator.nextPortionOfData(session, 5)).get();
+
+			// verify
+			assertThat(first).containsExactly("0", "3", "6", "9", "12");
+			assertThat(fromOtherSession).containsExactly("1", "4", "7", "10", "13");
+			assertThat(second).containsExactly("15", "18", "19", "2", "5");
+			assertThat(third).containsExactly("8", "11", "14", "17");
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenSessionOpenedForOtherPlan__whenPoolNextBatchOfData__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> orchPlan = createPlanWithThreeGroups();
+		final ImmutableCollectionOrchestrationPlan<String, String> otherPlan = createPlanWithThreeGroups();
+
+		// execute
+		orchPlan.poolNextBatchOfData(otherPlan.openSession(), 5);
+	}
+
+	@Test
+	public void givenThreeGroupWithSixSevenEightElements__whenPoolNextBatchOfData__thenSessionShouldReportOriginalIdsOfAssignedGroups()
+			throws Exception {
+		// prepare
+		final ImmutableCollectionOrchestrationPlan<String, String> orchPlan = createPlanWithThreeGroups();
+		final WorkerSession<String, String> session = orchPlan.openSession();
+
+		// execute
+		orchPlan.poolNextBatchOfData(session, 10);
+
+		// verify
+		assertThat(session.getAssignedGroupIds()).containsExactly("GROUP-1", "GROUP-2");
+	}
+
+	private ImmutableCollectionOrchestrationPlan<String, String> createPlanWithThreeGroups() {
+		final List<String> elements = IntStream.range(0, 21).mapToObj(Integer::toString).collect(Collectors.toList());
+		final ImmutableCollectionOrchestrationPlanBuilder<String, String> orchPlanBuilder = ImmutableCollectionOrchestrationPlan
+				.<String, String>builder(elements);
+		for (int i = 0; i < 6 * 3; i++) {
+			orchPlanBuilder.putElementGroupIdAssignment(i, "GROUP-" + ((i % 3) + 1));
+		}
+		orchPlanBuilder.putElementGroupIdAssignment(18, "GROUP-1");
+		orchPlanBuilder.putElementGroupIdAssignment(19, "GROUP-1");
+		orchPlanBuilder.putElementGroupIdAssignment(20, "GROUP-2");
+		return orchPlanBuilder.build();
+	}
+}
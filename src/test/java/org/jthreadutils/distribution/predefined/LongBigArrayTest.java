@@ -0,0 +1,53 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LongBigArrayTest {
+
+	@Test
+	public void givenArrayWithChunksOfEightValues__whenSetValuesAcrossChunks__thenEveryValueShouldBeReturnedByIndex()
+			throws Exception {
+		// prepare
+		final LongBigArray array = new LongBigArray(20, 3);
+
+		// execute
+		for (long index = 0; index < 20; index++) {
+			array.set(index, Long.MAX_VALUE - index);
+		}
+
+		// verify
+		assertThat(array.size()).isEqualTo(20);
+		for (long index = 0; index < 20; index++) {
+			assertThat(array.get(index)).isEqualTo(Long.MAX_VALUE - index);
+		}
+	}
+
+	@Test
+	public void givenIntArrayWithChunksOfEightValues__whenSetValuesAcrossChunks__thenEveryValueShouldBeReturnedByIndex()
+			throws Exception {
+		// prepare
+		final IntBigArray array = new IntBigArray(17, 3);
+
+		// execute
+		for (long index = 0; index < 17; index++) {
+			array.set(index, (int) index * 3);
+		}
+
+		// verify
+		assertThat(array.get(0)).isZero();
+		assertThat(array.get(8)).isEqualTo(24);
+		assertThat(array.get(16)).isEqualTo(48);
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void givenArrayWithChunksOfEightValues__whenGetAfterLastValue__thenArrayIndexOutOfBoundsExceptionShouldBeThrown()
+			throws Exception {
+		// prepare
+		final LongBigArray array = new LongBigArray(10, 3);
+
+		// execute
+		array.get(10);
+	}
+}
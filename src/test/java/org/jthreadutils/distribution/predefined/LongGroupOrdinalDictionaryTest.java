@@ -0,0 +1,55 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LongGroupOrdinalDictionaryTest {
+
+	@Test
+	public void givenRepeatedGroupIds__whenOrdinalOf__thenOrdinalsShouldBeAssignedInOrderOfFirstOccurrence() {
+		// prepare
+		final LongGroupOrdinalDictionary<Long> dictionary = new LongGroupOrdinalDictionary<>(false);
+
+		// execute & verify
+		assertThat(dictionary.ordinalOf(42L)).isEqualTo(0);
+		assertThat(dictionary.ordinalOf(0L)).isEqualTo(1);
+		assertThat(dictionary.ordinalOf(42L)).isEqualTo(0);
+		assertThat(dictionary.ordinalOf(Long.MIN_VALUE)).isEqualTo(2);
+		assertThat(dictionary.ordinalOf(0L)).isEqualTo(1);
+		assertThat(dictionary.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void givenMoreGroupIdsThanInitialCapacity__whenOrdinalOf__thenAllGroupIdsShouldKeepTheirOrdinals() {
+		// prepare
+		final LongGroupOrdinalDictionary<Long> dictionary = new LongGroupOrdinalDictionary<>(false);
+		for (int groupOrdinal = 0; groupOrdinal < 10_000; groupOrdinal++) {
+			dictionary.ordinalOf(groupOrdinal * 1024L);
+		}
+
+		// execute & verify
+		for (int groupOrdinal = 0; groupOrdinal < 10_000; groupOrdinal++) {
+			assertThat(dictionary.ordinalOf(groupOrdinal * 1024L)).isEqualTo(groupOrdinal);
+			assertThat(dictionary.longGroupIdOf(groupOrdinal)).isEqualTo(groupOrdinal * 1024L);
+		}
+		assertThat(dictionary.size()).isEqualTo(10_000);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void givenEmptyDictionary__whenGroupIdOf__thenIndexOutOfBoundsExceptionShouldBeThrown() {
+		// execute
+		new LongGroupOrdinalDictionary<Long>(false).groupIdOf(0);
+	}
+
+	@Test
+	public void givenIntGroupIds__whenGroupIdOf__thenGroupIdShouldBeBoxedAsInteger() {
+		// prepare
+		final LongGroupOrdinalDictionary<Integer> dictionary = new LongGroupOrdinalDictionary<>(true);
+		dictionary.ordinalOf(-5L);
+
+		// execute & verify
+		assertThat(dictionary.groupIdOf(0)).isEqualTo(Integer.valueOf(-5));
+		assertThat(dictionary.ordinalOf(Integer.valueOf(-5))).isEqualTo(0);
+	}
+}
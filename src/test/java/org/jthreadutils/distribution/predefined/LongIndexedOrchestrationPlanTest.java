@@ -0,0 +1,186 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.jthreadutils.distribution.LongDataGroupIdExtractor;
+import org.jthreadutils.distribution.collection.LongIndexedData;
+import org.junit.Test;
+
+public class LongIndexedOrchestrationPlanTest {
+
+	@Test
+	public void givenDataSplitIntoChunks__whenNextPortionOfData__thenBiggestGroupShouldBeHandedOutFirstInOriginalOrder()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<String, String> extractor = (e) -> e.substring(0, 1);
+		final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final LongIndexedData<String> data = LongIndexedData.ofChunks(
+				Arrays.asList(Arrays.asList("A1", "B1", "B2"), Arrays.asList("C1", "B3"), Arrays.asList("A2")));
+
+		// execute
+		final LongIndexedOrchestrationPlan<String, String> plan = dataOrchestrator.createLongIndexedPlan(data);
+		final WorkerSession<String, String> session = plan.openSession();
+
+		// verify
+		assertThat(plan.size()).isEqualTo(6);
+		assertThat(plan.getNumberOfGroups()).isEqualTo(3);
+		assertThat(plan.getGroupId(1)).isEqualTo("B");
+		assertThat(plan.getLongGroupSize(1)).isEqualTo(3);
+		assertThat(dataOrchestrator.nextPortionOfData(session, 2)).containsExactly("B1", "B2");
+		assertThat(dataOrchestrator.nextPortionOfData(plan.openSession(), 2)).containsExactly("A1", "A2");
+		assertThat(dataOrchestrator.nextPortionOfData(session, 2)).containsExactly("B3", "C1");
+		assertThat(dataOrchestrator.nextPortionOfData(session, 2)).isEmpty();
+	}
+
+	@Test
+	public void givenDataBiggerThanExtractionChunk__whenAllDataRequested__thenEveryGroupShouldBeHandedOutInOriginalOrder()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> e % 7;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final List<List<Integer>> chunks = new ArrayList<>();
+		for (int chunkIndex = 0; chunkIndex < 5; chunkIndex++) {
+			chunks.add(IntStream.range(chunkIndex * 1000, (chunkIndex + 1) * 1000).boxed().collect(Collectors.toList()));
+		}
+		final LongIndexedOrchestrationPlan<Integer, Long> plan = dataOrchestrator
+				.createLongIndexedPlan(LongIndexedData.ofChunks(chunks));
+
+		// execute
+		final List<Integer> processed = new ArrayList<>(dataOrchestrator.nextPortionOfData(plan.openSession(), 5000));
+
+		// verify
+		assertThat(processed).hasSize(5000);
+		assertThat(plan.getGroupId(0)).isEqualTo(0L);
+		assertThat(processed.subList(0, plan.getGroupSize(0))).isSorted().allMatch(e -> e % 7 == 0);
+	}
+
+	@Test
+	public void givenCompositeDataGroupIdExtractor__whenCreateLongIndexedPlan__thenGroupIdsShouldBeReportedFromRepresentatives()
+			throws Exception {
+		// prepare
+		final CompositeDataGroupIdExtractor<String> extractor = CompositeDataGroupIdExtractor.<String>builder()
+				.withField(e -> e.substring(0, 1)).withIntField(String::length).build();
+		final DataOrchestratorBasedOnImmutableCollection<String, List<Object>> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final LongIndexedOrchestrationPlan<String, List<Object>> plan = dataOrchestrator
+				.createLongIndexedPlan(LongIndexedData.ofChunks(Arrays.asList(Arrays.asList("A1", "A22", "A3"))));
+
+		// verify
+		assertThat(plan.getNumberOfGroups()).isEqualTo(2);
+		assertThat(plan.getGroupId(0)).containsExactly("A", 2);
+		assertThat(plan.getGroupId(1)).containsExactly("A", 3);
+		assertThat(dataOrchestrator.nextPortionOfData(plan, 10)).containsExactly("A1", "A3", "A22");
+	}
+
+	@Test
+	public void givenPlansKeptInEveryStorage__whenAllDataRequested__thenTheSameDataShouldBeHandedOut() throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> e % 11;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final LongIndexedData<Integer> data = LongIndexedData.ofChunks(Arrays.asList(
+				IntStream.range(0, 3000).boxed().collect(Collectors.toList()),
+				IntStream.range(3000, 4500).boxed().collect(Collectors.toList())));
+		final List<Integer> processedFromHeap = new ArrayList<>(
+				dataOrchestrator.nextPortionOfData(dataOrchestrator.createLongIndexedPlan(data), 4500));
+
+		for (PlanIndexStorage storage : Arrays.asList(PlanIndexStorage.DIRECT_MEMORY,
+				PlanIndexStorage.TEMPORARY_FILE)) {
+			try (LongIndexedOrchestrationPlan<Integer, Long> plan = dataOrchestrator.createLongIndexedPlan(data,
+					storage)) {
+				// execute
+				final List<Integer> processed = new ArrayList<>(dataOrchestrator.nextPortionOfData(plan, 4500));
+
+				// verify
+				assertThat(processed).isEqualTo(processedFromHeap);
+				assertThat(plan.getLongGroupSize(0)).isEqualTo(410);
+			}
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void givenClosedPlanKeptInDirectMemory__whenNextPortionOfData__thenIllegalStateExceptionShouldBeThrown()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> e % 3;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final LongIndexedOrchestrationPlan<Integer, Long> plan = dataOrchestrator.createLongIndexedPlan(
+				LongIndexedData.ofChunks(Arrays.asList(Arrays.asList(1, 2, 3))), PlanIndexStorage.DIRECT_MEMORY);
+		plan.close();
+
+		// execute
+		dataOrchestrator.nextPortionOfData(plan, 10);
+	}
+
+	@Test
+	public void givenBatchBeingReadFromPlanKeptInDirectMemory__whenClose__thenMemoryShouldBeReleasedAfterReadFinished()
+			throws Exception {
+		// prepare
+		final LongDataGroupIdExtractor<Integer> extractor = (e) -> e % 3;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Long> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		final LongIndexedData<Integer> chunks = LongIndexedData.ofChunks(Arrays.asList(Arrays.asList(1, 2, 3, 4)));
+		final AtomicBoolean blockReads = new AtomicBoolean();
+		final CountDownLatch readStarted = new CountDownLatch(1);
+		final CountDownLatch readReleased = new CountDownLatch(1);
+		final LongIndexedData<Integer> data = new LongIndexedData<Integer>() {
+			@Override
+			public long size() {
+				return chunks.size();
+			}
+
+			@Override
+			public Integer get(final long index) {
+				if (blockReads.get()) {
+					readStarted.countDown();
+					try {
+						readReleased.await();
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return chunks.get(index);
+			}
+		};
+		final LongIndexedOrchestrationPlan<Integer, Long> plan = dataOrchestrator.createLongIndexedPlan(data,
+				PlanIndexStorage.DIRECT_MEMORY);
+		blockReads.set(true);
+		final AtomicReference<List<Integer>> processed = new AtomicReference<>();
+		final Thread reader = new Thread(
+				() -> processed.set(new ArrayList<>(dataOrchestrator.nextPortionOfData(plan, 10))));
+		reader.start();
+		readStarted.await();
+
+		// execute
+		final Thread closer = new Thread(plan::close);
+		closer.start();
+		while (closer.getState() != Thread.State.WAITING && closer.getState() != Thread.State.TERMINATED) {
+			Thread.yield();
+		}
+		final boolean closedDuringRead = plan.isClosed();
+		readReleased.countDown();
+		reader.join();
+		closer.join();
+
+		// verify
+		assertThat(closedDuringRead).isFalse();
+		assertThat(processed.get()).containsExactly(1, 4, 2, 3);
+		assertThat(plan.isClosed()).isTrue();
+	}
+}
@@ -0,0 +1,73 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class OffHeapArrayTest {
+
+	@Test
+	public void givenDirectMemory_andChunksOfEightValues__whenSetValuesAcrossChunks__thenEveryValueShouldBeReturnedByIndex()
+			throws Exception {
+		// prepare
+		try (OffHeapMemory memory = new OffHeapMemory(PlanIndexStorage.DIRECT_MEMORY)) {
+			final OffHeapLongArray array = new OffHeapLongArray(memory, 20, 3);
+
+			// execute
+			for (long index = 0; index < 20; index++) {
+				array.set(index, Long.MAX_VALUE - index);
+			}
+
+			// verify
+			assertThat(array.size()).isEqualTo(20);
+			for (long index = 0; index < 20; index++) {
+				assertThat(array.get(index)).isEqualTo(Long.MAX_VALUE - index);
+			}
+		}
+	}
+
+	@Test
+	public void givenTemporaryFile_andChunksOfEightValues__whenSetValuesAcrossChunks__thenEveryValueShouldBeReturnedByIndex()
+			throws Exception {
+		// prepare
+		try (OffHeapMemory memory = new OffHeapMemory(PlanIndexStorage.TEMPORARY_FILE)) {
+			final OffHeapIntArray array = new OffHeapIntArray(memory, 17, 3);
+
+			// execute
+			for (long index = 0; index < 17; index++) {
+				array.set(index, (int) index * -3);
+			}
+
+			// verify
+			assertThat(array.get(0)).isZero();
+			assertThat(array.get(8)).isEqualTo(-24);
+			assertThat(array.get(16)).isEqualTo(-48);
+		}
+	}
+
+	@Test
+	public void givenTemporaryFile__whenClose__thenFileShouldBeDeleted() throws Exception {
+		// prepare
+		final OffHeapMemory memory = new OffHeapMemory(PlanIndexStorage.TEMPORARY_FILE);
+		new OffHeapLongArray(memory, 100, 4);
+		final Path temporaryFile = memory.getTemporaryFile();
+		final boolean existedBeforeClose = Files.exists(temporaryFile);
+
+		// execute
+		memory.close();
+
+		// verify
+		assertThat(existedBeforeClose).isTrue();
+		assertThat(Files.exists(temporaryFile)).isFalse();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenHeapStorage__whenCreateOffHeapMemory__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// execute
+		new OffHeapMemory(PlanIndexStorage.HEAP);
+	}
+}
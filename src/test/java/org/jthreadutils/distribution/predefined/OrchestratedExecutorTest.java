@@ -0,0 +1,244 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.DataGroupIdExtractor;
+import org.junit.Test;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
+
+public class OrchestratedExecutorTest {
+
+	private final DataGroupIdExtractor<Integer, Integer> extractor = (e) -> e % 13;
+
+	@Test(timeout = 60000)
+	public void givenManyGroups_andFourWorkers__whenExecute__thenAllElementsShouldBeConsumedOnce_andEveryGroupByOnlyOneThreadInOriginalOrder()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 5000).boxed().collect(Collectors.toList());
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		final Multimap<Integer, Thread> threadsPerGroup = Multimaps.synchronizedMultimap(LinkedHashMultimap.create());
+		final Multimap<Integer, Integer> elementsPerGroup = Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 4, 11)
+				.execute(dataOrchestrator.createPlan(elements), batch -> {
+					for (Integer element : batch) {
+						threadsPerGroup.put(extractor.extractGroupId(element), Thread.currentThread());
+						elementsPerGroup.put(extractor.extractGroupId(element), element);
+					}
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(elementsPerGroup.size()).isEqualTo(elements.size());
+		for (Integer groupId : elementsPerGroup.keySet()) {
+			assertThat(threadsPerGroup.get(groupId)).hasSize(1);
+			assertThat(new ArrayList<>(elementsPerGroup.get(groupId))).isSorted();
+		}
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(5000);
+		assertThat(statistics.getNumberOfWorkers()).isEqualTo(4);
+		assertThat(statistics.getNumberOfProcessedBatches()).isGreaterThanOrEqualTo(5000 / 11);
+		assertThat(statistics.getThroughputPerSecond()).isPositive();
+	}
+
+	@Test(timeout = 60000)
+	public void givenCustomThreadFactory__whenExecute__thenWorkersShouldBeCreatedByGivenFactory() throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final AtomicInteger numberOfCreatedThreads = new AtomicInteger();
+		final List<String> consumingThreadNames = new ArrayList<>();
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 3, 5,
+				runnable -> new Thread(runnable, "custom-" + numberOfCreatedThreads.getAndIncrement())).execute(dataOrchestrator.createPlan(elements), batch -> {
+			synchronized (consumingThreadNames) {
+				consumingThreadNames.add(Thread.currentThread().getName());
+			}
+		}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(numberOfCreatedThreads.get()).isEqualTo(3);
+		assertThat(consumingThreadNames).allMatch(name -> name.startsWith("custom-"));
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(100);
+		assertThat(statistics.getNumberOfProcessedElements(0) + statistics.getNumberOfProcessedElements(1)
+				+ statistics.getNumberOfProcessedElements(2)).isEqualTo(100);
+	}
+
+	@Test(timeout = 60000)
+	public void givenConsumerThrowingException__whenExecute__thenFutureShouldBeCompletedExceptionally()
+			throws Exception {
+		// prepare
+		final List<Integer> elements = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		final IllegalStateException failure = new IllegalStateException("Processing failed");
+
+		// execute
+		final CompletableFuture<OrchestrationStatistics> execution = new OrchestratedExecutor<>(dataOrchestrator, 2, 10)
+				.execute(dataOrchestrator.createPlan(elements), batch -> {
+					if (batch.contains(500)) {
+						throw failure;
+					}
+				});
+
+		// verify
+		assertThatThrownBy(() -> execution.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCause(failure);
+	}
+
+	@Test(timeout = 60000)
+	public void givenThreadFactoryReturningNull__whenExecute__thenFutureShouldBeCompletedExceptionally()
+			throws Exception {
+		// prepare
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final AtomicInteger numberOfCreatedThreads = new AtomicInteger();
+
+		// execute
+		final CompletableFuture<OrchestrationStatistics> execution = new OrchestratedExecutor<>(dataOrchestrator, 2, 10,
+				runnable -> numberOfCreatedThreads.getAndIncrement() == 0 ? new Thread(runnable) : null)
+						.execute(dataOrchestrator.createPlan(IntStream.range(0, 100).boxed().collect(Collectors.toList())),
+								batch -> {
+								});
+
+		// verify
+		assertThatThrownBy(() -> execution.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test(timeout = 60000)
+	public void givenWorkerThreadFailingToStart__whenExecute__thenFutureShouldBeCompletedExceptionally()
+			throws Exception {
+		// prepare
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		final AtomicInteger numberOfCreatedThreads = new AtomicInteger();
+		final OutOfMemoryError failure = new OutOfMemoryError("unable to create new native thread");
+
+		// execute
+		final CompletableFuture<OrchestrationStatistics> execution = new OrchestratedExecutor<>(dataOrchestrator, 3, 10,
+				runnable -> numberOfCreatedThreads.getAndIncrement() == 1 ? new Thread(runnable) {
+					@Override
+					public synchronized void start() {
+						throw failure;
+					}
+				} : new Thread(runnable))
+						.execute(dataOrchestrator.createPlan(IntStream.range(0, 1000).boxed().collect(Collectors.toList())),
+								batch -> {
+								});
+
+		// verify
+		assertThatThrownBy(() -> execution.get(30, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+				.hasCause(failure);
+	}
+
+	@Test(timeout = 60000)
+	public void givenEmptyPlan__whenExecute__thenFutureShouldBeCompletedWithoutProcessedElements() throws Exception {
+		// prepare
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 2, 10)
+				.execute(dataOrchestrator.createPlan(new ArrayList<>()), batch -> {
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isZero();
+		assertThat(statistics.getNumberOfProcessedBatches()).isZero();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenZeroWorkers__whenCreateOrchestratedExecutor__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// execute
+		new OrchestratedExecutor<>(new DataOrchestratorBasedOnImmutableCollection<>(extractor), 0, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenZeroBatchSize__whenCreateOrchestratedExecutor__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// execute
+		new OrchestratedExecutor<>(new DataOrchestratorBasedOnImmutableCollection<>(extractor), 2, 0);
+	}
+
+	@Test(timeout = 60000)
+	public void givenWholePlanReceivedBySingleWorker__whenExecuteWithGroupStealing__thenIdleWorkerShouldStealSegments_andEveryGroupShouldBeProcessedInOriginalOrder()
+			throws Exception {
+		// prepare
+		final DataGroupIdExtractor<Integer, Integer> fortyGroupsExtractor = (e) -> e % 40;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				fortyGroupsExtractor);
+		final ImmutableCollectionOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createPlan(IntStream.range(0, 200).boxed().collect(Collectors.toList()));
+		final Map<Integer, List<Integer>> elementsPerGroup = new ConcurrentHashMap<>();
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 2, 1000)
+				.executeWithGroupStealing(plan, (groupId, segment) -> {
+					elementsPerGroup.computeIfAbsent(groupId, group -> new ArrayList<>()).addAll(segment);
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(200);
+		assertThat(statistics.getNumberOfProcessedBatches()).isEqualTo(40);
+		assertThat(statistics.getNumberOfStolenSegments()).isPositive();
+		assertThat(statistics.getNumberOfProcessedElements(0)).isPositive();
+		assertThat(statistics.getNumberOfProcessedElements(1)).isPositive();
+		assertThat(elementsPerGroup).hasSize(40);
+		for (Map.Entry<Integer, List<Integer>> elementsOfGroup : elementsPerGroup.entrySet()) {
+			assertThat(elementsOfGroup.getValue()).hasSize(5).isSorted()
+					.allMatch(e -> e % 40 == elementsOfGroup.getKey());
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void givenGroupsBiggerThanBatch__whenExecuteWithGroupStealing__thenSegmentsOfEveryGroupShouldBeProcessedInOriginalOrder()
+			throws Exception {
+		// prepare
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor, DispatchMode.CONCURRENT);
+		final ImmutableCollectionOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createPlan(IntStream.range(0, 5000).boxed().collect(Collectors.toList()));
+		final Multimap<Integer, Integer> elementsPerGroup = Multimaps.synchronizedListMultimap(ArrayListMultimap.create());
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(dataOrchestrator, 4, 50)
+				.executeWithGroupStealing(plan, (groupId, segment) -> {
+					for (Integer element : segment) {
+						assertThat(extractor.extractGroupId(element)).isEqualTo(groupId);
+					}
+					elementsPerGroup.putAll(groupId, segment);
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(5000);
+		assertThat(elementsPerGroup.keySet()).hasSize(13);
+		for (Integer groupId : elementsPerGroup.keySet()) {
+			assertThat(new ArrayList<>(elementsPerGroup.get(groupId))).isSorted();
+		}
+	}
+}
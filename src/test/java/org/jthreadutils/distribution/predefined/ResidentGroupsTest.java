@@ -0,0 +1,60 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ResidentGroupsTest {
+
+	private final DataOrchestratorBasedOnImmutableCollection<String, String> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			(e) -> e.substring(0, 1));
+
+	@Test
+	public void givenGroupsOfferedMoreThanOnce__whenLoadNextBatchOfData__thenGroupsShouldBeClaimedOnceInOrderOfOffer()
+			throws Exception {
+		// prepare
+		final ResidentGroups<String> sut = new ResidentGroups<>(groupOrdinal -> false);
+		sut.add(1, "B1");
+		sut.offerGroup(1);
+		sut.add(0, "A1");
+		sut.offerGroup(0);
+		sut.add(1, "B2");
+		sut.offerGroup(1);
+		final List<String> nextBatchOfData = new ArrayList<>();
+
+		// execute
+		sut.loadNextBatchOfData(new WorkerSession<>(dataOrchestrator.createAppendablePlan()), 10, nextBatchOfData);
+
+		// verify
+		assertThat(nextBatchOfData).containsExactly("B1", "B2", "A1");
+		assertThat(sut.getNumberOfResidentElements()).isZero();
+		assertThat(sut.getGroupSize(1)).isEqualTo(2);
+	}
+
+	@Test
+	public void givenElementsAddedWhileGroupIsPartiallyHandedOut__whenBufferGrows__thenOrderWithinGroupShouldBeKept()
+			throws Exception {
+		// prepare
+		final ResidentGroups<String> sut = new ResidentGroups<>(groupOrdinal -> true);
+		final WorkerSession<String, String> session = new WorkerSession<>(dataOrchestrator.createAppendablePlan());
+		final List<String> nextBatchOfData = new ArrayList<>();
+		for (int index = 0; index < 3; index++) {
+			sut.add(0, "A" + index);
+		}
+		sut.offerGroup(0);
+		sut.loadNextBatchOfData(session, 2, nextBatchOfData);
+
+		// execute
+		for (int index = 3; index < 10; index++) {
+			sut.add(0, "A" + index);
+		}
+		sut.loadNextBatchOfData(session, 10, nextBatchOfData);
+
+		// verify
+		assertThat(nextBatchOfData).containsExactly("A0", "A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9");
+		assertThat(session.getBatchSlices().size()).isEqualTo(8);
+	}
+}
@@ -0,0 +1,182 @@
+package org.jthreadutils.distribution.predefined;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jthreadutils.distribution.CompositeDataGroupIdExtractor;
+import org.jthreadutils.distribution.IntDataGroupIdExtractor;
+import org.junit.Test;
+
+public class WindowedOrchestrationPlanTest {
+
+	private final IntDataGroupIdExtractor<Integer> moduloExtractor = (e) -> e % 4;
+	private final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> dataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+			moduloExtractor);
+
+	@Test
+	public void givenWindowOfTenElements__whenNextPortionOfData__thenWindowShouldBeToppedUpAfterElementsWereHandedOut()
+			throws Exception {
+		// prepare
+		final WindowedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createWindowedPlan(IntStream.range(0, 100).boxed().iterator(), 10);
+		final WorkerSession<Integer, Integer> session = plan.openSession();
+
+		// execute
+		final List<Integer> batch = new ArrayList<>(dataOrchestrator.nextPortionOfData(session, 3));
+
+		// verify
+		assertThat(batch).containsExactly(0, 4, 8);
+		assertThat(plan.getNumberOfPulledElements()).isEqualTo(13);
+		assertThat(plan.getNumberOfResidentElements()).isEqualTo(10);
+		assertThat(plan.getResidentElementsHighWaterMark()).isEqualTo(10);
+		assertThat(plan.isSourceExhausted()).isFalse();
+	}
+
+	@Test
+	public void givenGroupBiggerThanWindow__whenNextPortionOfData__thenOwnerShouldReceiveAllElementsInOrder()
+			throws Exception {
+		// prepare
+		final WindowedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createWindowedPlan(Arrays.asList(0, 4, 8, 12, 16).spliterator(), 2);
+		final WorkerSession<Integer, Integer> owner = plan.openSession();
+		final WorkerSession<Integer, Integer> other = plan.openSession();
+
+		// execute
+		final List<Integer> processed = new ArrayList<>(dataOrchestrator.nextPortionOfData(owner, 10));
+		final boolean otherReceivedData = !dataOrchestrator.nextPortionOfData(other, 10).isEmpty();
+		processed.addAll(dataOrchestrator.nextPortionOfData(owner, 10));
+		processed.addAll(dataOrchestrator.nextPortionOfData(owner, 10));
+
+		// verify
+		assertThat(otherReceivedData).isFalse();
+		assertThat(processed).containsExactly(0, 4, 8, 12, 16);
+		assertThat(dataOrchestrator.nextPortionOfData(owner, 10)).isEmpty();
+		assertThat(plan.isSourceExhausted()).isTrue();
+		assertThat(plan.getResidentElementsHighWaterMark()).isEqualTo(2);
+		assertThat(plan.getGroupSize(0)).isEqualTo(5);
+	}
+
+	@Test
+	public void givenPartiallyHandedOutGroup__whenNextPortionOfDataWithMaximalIntegerBatchSize__thenAllRemainingElementsShouldBeReturned()
+			throws Exception {
+		// prepare
+		final WindowedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator
+				.createWindowedPlan(Arrays.asList(0, 4, 8, 12, 1).spliterator(), 10);
+		final WorkerSession<Integer, Integer> session = plan.openSession();
+		dataOrchestrator.nextPortionOfData(session, 2);
+
+		// execute
+		final List<Integer> remainingData = new ArrayList<>(
+				dataOrchestrator.nextPortionOfData(session, Integer.MAX_VALUE));
+
+		// verify
+		assertThat(remainingData).containsExactly(8, 12, 1);
+		assertThat(dataOrchestrator.nextPortionOfData(session, Integer.MAX_VALUE)).isEmpty();
+		assertThat(plan.getNumberOfResidentElements()).isZero();
+	}
+
+	@Test
+	public void givenCompositeDataGroupIdExtractor__whenNextPortionOfData__thenGroupIdsShouldBeReportedAfterElementsWereHandedOut()
+			throws Exception {
+		// prepare
+		final CompositeDataGroupIdExtractor<String> compositeExtractor = CompositeDataGroupIdExtractor
+				.<String>builder().withField(e -> e.substring(0, 1)).withIntField(String::length).build();
+		final DataOrchestratorBasedOnImmutableCollection<String, List<Object>> compositeDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				compositeExtractor);
+		final WindowedOrchestrationPlan<String, List<Object>> plan = compositeDataOrchestrator
+				.createWindowedPlan(Arrays.asList("A1", "B1", "A22", "A3", "B2").stream(), 3);
+
+		// execute
+		final List<String> processed = new ArrayList<>();
+		final WorkerSession<String, List<Object>> session = plan.openSession();
+		for (int request = 0; request < 5; request++) {
+			processed.addAll(compositeDataOrchestrator.nextPortionOfData(session, 1));
+		}
+
+		// verify
+		assertThat(processed).containsExactly("A1", "A3", "B1", "B2", "A22");
+		assertThat(plan.getNumberOfGroups()).isEqualTo(3);
+		assertThat(plan.getGroupId(0)).containsExactly("A", 2);
+		assertThat(plan.getGroupId(2)).containsExactly("A", 3);
+	}
+
+	@Test
+	public void givenFailingSource__whenNextPortionOfData__thenIllegalStateExceptionCausedByFailureShouldBeThrown()
+			throws Exception {
+		// prepare
+		final RuntimeException sourceFailure = new RuntimeException("broken record");
+		final Iterator<Integer> failingSource = new Iterator<Integer>() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				if (next == 5) {
+					throw sourceFailure;
+				}
+				return next++;
+			}
+		};
+		final WindowedOrchestrationPlan<Integer, Integer> plan = dataOrchestrator.createWindowedPlan(failingSource,
+				100);
+
+		// execute
+		final Throwable failure = catchThrowable(() -> dataOrchestrator.nextPortionOfData(plan.openSession(), 10));
+
+		// verify
+		assertThat(failure).isInstanceOf(IllegalStateException.class).hasCause(sourceFailure);
+		assertThat(plan.isSourceExhausted()).isTrue();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void givenWindowSizeZero__whenCreateWindowedPlan__thenIllegalArgumentExceptionShouldBeThrown()
+			throws Exception {
+		// execute
+		dataOrchestrator.createWindowedPlan(IntStream.range(0, 10).boxed().iterator(), 0);
+	}
+
+	@Test(timeout = 60000)
+	public void givenOrchestratedExecutor__whenWindowedPlanExecuted__thenAllElementsShouldBeProcessedInGroupOrder_andWindowShouldNotBeExceeded()
+			throws Exception {
+		// prepare
+		final IntDataGroupIdExtractor<Integer> extractor = (e) -> e % 13;
+		final DataOrchestratorBasedOnImmutableCollection<Integer, Integer> windowedDataOrchestrator = new DataOrchestratorBasedOnImmutableCollection<>(
+				extractor);
+		final WindowedOrchestrationPlan<Integer, Integer> plan = windowedDataOrchestrator
+				.createWindowedPlan(IntStream.range(0, 10_000).boxed(), 64);
+		final Map<Integer, List<Integer>> processedElementsPerGroup = new ConcurrentHashMap<>();
+
+		// execute
+		final OrchestrationStatistics statistics = new OrchestratedExecutor<>(windowedDataOrchestrator, 4, 7)
+				.execute(plan, batch -> {
+					for (Integer element : batch) {
+						processedElementsPerGroup.computeIfAbsent(element % 13, group -> new ArrayList<>())
+								.add(element);
+					}
+				}).get(30, TimeUnit.SECONDS);
+
+		// verify
+		assertThat(statistics.getNumberOfProcessedElements()).isEqualTo(10_000);
+		assertThat(plan.getResidentElementsHighWaterMark()).isLessThanOrEqualTo(64);
+		assertThat(plan.getNumberOfResidentElements()).isZero();
+		assertThat(processedElementsPerGroup).hasSize(13);
+		for (Map.Entry<Integer, List<Integer>> processedElementsOfGroup : processedElementsPerGroup.entrySet()) {
+			assertThat(processedElementsOfGroup.getValue()).isEqualTo(IntStream.range(0, 10_000)
+					.filter(e -> e % 13 == processedElementsOfGroup.getKey()).boxed().collect(Collectors.toList()));
+		}
+	}
+}